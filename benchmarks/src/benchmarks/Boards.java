@@ -0,0 +1,92 @@
+//********************************************
+// Builds the boards the benchmarks run on
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package benchmarks;
+
+import java.util.Random;
+import model.Board;
+
+/**
+ * Builds the boards the benchmarks run on. Every layout comes from a fixed
+ * seed, so each run measures exactly the same boards.
+ */
+final class Boards
+{
+    /**
+     * The seed every layout is generated from
+     */
+    static final long SEED = 20111018L;
+    
+    private Boards() {}
+    
+    /**
+     * Returns the width and height of a size written as WxH
+     * 
+     * @param size the size
+     * @return the width and height
+     */
+    static int[] parseSize(final String size)
+    {
+        String[] parts = size.split("x");
+        return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+    }
+    
+    /**
+     * Returns the representation named by a benchmark parameter
+     * 
+     * @param name ARRAY or BITS
+     * @return Board.ARRAY or Board.BITS
+     */
+    static int parseRepresentation(final String name)
+    {
+        return "BITS".equals(name) ? Board.BITS : Board.ARRAY;
+    }
+    
+    /**
+     * Returns the number of mines for a board size and density
+     * 
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param density the fraction of cells that are mines
+     * @return the number of mines, at least 1
+     */
+    static int numMines(final int width, final int height, final double density)
+    {
+        return Math.max(1, (int) Math.round(width*height*density));
+    }
+    
+    /**
+     * Returns a layout of mines that leaves the middle cell safe
+     * 
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param numMines the number of mines
+     * @param seed the seed of the layout
+     * @return the cells that contain a mine, in ascending order
+     */
+    static int[] layout(final int width, final int height, final int numMines, final long seed)
+    {
+        Board board = Board.create(Board.ARRAY, width, height, numMines, new Random(seed));
+        board.addMines(width / 2, height / 2);
+        return board.getMineCells();
+    }
+    
+    /**
+     * Returns a board with the given mines added
+     * 
+     * @param representation Board.ARRAY or Board.BITS
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param mines the cells that contain a mine
+     * @return the board
+     */
+    static Board board(final int representation, final int width, final int height, final int[] mines)
+    {
+        Board board = Board.create(representation, width, height, mines.length, null);
+        board.setMines(mines);
+        return board;
+    }
+}
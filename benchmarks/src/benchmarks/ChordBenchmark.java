@@ -0,0 +1,95 @@
+//********************************************
+// Measures uncovering the cells around numbers
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import model.Board;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures uncovering the cells around numbers with Board.uncoverAdjacent,
+ * as a middle click does. Every mine is flagged and every other number is
+ * uncovered beforehand, then each of those numbers is chorded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class ChordBenchmark
+{
+    @Param({"30x16", "1000x1000"})
+    public String size;
+    
+    @Param({"0.12", "0.21"})
+    public double density;
+    
+    @Param({"ARRAY", "BITS"})
+    public String representation;
+    
+    private int rep;
+    private int width;
+    private int height;
+    private int[] mines;
+    
+    /**
+     * The numbers uncovered before each invocation
+     */
+    private int[] numbers;
+    private int numNumbers;
+    
+    private Board board;
+    
+    @Setup(Level.Trial)
+    public void setupTrial()
+    {
+        int[] dimensions = Boards.parseSize(this.size);
+        this.width = dimensions[0];
+        this.height = dimensions[1];
+        this.rep = Boards.parseRepresentation(this.representation);
+        this.mines = Boards.layout(this.width, this.height,
+                                   Boards.numMines(this.width, this.height, this.density), Boards.SEED);
+        
+        Board counted = Boards.board(Board.ARRAY, this.width, this.height, this.mines);
+        this.numbers = new int[this.width*this.height];
+        for (int row=0; row<this.height; row++) {
+        for (int col=0; col<this.width; col++)
+        {
+            if ((col + row) % 2 == 0 && counted.getValue(col, row) > 0)
+            {
+                this.numbers[this.numNumbers++] = row*this.width + col;
+            }
+        }
+        }
+    }
+    
+    @Setup(Level.Invocation)
+    public void setupInvocation()
+    {
+        this.board = Boards.board(this.rep, this.width, this.height, this.mines);
+        for (int mine : this.mines)
+        {
+            this.board.toggleFlagged(mine % this.width, mine / this.width);
+        }
+        for (int i=0; i<this.numNumbers; i++)
+        {
+            this.board.uncover(this.numbers[i] % this.width, this.numbers[i] / this.width);
+        }
+    }
+    
+    @Benchmark
+    public Board uncoverAdjacent()
+    {
+        for (int i=0; i<this.numNumbers; i++)
+        {
+            this.board.uncoverAdjacent(this.numbers[i] % this.width, this.numbers[i] / this.width);
+        }
+        
+        return this.board;
+    }
+}
@@ -0,0 +1,94 @@
+//********************************************
+// Measures the leaderboard of games won
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package benchmarks;
+
+import data.Leaderboard;
+import data.SingleTime;
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the leaderboard of games won: loading its log, adding a game,
+ * and the rank and fastest-time queries made when a game ends. The log
+ * holds the given number of games spread over the three difficulties.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class LeaderboardBenchmark
+{
+    private static final String[] CATEGORIES = {"Beginner", "Intermediate", "Expert"};
+    
+    @Param({"1000", "1000000"})
+    public int numGames;
+    
+    private File file;
+    private Leaderboard leaderboard;
+    private Random random;
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        this.file = File.createTempFile("leaderboard", ".log");
+        this.file.delete();
+        this.random = new Random(Boards.SEED);
+        
+        Leaderboard writer = new Leaderboard(this.file.getPath());
+        for (int i=0; i<this.numGames; i++)
+        {
+            writer.add(CATEGORIES[i % 3], "Player " + (i % 50), this.randomTime(), 1300000000000L + i*60000L);
+        }
+        this.leaderboard = new Leaderboard(this.file.getPath());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        this.file.delete();
+    }
+    
+    /**
+     * Returns a random time between 1 and 1000 seconds
+     * 
+     * @return the time, in milliseconds
+     */
+    private int randomTime()
+    {
+        return 1000 + this.random.nextInt(999000);
+    }
+    
+    @Benchmark
+    public Leaderboard load() throws Exception
+    {
+        return new Leaderboard(this.file.getPath());
+    }
+    
+    @Benchmark
+    public Leaderboard add() throws Exception
+    {
+        this.leaderboard.add("Expert", "Player 1", this.randomTime(), System.currentTimeMillis());
+        return this.leaderboard;
+    }
+    
+    @Benchmark
+    public int rank()
+    {
+        return this.leaderboard.getRank("Expert", this.randomTime());
+    }
+    
+    @Benchmark
+    public List<SingleTime> top10()
+    {
+        return this.leaderboard.getTop("Expert", 10);
+    }
+}
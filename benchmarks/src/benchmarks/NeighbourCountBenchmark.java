@@ -0,0 +1,99 @@
+//********************************************
+// Measures working out the neighbour counts of a layout
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import model.Board;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures working out the neighbour counts of a layout. The board keeps its
+ * counts up to date as each mine is added; the baseline is the full 9-cell
+ * scan with bounds checks that MineGrid.setTileValues used to do after
+ * placement, run on plain arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class NeighbourCountBenchmark
+{
+    @Param({"30x16", "1000x1000"})
+    public String size;
+    
+    @Param({"0.12", "0.21"})
+    public double density;
+    
+    @Param({"ARRAY", "BITS"})
+    public String representation;
+    
+    private int rep;
+    private int width;
+    private int height;
+    private int[] mines;
+    
+    private boolean[][] isMine;
+    private int[][] values;
+    
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        int[] dimensions = Boards.parseSize(this.size);
+        this.width = dimensions[0];
+        this.height = dimensions[1];
+        this.rep = Boards.parseRepresentation(this.representation);
+        this.mines = Boards.layout(this.width, this.height,
+                                   Boards.numMines(this.width, this.height, this.density), Boards.SEED);
+        
+        this.isMine = new boolean[this.width][this.height];
+        this.values = new int[this.width][this.height];
+        for (int mine : this.mines)
+        {
+            this.isMine[mine % this.width][mine / this.width] = true;
+        }
+    }
+    
+    @Benchmark
+    public Board incremental()
+    {
+        return Boards.board(this.rep, this.width, this.height, this.mines);
+    }
+    
+    @Benchmark
+    public int[][] legacyScan()
+    {
+        // For each tile in the grid
+        for (int i=0; i<this.width; i++) {
+        for (int j=0; j<this.height; j++)
+        {
+            if (this.isMine[i][j])
+            {
+                continue;
+            }
+            
+            int neighbourMines = 0;
+            for (int k=i-1; k<=i+1; k++) {
+            for (int l=j-1; l<=j+1; l++)
+            {
+                if ( ! (k<0 || l<0 || k>=this.width || l>=this.height)
+                     && ! (k==i && l==j)
+                     && this.isMine[k][l])
+                {
+                    neighbourMines++;
+                }
+            }
+            }
+            
+            this.values[i][j] = neighbourMines;
+        }
+        }
+        
+        return this.values;
+    }
+}
@@ -0,0 +1,48 @@
+//********************************************
+// Measures finding the openings and 3BV of a board
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import model.Board;
+import model.Openings;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures finding the openings and 3BV of a board, as is done once its mines
+ * are placed, from Beginner up to a 10000x10000 board at Expert density.
+ * Divide the time by the cells for the time per cell, which stays about the
+ * same at every size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Thread)
+public class OpeningsBenchmark
+{
+    @Param({"9x9", "16x16", "30x16", "1000x1000", "10000x10000"})
+    public String size;
+    
+    private Board board;
+    
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        int[] dimensions = Boards.parseSize(this.size);
+        int width = dimensions[0];
+        int height = dimensions[1];
+        this.board = Boards.board(Board.ARRAY, width, height,
+                                  Boards.layout(width, height, Boards.numMines(width, height, 0.206), Boards.SEED));
+    }
+    
+    @Benchmark
+    public Openings index()
+    {
+        return new Openings(this.board);
+    }
+}
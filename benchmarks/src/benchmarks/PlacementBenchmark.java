@@ -0,0 +1,65 @@
+//********************************************
+// Measures mine placement
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import model.Board;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures mine placement with Board.addMines. Creating an empty board is
+ * measured on its own as the baseline to subtract.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class PlacementBenchmark
+{
+    @Param({"9x9", "30x16", "1000x1000"})
+    public String size;
+    
+    @Param({"0.12", "0.21"})
+    public double density;
+    
+    @Param({"ARRAY", "BITS"})
+    public String representation;
+    
+    private int rep;
+    private int width;
+    private int height;
+    private int numMines;
+    private Random random;
+    
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        int[] dimensions = Boards.parseSize(this.size);
+        this.width = dimensions[0];
+        this.height = dimensions[1];
+        this.numMines = Boards.numMines(this.width, this.height, this.density);
+        this.rep = Boards.parseRepresentation(this.representation);
+        this.random = new Random(Boards.SEED);
+    }
+    
+    @Benchmark
+    public Board create()
+    {
+        return Board.create(this.rep, this.width, this.height, this.numMines, this.random);
+    }
+    
+    @Benchmark
+    public Board addMines()
+    {
+        Board board = Board.create(this.rep, this.width, this.height, this.numMines, this.random);
+        board.addMines(this.width / 2, this.height / 2);
+        return board;
+    }
+}
@@ -0,0 +1,137 @@
+//********************************************
+// Measures uncovering every safe cell, openings included
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import model.Board;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures uncovering every safe cell of a board in order, so most cells are
+ * uncovered by the flood fill of an opening. The baseline is the recursive
+ * fill that MineGrid.tileUncovered used to do, run on plain arrays with a
+ * stack large enough for it. Divide the cells by the time for cells/second.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Xss256m"})
+@State(Scope.Thread)
+public class RevealBenchmark
+{
+    @Param({"30x16", "1000x1000"})
+    public String size;
+    
+    @Param({"0.05", "0.21"})
+    public double density;
+    
+    @Param({"ARRAY", "BITS"})
+    public String representation;
+    
+    private int rep;
+    private int width;
+    private int height;
+    private int[] mines;
+    
+    private Board board;
+    
+    private boolean[] isMine;
+    private int[] values;
+    private boolean[] uncovered;
+    
+    @Setup(Level.Trial)
+    public void setupTrial()
+    {
+        int[] dimensions = Boards.parseSize(this.size);
+        this.width = dimensions[0];
+        this.height = dimensions[1];
+        this.rep = Boards.parseRepresentation(this.representation);
+        this.mines = Boards.layout(this.width, this.height,
+                                   Boards.numMines(this.width, this.height, this.density), Boards.SEED);
+        
+        Board counted = Boards.board(Board.ARRAY, this.width, this.height, this.mines);
+        this.isMine = new boolean[this.width*this.height];
+        this.values = new int[this.width*this.height];
+        this.uncovered = new boolean[this.width*this.height];
+        for (int cell=0; cell<this.values.length; cell++)
+        {
+            this.isMine[cell] = counted.isMine(cell % this.width, cell / this.width);
+            this.values[cell] = counted.getValue(cell % this.width, cell / this.width);
+        }
+    }
+    
+    @Setup(Level.Invocation)
+    public void setupInvocation()
+    {
+        this.board = Boards.board(this.rep, this.width, this.height, this.mines);
+        Arrays.fill(this.uncovered, false);
+    }
+    
+    @Benchmark
+    public Board uncover()
+    {
+        for (int row=0; row<this.height; row++) {
+        for (int col=0; col<this.width; col++)
+        {
+            if ( ! this.board.isMine(col, row) && ! this.board.isUncovered(col, row))
+            {
+                this.board.uncover(col, row);
+            }
+        }
+        }
+        
+        return this.board;
+    }
+    
+    @Benchmark
+    public boolean[] legacyRecursive()
+    {
+        for (int row=0; row<this.height; row++) {
+        for (int col=0; col<this.width; col++)
+        {
+            int cell = row*this.width + col;
+            if ( ! this.isMine[cell] && ! this.uncovered[cell])
+            {
+                this.uncovered[cell] = true;
+                this.legacyTileUncovered(col, row);
+            }
+        }
+        }
+        
+        return this.uncovered;
+    }
+    
+    /**
+     * The recursive fill of the old MineGrid.tileUncovered
+     * 
+     * @param col the column of the uncovered tile
+     * @param row the row of the uncovered tile
+     */
+    private void legacyTileUncovered(final int col, final int row)
+    {
+        if ( ! this.isMine[row*this.width + col] && this.values[row*this.width + col] == 0)
+        {
+            // For each surrounding tile
+            for (int i=col-1; i<=col+1; i++) {
+            for (int j=row-1; j<=row+1; j++)
+            {
+                if ( ! (i<0 || j<0 || i>=this.width || j>=this.height)
+                     && ! (i==col && j==row))
+                {
+                    if ( ! this.uncovered[j*this.width + i])
+                    {
+                        this.uncovered[j*this.width + i] = true;
+                        this.legacyTileUncovered(i, j);
+                    }
+                }
+            }
+            }
+        }
+    }
+}
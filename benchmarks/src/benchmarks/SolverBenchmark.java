@@ -0,0 +1,88 @@
+//********************************************
+// Measures the Solver and ProbabilityEngine on a fixed set of positions
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.Board;
+import org.openjdk.jmh.annotations.*;
+import solver.ProbabilityEngine;
+import solver.Solver;
+
+/**
+ * Measures the Solver and the ProbabilityEngine on a fixed set of Expert
+ * positions, each played from the middle until the Solver needs a guess.
+ * Times are per position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class SolverBenchmark
+{
+    /**
+     * The number of positions
+     */
+    private static final int NUM_POSITIONS = 64;
+    
+    private List<Board> positions = new ArrayList<Board>();
+    private List<Solver> solvers = new ArrayList<Solver>();
+    
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        for (long seed=Boards.SEED; this.positions.size()<NUM_POSITIONS; seed++)
+        {
+            Board board = Boards.board(Board.ARRAY, 30, 16, Boards.layout(30, 16, 99, seed));
+            board.uncover(15, 8);
+            Solver solver = new Solver(board);
+            
+            int cell;
+            while ((cell = solver.findSafeCell()) != -1)
+            {
+                board.uncover(board.getCol(cell), board.getRow(cell));
+                solver.update();
+            }
+            
+            // Keep the positions that still need a guess
+            if ( ! board.isWon())
+            {
+                this.positions.add(board);
+                this.solvers.add(solver);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(NUM_POSITIONS)
+    public int solve()
+    {
+        int numSafe = 0;
+        for (Board board : this.positions)
+        {
+            numSafe += new Solver(board).getNumSafeCells();
+        }
+        return numSafe;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(NUM_POSITIONS)
+    public int probabilities()
+    {
+        int best = 0;
+        for (int i=0; i<NUM_POSITIONS; i++)
+        {
+            ProbabilityEngine engine = new ProbabilityEngine(this.positions.get(i), this.solvers.get(i));
+            engine.compute();
+            best += engine.findBestGuess();
+        }
+        return best;
+    }
+}
@@ -0,0 +1,83 @@
+//********************************************
+// Measures working out the statistics of every game finished
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package benchmarks;
+
+import data.GameStats;
+import data.Replay;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures working out the statistics of every difficulty from the given
+ * number of games recorded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class StatisticsBenchmark
+{
+    @Param({"100000", "10000000"})
+    public int numGames;
+    
+    private File dir;
+    private GameStats stats;
+    private Random random;
+    private int[] clicks = new int[3];
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        this.dir = Files.createTempDirectory("stats").toFile();
+        this.stats = new GameStats(this.dir);
+        this.random = new Random(Boards.SEED);
+        
+        for (int i=0; i<this.numGames; i++)
+        {
+            this.addGame();
+        }
+        this.stats.flush();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        this.stats.close();
+        for (File file : this.dir.listFiles())
+        {
+            file.delete();
+        }
+        this.dir.delete();
+    }
+    
+    /**
+     * Records a random game, won two times in three
+     * 
+     * @throws Exception if the game can't be recorded
+     */
+    private void addGame() throws Exception
+    {
+        this.clicks[Replay.REVEAL] = 20 + this.random.nextInt(100);
+        this.clicks[Replay.FLAG] = this.random.nextInt(99);
+        this.clicks[Replay.CHORD] = this.random.nextInt(50);
+        this.stats.add(this.random.nextInt(GameStats.NUM_DIFFICULTIES), 30, 16, 99,
+                       (this.random.nextInt(3) == 0) ? Replay.LOST : Replay.WON,
+                       10000 + this.random.nextInt(200000), 100 + this.random.nextInt(150),
+                       this.clicks, 1300000000000L + this.stats.getNumGames()*60000L);
+    }
+    
+    @Benchmark
+    public GameStats.Summary[] summarize() throws Exception
+    {
+        return this.stats.summarize();
+    }
+}
@@ -0,0 +1,75 @@
+//********************************************
+// Measures checking for a win
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import model.Board;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures checking for a win on a board with every safe cell uncovered, the
+ * worst case for a scan. The board keeps a count of covered safe cells; the
+ * baseline is the scan of every cell that MineGrid.checkWon used to do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class WinCheckBenchmark
+{
+    @Param({"30x16", "1000x1000"})
+    public String size;
+    
+    @Param({"ARRAY", "BITS"})
+    public String representation;
+    
+    private Board board;
+    
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        int[] dimensions = Boards.parseSize(this.size);
+        int width = dimensions[0];
+        int height = dimensions[1];
+        int[] mines = Boards.layout(width, height, Boards.numMines(width, height, 0.21), Boards.SEED);
+        this.board = Boards.board(Boards.parseRepresentation(this.representation), width, height, mines);
+        
+        for (int row=0; row<height; row++) {
+        for (int col=0; col<width; col++)
+        {
+            if ( ! this.board.isMine(col, row) && ! this.board.isUncovered(col, row))
+            {
+                this.board.uncover(col, row);
+            }
+        }
+        }
+    }
+    
+    @Benchmark
+    public boolean isWon()
+    {
+        return this.board.isWon();
+    }
+    
+    @Benchmark
+    public boolean legacyScan()
+    {
+        for (int col=0; col<this.board.getWidth(); col++) {
+        for (int row=0; row<this.board.getHeight(); row++)
+        {
+            if ( ! this.board.isMine(col, row) && ! this.board.isUncovered(col, row))
+            {
+                return false;
+            }
+        }
+        }
+        
+        return true;
+    }
+}
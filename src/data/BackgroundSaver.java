@@ -0,0 +1,241 @@
+//********************************************
+// Saves files on a background thread
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves files on a background thread, so the game never waits on the disk.
+ * Each save is written a short while after it is asked for, and a file saved
+ * again in the meantime is written only once, with its newest contents.
+ * Files are written with SafeFile. Contents that take a while to encode can
+ * be saved as Contents, encoded on the background thread when written.
+ */
+public class BackgroundSaver
+{
+    /**
+     * How long to wait for more changes before writing a file, in milliseconds
+     */
+    public static final int DELAY = 250;
+    
+    private ScheduledThreadPoolExecutor executor;
+    
+    /**
+     * The newest contents of each file waiting to be written, guarded by itself
+     */
+    private LinkedHashMap<File, Save> pending = new LinkedHashMap<File, Save>();
+    
+    private int numWrites = 0;
+    /**
+     * Returns the number of files written so far
+     * 
+     * @return the number of files written so far
+     */
+    public synchronized int getNumWrites() {return this.numWrites;}
+    
+    private IOException lastError;
+    /**
+     * Returns the error of the last write that failed, null if none has
+     * 
+     * @return the error of the last write that failed, null if none has
+     */
+    public synchronized IOException getLastError() {return this.lastError;}
+    
+    /**
+     * The contents of a file, encoded only when the file is written
+     */
+    public interface Contents
+    {
+        /**
+         * Encodes the contents, on the background thread
+         * 
+         * @return the encoded contents
+         */
+        byte[] toBytes();
+    }
+    
+    /**
+     * Constructor, starts the background thread
+     */
+    public BackgroundSaver()
+    {
+        this.executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(Runnable r)
+                {
+                    Thread thread = new Thread(r, "BackgroundSaver");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        
+        // Whatever is still waiting when closing is written straight away instead
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+    
+    /**
+     * Saves a file in the background, replacing any save of it still waiting
+     * 
+     * @param file the file
+     * @param magic the number naming what the file holds
+     * @param version the version of the format of the contents
+     * @param contents the contents, which must not be changed afterwards
+     */
+    public void save(final File file, final int magic, final int version, final byte[] contents)
+    {
+        this.save(file, magic, version, new Contents()
+            {
+                @Override
+                public byte[] toBytes()
+                {
+                    return contents;
+                }
+            });
+    }
+    
+    /**
+     * Saves a file in the background, replacing any save of it still waiting.
+     * The contents are only encoded if they are still the newest when written.
+     * 
+     * @param file the file
+     * @param magic the number naming what the file holds
+     * @param version the version of the format of the contents
+     * @param contents the contents, which must not be changed afterwards, null to delete the file
+     */
+    public void save(final File file, final int magic, final int version, final Contents contents)
+    {
+        synchronized (this.pending)
+        {
+            if ( ! this.executor.isShutdown())
+            {
+                if (this.pending.put(file, new Save(magic, version, contents)) == null)
+                {
+                    this.executor.schedule(new Runnable()
+                        {
+                            @Override
+                            public void run()
+                            {
+                                write(file);
+                            }
+                        }, DELAY, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        
+        // Once closed, save on the calling thread
+        this.write(file, new Save(magic, version, contents));
+    }
+    
+    /**
+     * Deletes a file in the background, in place of any save of it still waiting
+     * 
+     * @param file the file
+     */
+    public void delete(final File file)
+    {
+        this.save(file, 0, 0, (Contents) null);
+    }
+    
+    /**
+     * Writes every save still waiting, then stops the background thread
+     */
+    public void close()
+    {
+        synchronized (this.pending)
+        {
+            this.executor.shutdown();
+        }
+        try
+        {
+            this.executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {}
+        
+        List<File> files;
+        synchronized (this.pending)
+        {
+            files = new ArrayList<File>(this.pending.keySet());
+        }
+        for (File file : files)
+        {
+            this.write(file);
+        }
+    }
+    
+    /**
+     * Writes the save of a file that is waiting, if there still is one
+     * 
+     * @param file the file
+     */
+    private void write(final File file)
+    {
+        Save save;
+        synchronized (this.pending)
+        {
+            save = this.pending.remove(file);
+        }
+        
+        if (save != null)
+        {
+            this.write(file, save);
+        }
+    }
+    
+    /**
+     * Writes a save of a file, one file at a time
+     * 
+     * @param file the file
+     * @param save the save
+     */
+    private synchronized void write(final File file, final Save save)
+    {
+        try
+        {
+            if (save.contents == null)
+            {
+                Files.deleteIfExists(file.toPath());
+            }
+            else
+            {
+                SafeFile.write(file, save.magic, save.version, save.contents.toBytes());
+            }
+            this.numWrites++;
+        }
+        catch (IOException e)
+        {
+            this.lastError = e;
+            System.err.println("Unable to save " + file + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * The contents of a file waiting to be written
+     */
+    private static class Save
+    {
+        final int magic;
+        final int version;
+        final Contents contents;
+        
+        Save(final int _magic, final int _version, final Contents _contents)
+        {
+            this.magic = _magic;
+            this.version = _version;
+            this.contents = _contents;
+        }
+    }
+}
@@ -0,0 +1,476 @@
+//********************************************
+// Records every game finished, for statistics over all of them
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records every game finished, for statistics over all of them. Each
+ * measurement of a game is kept in a column file of its own, holding one
+ * fixed size value per game, so recording a game appends a few bytes to
+ * each column and a statistic reads only the columns it needs. Columns are
+ * read through memory mapped buffers, a block of games at a time.
+ * 
+ * A crash while recording can leave some columns a game longer than the
+ * others, so opening the statistics cuts every column back to the shortest.
+ */
+public class GameStats
+{
+    /**
+     * The number of difficulties, Beginner, Intermediate, Expert and Custom
+     * as numbered by Minesweeper
+     */
+    public static final int NUM_DIFFICULTIES = 4;
+    
+    /**
+     * The columns, their files and the size of their values in bytes. Values
+     * too large for their column are stored as the largest it holds.
+     */
+    private static final int DIFFICULTY = 0;
+    private static final int WIDTH      = 1;
+    private static final int HEIGHT     = 2;
+    private static final int MINES      = 3;
+    private static final int RESULT     = 4;
+    private static final int TIME       = 5;
+    private static final int BV         = 6;
+    private static final int REVEALS    = 7;
+    private static final int FLAGS      = 8;
+    private static final int CHORDS     = 9;
+    private static final int TIMESTAMP  = 10;
+    private static final String[] COLUMN_FILES = {
+        "difficulty.col", "width.col", "height.col", "mines.col", "result.col", "time.col",
+        "3bv.col", "reveals.col", "flags.col", "chords.col", "timestamp.col"
+    };
+    private static final int[] COLUMN_SIZES = {1, 2, 2, 4, 1, 4, 4, 2, 2, 2, 8};
+    
+    /**
+     * The number of games held in memory before they are written
+     */
+    private static final int BUFFER_GAMES = 4096;
+    
+    /**
+     * The number of games read from each column at a time
+     */
+    private static final int BLOCK_GAMES = 1 << 20;
+    
+    private FileChannel[] channels = new FileChannel[COLUMN_FILES.length];
+    
+    /**
+     * The values of the games not yet written, for each column
+     */
+    private ByteBuffer[] buffers = new ByteBuffer[COLUMN_FILES.length];
+    
+    private long numWritten;
+    private int numBuffered = 0;
+    /**
+     * Returns the number of games recorded
+     * 
+     * @return the number of games recorded
+     */
+    public long getNumGames() {return this.numWritten + this.numBuffered;}
+    
+    /**
+     * Constructor, opens the statistics kept in the given directory,
+     * creating them if there are none yet
+     * 
+     * @param dir the directory of the column files
+     * @throws IOException if the columns can't be opened
+     */
+    public GameStats(final File dir) throws IOException
+    {
+        dir.mkdirs();
+        
+        this.numWritten = Long.MAX_VALUE;
+        try
+        {
+            for (int column=0; column<COLUMN_FILES.length; column++)
+            {
+                this.channels[column] = FileChannel.open(new File(dir, COLUMN_FILES[column]).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                this.buffers[column] = ByteBuffer.allocate(BUFFER_GAMES * COLUMN_SIZES[column]);
+                this.numWritten = Math.min(this.numWritten, this.channels[column].size() / COLUMN_SIZES[column]);
+            }
+            
+            // Drop whatever a crash left past the last complete game
+            for (int column=0; column<COLUMN_FILES.length; column++)
+            {
+                this.channels[column].truncate(this.numWritten * COLUMN_SIZES[column]);
+            }
+        }
+        catch (IOException e)
+        {
+            this.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Records a finished game, which is written by the next flush
+     * 
+     * @param difficulty the difficulty, as numbered by Minesweeper
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param numMines the number of mines on the board
+     * @param result Replay.WON or Replay.LOST
+     * @param time the time taken, in milliseconds
+     * @param bv the 3BV of the board
+     * @param clicks the number of clicks of each type, indexed by Replay.REVEAL, FLAG and CHORD
+     * @param timestamp when the game ended, in milliseconds since 1970
+     * @throws IOException if the buffer was full and couldn't be written
+     */
+    public void add(final int difficulty, final int width, final int height, final int numMines,
+                    final int result, final int time, final int bv, final int[] clicks, final long timestamp)
+        throws IOException
+    {
+        if (this.numBuffered == BUFFER_GAMES)
+        {
+            this.flush();
+        }
+        
+        this.put(DIFFICULTY, difficulty);
+        this.put(WIDTH, width);
+        this.put(HEIGHT, height);
+        this.put(MINES, numMines);
+        this.put(RESULT, result);
+        this.put(TIME, time);
+        this.put(BV, bv);
+        this.put(REVEALS, clicks[Replay.REVEAL]);
+        this.put(FLAGS, clicks[Replay.FLAG]);
+        this.put(CHORDS, clicks[Replay.CHORD]);
+        this.put(TIMESTAMP, timestamp);
+        this.numBuffered++;
+    }
+    
+    /**
+     * Writes the games recorded since the last flush. Each column is written
+     * at the position of the first game not yet written, so if this fails
+     * the next flush simply writes the same games again.
+     * 
+     * @throws IOException if the games can't be written, in which case they are kept
+     */
+    public void flush() throws IOException
+    {
+        if (this.numBuffered == 0)
+        {
+            return;
+        }
+        
+        for (int column=0; column<COLUMN_FILES.length; column++)
+        {
+            ByteBuffer buffer = this.buffers[column];
+            buffer.flip();
+            try
+            {
+                long position = this.numWritten * COLUMN_SIZES[column];
+                while (buffer.hasRemaining())
+                {
+                    position += this.channels[column].write(buffer, position);
+                }
+            }
+            finally
+            {
+                // Leave the buffer ready for more games, or for writing them again
+                buffer.limit(buffer.capacity());
+                buffer.position(this.numBuffered * COLUMN_SIZES[column]);
+            }
+        }
+        
+        this.numWritten += this.numBuffered;
+        this.numBuffered = 0;
+        for (ByteBuffer buffer : this.buffers)
+        {
+            buffer.clear();
+        }
+    }
+    
+    /**
+     * Removes every game recorded
+     * 
+     * @throws IOException if the columns can't be emptied
+     */
+    public void reset() throws IOException
+    {
+        this.numWritten = 0;
+        this.numBuffered = 0;
+        for (int column=0; column<COLUMN_FILES.length; column++)
+        {
+            this.buffers[column].clear();
+            this.channels[column].truncate(0);
+        }
+    }
+    
+    /**
+     * Writes the games still in memory and closes the columns
+     */
+    public void close()
+    {
+        try
+        {
+            this.flush();
+        }
+        catch (IOException e) {} //the games since the last flush are lost
+        
+        for (FileChannel channel : this.channels)
+        {
+            try
+            {
+                if (channel != null)
+                {
+                    channel.close();
+                }
+            }
+            catch (IOException e) {}
+        }
+    }
+    
+    /**
+     * Works out the statistics of every difficulty, reading only the result,
+     * time, 3BV and click columns
+     * 
+     * @return the statistics, indexed by difficulty
+     * @throws IOException if the games can't be written or read
+     */
+    public Summary[] summarize() throws IOException
+    {
+        this.flush();
+        
+        Summary[] summaries = new Summary[NUM_DIFFICULTIES];
+        for (int difficulty=0; difficulty<NUM_DIFFICULTIES; difficulty++)
+        {
+            summaries[difficulty] = new Summary();
+        }
+        
+        for (long first=0; first<this.numWritten; first+=BLOCK_GAMES)
+        {
+            int count = (int) Math.min(BLOCK_GAMES, this.numWritten - first);
+            ByteBuffer difficulties = this.map(DIFFICULTY, first, count);
+            ByteBuffer results = this.map(RESULT, first, count);
+            ByteBuffer times = this.map(TIME, first, count);
+            ByteBuffer bvs = this.map(BV, first, count);
+            ByteBuffer reveals = this.map(REVEALS, first, count);
+            ByteBuffer flags = this.map(FLAGS, first, count);
+            ByteBuffer chords = this.map(CHORDS, first, count);
+            
+            for (int i=0; i<count; i++)
+            {
+                int difficulty = difficulties.get(i);
+                if (difficulty < 0 || difficulty >= NUM_DIFFICULTIES)
+                {
+                    continue;
+                }
+                
+                if (results.get(i) == Replay.WON)
+                {
+                    int clicks = (reveals.getShort(2*i) & 0xFFFF) + (flags.getShort(2*i) & 0xFFFF)
+                                 + (chords.getShort(2*i) & 0xFFFF);
+                    summaries[difficulty].addWin(times.getInt(4*i), bvs.getInt(4*i), clicks);
+                }
+                else
+                {
+                    summaries[difficulty].addLoss();
+                }
+            }
+        }
+        
+        return summaries;
+    }
+    
+    /**
+     * Adds a value to a column's buffer
+     * 
+     * @param column the column
+     * @param value the value
+     */
+    private void put(final int column, final long value)
+    {
+        ByteBuffer buffer = this.buffers[column];
+        switch (COLUMN_SIZES[column])
+        {
+            case 1:
+                buffer.put((byte) Math.max(Math.min(value, Byte.MAX_VALUE), Byte.MIN_VALUE));
+                break;
+            case 2:
+                buffer.putShort((short) Math.max(Math.min(value, 0xFFFF), 0));
+                break;
+            case 4:
+                buffer.putInt((int) Math.max(Math.min(value, Integer.MAX_VALUE), Integer.MIN_VALUE));
+                break;
+            default:
+                buffer.putLong(value);
+                break;
+        }
+    }
+    
+    /**
+     * Maps a block of games of a column
+     * 
+     * @param column the column
+     * @param first the first game
+     * @param count the number of games
+     * @return the values of the games
+     * @throws IOException if the column can't be mapped
+     */
+    private ByteBuffer map(final int column, final long first, final int count) throws IOException
+    {
+        int size = COLUMN_SIZES[column];
+        return this.channels[column].map(FileChannel.MapMode.READ_ONLY, first*size, (long) count*size);
+    }
+    
+    /**
+     * The statistics of the games of one difficulty
+     */
+    public static class Summary
+    {
+        /**
+         * Games won are counted by their 3BV/s, in buckets this wide
+         */
+        private static final double BV_PER_SECOND_STEP = 0.01;
+        private static final int NUM_BUCKETS = 5000;
+        
+        private long numGames = 0;
+        /**
+         * Returns the number of games played
+         * 
+         * @return the number of games played
+         */
+        public long getNumGames() {return this.numGames;}
+        
+        private long numWon = 0;
+        /**
+         * Returns the number of games won
+         * 
+         * @return the number of games won
+         */
+        public long getNumWon() {return this.numWon;}
+        
+        private long currentStreak = 0;
+        /**
+         * Returns the number of games won since the last game lost
+         * 
+         * @return the number of games won since the last game lost
+         */
+        public long getCurrentStreak() {return this.currentStreak;}
+        
+        private long longestStreak = 0;
+        /**
+         * Returns the most games won in a row
+         * 
+         * @return the most games won in a row
+         */
+        public long getLongestStreak() {return this.longestStreak;}
+        
+        private int bestTime = Integer.MAX_VALUE;
+        /**
+         * Returns the fastest game won, in milliseconds
+         * 
+         * @return the fastest game won, in milliseconds, Integer.MAX_VALUE if none
+         */
+        public int getBestTime() {return this.bestTime;}
+        
+        private double bestBvPerSecond = 0;
+        /**
+         * Returns the highest 3BV per second of a game won
+         * 
+         * @return the highest 3BV per second of a game won
+         */
+        public double getBestBvPerSecond() {return this.bestBvPerSecond;}
+        
+        private long totalTime = 0;
+        private double totalEfficiency = 0;
+        private long[] buckets = new long[NUM_BUCKETS];
+        
+        /**
+         * Counts a game won
+         * 
+         * @param time the time taken, in milliseconds
+         * @param bv the 3BV of the board
+         * @param clicks the number of clicks
+         */
+        void addWin(final int time, final int bv, final int clicks)
+        {
+            this.numGames++;
+            this.numWon++;
+            this.currentStreak++;
+            this.longestStreak = Math.max(this.longestStreak, this.currentStreak);
+            this.bestTime = Math.min(this.bestTime, time);
+            this.totalTime += time;
+            this.totalEfficiency += (clicks == 0) ? 0 : (double) bv / clicks;
+            
+            double bvPerSecond = bv * 1000.0 / Math.max(time, 1);
+            this.bestBvPerSecond = Math.max(this.bestBvPerSecond, bvPerSecond);
+            this.buckets[(int) Math.min(bvPerSecond / BV_PER_SECOND_STEP, NUM_BUCKETS - 1)]++;
+        }
+        
+        /**
+         * Counts a game lost
+         */
+        void addLoss()
+        {
+            this.numGames++;
+            this.currentStreak = 0;
+        }
+        
+        /**
+         * Returns the fraction of games won
+         * 
+         * @return the fraction of games won, 0 if none were played
+         */
+        public double getWinRate()
+        {
+            return (this.numGames == 0) ? 0 : (double) this.numWon / this.numGames;
+        }
+        
+        /**
+         * Returns the average time of the games won
+         * 
+         * @return the average time, in milliseconds, 0 if none were won
+         */
+        public double getAverageTime()
+        {
+            return (this.numWon == 0) ? 0 : (double) this.totalTime / this.numWon;
+        }
+        
+        /**
+         * Returns the average efficiency of the games won, their 3BV divided
+         * by the clicks taken
+         * 
+         * @return the average efficiency, 0 if none were won
+         */
+        public double getAverageEfficiency()
+        {
+            return (this.numWon == 0) ? 0 : this.totalEfficiency / this.numWon;
+        }
+        
+        /**
+         * Returns the 3BV per second that the given fraction of games won
+         * were no faster than, to the nearest bucket
+         * 
+         * @param fraction the fraction of games won, from 0 to 1
+         * @return the 3BV per second, 0 if none were won
+         */
+        public double getBvPerSecondPercentile(final double fraction)
+        {
+            long target = (long) Math.ceil(fraction * this.numWon);
+            long count = 0;
+            
+            for (int bucket=0; bucket<NUM_BUCKETS && this.numWon>0; bucket++)
+            {
+                count += this.buckets[bucket];
+                if (count >= Math.max(target, 1))
+                {
+                    return (bucket + 0.5) * BV_PER_SECOND_STEP;
+                }
+            }
+            
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+//********************************************
+// Keeps recent latencies and reports their percentiles
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package data;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the most recent latencies recorded under each key, such as a board
+ * size, and reports their percentiles. Attempts that gave up are kept as
+ * latencies too, so the slowest percentiles include them, and are counted.
+ */
+public class LatencyStats
+{
+    /**
+     * The number of latencies kept for each key
+     */
+    public static final int CAPACITY = 4096;
+    
+    /**
+     * The latencies of each key, in nanoseconds, as a ring of the most recent
+     */
+    private Map<String, long[]> latencies = new TreeMap<String, long[]>();
+    
+    /**
+     * The number of latencies ever recorded for each key
+     */
+    private Map<String, Long> counts = new TreeMap<String, Long>();
+    
+    /**
+     * The number of attempts that gave up for each key
+     */
+    private Map<String, Long> misses = new TreeMap<String, Long>();
+    
+    /**
+     * Records a latency under the given key
+     * 
+     * @param key what the latency was measured for
+     * @param nanos the latency, in nanoseconds
+     */
+    public synchronized void record(final String key, final long nanos)
+    {
+        long[] ring = this.latencies.get(key);
+        if (ring == null)
+        {
+            ring = new long[CAPACITY];
+            this.latencies.put(key, ring);
+            this.counts.put(key, 0L);
+        }
+        
+        long count = this.counts.get(key);
+        ring[(int) (count % CAPACITY)] = nanos;
+        this.counts.put(key, count + 1);
+    }
+    
+    /**
+     * Records an attempt that gave up under the given key, such as a search
+     * that ran out of time
+     * 
+     * @param key what the latency was measured for
+     * @param nanos the time taken before giving up, in nanoseconds
+     */
+    public synchronized void recordMiss(final String key, final long nanos)
+    {
+        this.record(key, nanos);
+        this.misses.put(key, this.getMisses(key) + 1);
+    }
+    
+    /**
+     * Returns the number of attempts that gave up under the given key
+     * 
+     * @param key the key
+     * @return the number of attempts that gave up
+     */
+    public synchronized long getMisses(final String key)
+    {
+        Long count = this.misses.get(key);
+        return (count == null) ? 0 : count;
+    }
+    
+    /**
+     * Returns the number of latencies ever recorded under the given key
+     * 
+     * @param key the key
+     * @return the number of latencies recorded
+     */
+    public synchronized long getCount(final String key)
+    {
+        Long count = this.counts.get(key);
+        return (count == null) ? 0 : count;
+    }
+    
+    /**
+     * Returns a percentile of the recent latencies recorded under the given key
+     * 
+     * @param key the key
+     * @param percentile the percentile, from 0 to 100
+     * @return the latency at that percentile in nanoseconds, -1 if none recorded
+     */
+    public synchronized long getPercentile(final String key, final double percentile)
+    {
+        long[] sorted = this.getSorted(key);
+        if (sorted.length == 0)
+        {
+            return -1;
+        }
+        
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+    
+    /**
+     * Returns the recent latencies recorded under the given key, sorted
+     * 
+     * @param key the key
+     * @return the recent latencies in ascending order
+     */
+    private long[] getSorted(final String key)
+    {
+        long[] ring = this.latencies.get(key);
+        if (ring == null)
+        {
+            return new long[0];
+        }
+        
+        long[] sorted = Arrays.copyOf(ring, (int) Math.min(CAPACITY, this.counts.get(key)));
+        Arrays.sort(sorted);
+        return sorted;
+    }
+    
+    /**
+     * Returns a line for each key with its count, attempts that gave up, and
+     * its 50th, 90th, 99th percentile and largest latency in milliseconds
+     * 
+     * @return the report
+     */
+    public synchronized String getReport()
+    {
+        StringBuilder report = new StringBuilder();
+        
+        for (String key : this.latencies.keySet())
+        {
+            long[] sorted = this.getSorted(key);
+            report.append(String.format("%-12s n=%-8d misses=%-6d p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms%n",
+                key, this.counts.get(key), this.getMisses(key),
+                this.getPercentile(key, 50) / 1e6,
+                this.getPercentile(key, 90) / 1e6,
+                this.getPercentile(key, 99) / 1e6,
+                sorted[sorted.length - 1] / 1e6));
+        }
+        
+        return report.toString();
+    }
+}
@@ -0,0 +1,504 @@
+//********************************************
+// Keeps the time of every game won, ranked by category
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Keeps the time of every game won, ranked by category: a difficulty or a
+ * custom board size. Games are appended to a log file as they are won, with
+ * each player and category name written once and referred to by number
+ * afterwards. In memory every category keeps its games sorted by time, so
+ * ranks and the fastest times are found by binary search.
+ * 
+ * Resetting hides every game logged before it. The log is compacted, by
+ * rewriting only the games still shown, once hidden or damaged records
+ * outnumber the rest.
+ */
+public class Leaderboard
+{
+    /**
+     * The kinds of record in the log
+     */
+    private static final int RECORD_STRING = 1;
+    private static final int RECORD_GAME   = 2;
+    private static final int RECORD_RESET  = 3;
+    
+    /**
+     * Path of the log, null to keep the games in memory only
+     */
+    private String filename;
+    
+    /**
+     * The player and category names, numbered in the order they were logged
+     */
+    private List<String> strings = new ArrayList<String>();
+    private HashMap<String, Integer> stringIds = new HashMap<String, Integer>();
+    
+    /**
+     * The games shown, in the order they were won
+     */
+    private int numGames = 0;
+    private int[] categories = new int[64];
+    private int[] players = new int[64];
+    private int[] times = new int[64];
+    private long[] timestamps = new long[64];
+    
+    /**
+     * The games of each category, as the time shifted above the game's number
+     */
+    private HashMap<Integer, Index> indexes = new HashMap<Integer, Index>();
+    
+    /**
+     * The records in the log that are no longer needed
+     */
+    private int numDeadRecords = 0;
+    
+    /**
+     * True if a record failed to be appended, so the log must be rewritten
+     */
+    private boolean logStale = false;
+    
+    /**
+     * Constructor, loads the log, compacting it if needed
+     * 
+     * @param _filename the path of the log, null to keep the games in memory only
+     * @throws IOException if the log exists but can't be read or rewritten
+     */
+    public Leaderboard(final String _filename) throws IOException
+    {
+        this.filename = _filename;
+        if (this.filename == null || ! new File(this.filename).exists())
+        {
+            return;
+        }
+        
+        byte[] bytes = Files.readAllBytes(new File(this.filename).toPath());
+        VarInts.Input in = new VarInts.Input(bytes, 0, bytes.length);
+        boolean damaged = false;
+        
+        try
+        {
+            while (in.getPos() < bytes.length)
+            {
+                int type = in.readByte();
+                if (type == RECORD_STRING)
+                {
+                    this.intern(in.readString());
+                }
+                else if (type == RECORD_GAME)
+                {
+                    long category = in.readVarLong();
+                    long player = in.readVarLong();
+                    long time = in.readVarLong();
+                    long timestamp = in.readVarLong();
+                    if (category < 0 || category >= this.strings.size()
+                        || player < 0 || player >= this.strings.size())
+                    {
+                        throw new IOException("Unknown name");
+                    }
+                    if (time < 0 || time > Integer.MAX_VALUE)
+                    {
+                        throw new IOException("Bad time");
+                    }
+                    this.addGame((int) category, (int) player, (int) time, timestamp, false);
+                }
+                else if (type == RECORD_RESET)
+                {
+                    this.numDeadRecords += this.numGames + 1;
+                    this.clearGames();
+                }
+                else
+                {
+                    throw new IOException("Unknown record");
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            // Whatever follows a damaged or half written record is dropped
+            damaged = true;
+        }
+        
+        for (Index index : this.indexes.values())
+        {
+            Arrays.sort(index.keys, 0, index.size);
+        }
+        
+        if (damaged || this.numDeadRecords > this.numGames)
+        {
+            this.compact();
+        }
+    }
+    
+    /**
+     * Returns the number of games shown in a category
+     * 
+     * @param category the category
+     * @return the number of games
+     */
+    public int getNumGames(final String category)
+    {
+        Index index = this.getIndex(category);
+        return (index == null) ? 0 : index.size;
+    }
+    
+    /**
+     * Returns the total number of games shown
+     * 
+     * @return the number of games
+     */
+    public int getNumGames()
+    {
+        return this.numGames;
+    }
+    
+    /**
+     * Returns the rank a time would have in a category: one more than the
+     * number of faster games
+     * 
+     * @param category the category
+     * @param time the time, in milliseconds
+     * @return the rank, from 1
+     */
+    public int getRank(final String category, final int time)
+    {
+        Index index = this.getIndex(category);
+        if (index == null)
+        {
+            return 1;
+        }
+        
+        int pos = Arrays.binarySearch(index.keys, 0, index.size, (long) time << 32);
+        return ((pos < 0) ? -pos - 1 : pos) + 1;
+    }
+    
+    /**
+     * Returns the fastest games in a category, fastest first, the earliest
+     * first among equal times
+     * 
+     * @param category the category
+     * @param n the most games to return
+     * @return the fastest games
+     */
+    public List<SingleTime> getTop(final String category, final int n)
+    {
+        List<SingleTime> top = new ArrayList<SingleTime>();
+        Index index = this.getIndex(category);
+        
+        for (int i=0; index!=null && i<Math.min(n, index.size); i++)
+        {
+            int game = (int) index.keys[i];
+            top.add(new SingleTime(this.strings.get(this.players[game]), this.times[game], this.timestamps[game]));
+        }
+        
+        return top;
+    }
+    
+    /**
+     * Adds a game won, logging it
+     * 
+     * @param category the category
+     * @param player the name of the player
+     * @param time the time, in milliseconds
+     * @param timestamp when the game was won, in milliseconds since 1970
+     * @throws IOException if the game can't be logged, in which case it is still shown
+     */
+    public void add(final String category, final String player, final int time, final long timestamp)
+        throws IOException
+    {
+        ByteArrayOutputStream record = new ByteArrayOutputStream(32);
+        int categoryId = this.intern(category, record);
+        int playerId = this.intern(player, record);
+        this.writeGame(record, categoryId, playerId, time, timestamp);
+        
+        this.addGame(categoryId, playerId, time, timestamp, true);
+        this.append(record);
+    }
+    
+    /**
+     * Hides every game added so far
+     * 
+     * @throws IOException if the reset can't be logged
+     */
+    public void reset() throws IOException
+    {
+        this.numDeadRecords += this.numGames + 1;
+        this.clearGames();
+        
+        ByteArrayOutputStream record = new ByteArrayOutputStream(1);
+        record.write(RECORD_RESET);
+        this.append(record);
+        
+        if (this.numDeadRecords > this.numGames)
+        {
+            this.compact();
+        }
+    }
+    
+    /**
+     * Rewrites the log with only the games shown, replacing the old log
+     * once the new one is complete
+     * 
+     * @throws IOException if the log can't be rewritten
+     */
+    public void compact() throws IOException
+    {
+        if (this.filename == null)
+        {
+            return;
+        }
+        
+        // Number the names again, leaving out those no longer used, changing
+        // nothing in memory until the new log has replaced the old one
+        List<String> newStrings = new ArrayList<String>();
+        HashMap<String, Integer> newStringIds = new HashMap<String, Integer>();
+        int[] newCategories = new int[this.categories.length];
+        int[] newPlayers = new int[this.players.length];
+        
+        ByteArrayOutputStream log = new ByteArrayOutputStream(16 + 12*this.numGames);
+        for (int game=0; game<this.numGames; game++)
+        {
+            newCategories[game] = renumber(this.strings.get(this.categories[game]), newStrings, newStringIds, log);
+            newPlayers[game] = renumber(this.strings.get(this.players[game]), newStrings, newStringIds, log);
+            this.writeGame(log, newCategories[game], newPlayers[game], this.times[game], this.timestamps[game]);
+        }
+        HashMap<Integer, Index> newIndexes = new HashMap<Integer, Index>();
+        for (Index index : this.indexes.values())
+        {
+            if (index.size > 0)
+            {
+                newIndexes.put(newCategories[(int) index.keys[0]], index);
+            }
+        }
+        
+        SafeFile.replace(new File(this.filename), ByteBuffer.wrap(log.toByteArray()));
+        
+        this.strings = newStrings;
+        this.stringIds = newStringIds;
+        this.categories = newCategories;
+        this.players = newPlayers;
+        this.indexes = newIndexes;
+        this.numDeadRecords = 0;
+        this.logStale = false;
+    }
+    
+    /**
+     * Returns the index of a category
+     * 
+     * @param category the category
+     * @return the index, null if the category has no games
+     */
+    private Index getIndex(final String category)
+    {
+        Integer id = this.stringIds.get(category);
+        return (id == null) ? null : this.indexes.get(id);
+    }
+    
+    /**
+     * Returns the number of a name, numbering it if it is new
+     * 
+     * @param value the name
+     * @return the number of the name
+     */
+    private int intern(final String value)
+    {
+        Integer id = this.stringIds.get(value);
+        if (id == null)
+        {
+            id = this.strings.size();
+            this.strings.add(value);
+            this.stringIds.put(value, id);
+        }
+        return id;
+    }
+    
+    /**
+     * Returns the number of a name, numbering and writing it if it is new
+     * 
+     * @param value the name
+     * @param record the record to write a new name to
+     * @return the number of the name
+     */
+    private int intern(final String value, final ByteArrayOutputStream record)
+    {
+        if ( ! this.stringIds.containsKey(value))
+        {
+            record.write(RECORD_STRING);
+            VarInts.writeString(record, value);
+        }
+        return this.intern(value);
+    }
+    
+    /**
+     * Returns the number of a name in a new numbering, numbering and writing
+     * it if it is new
+     * 
+     * @param value the name
+     * @param strings the names numbered so far
+     * @param stringIds the number of each name numbered so far
+     * @param record the record to write a new name to
+     * @return the number of the name
+     */
+    private static int renumber(final String value, final List<String> strings,
+                                final HashMap<String, Integer> stringIds, final ByteArrayOutputStream record)
+    {
+        Integer id = stringIds.get(value);
+        if (id == null)
+        {
+            id = strings.size();
+            strings.add(value);
+            stringIds.put(value, id);
+            record.write(RECORD_STRING);
+            VarInts.writeString(record, value);
+        }
+        return id;
+    }
+    
+    /**
+     * Writes a game record
+     * 
+     * @param record the stream to write to
+     * @param category the number of the category
+     * @param player the number of the player
+     * @param time the time, in milliseconds
+     * @param timestamp when the game was won
+     */
+    private void writeGame(final ByteArrayOutputStream record, final int category, final int player,
+                           final int time, final long timestamp)
+    {
+        record.write(RECORD_GAME);
+        VarInts.writeVarLong(record, category);
+        VarInts.writeVarLong(record, player);
+        VarInts.writeVarLong(record, time);
+        VarInts.writeVarLong(record, timestamp);
+    }
+    
+    /**
+     * Adds a game to memory
+     * 
+     * @param category the number of the category
+     * @param player the number of the player
+     * @param time the time, in milliseconds
+     * @param timestamp when the game was won
+     * @param sorted true to keep the index sorted, false to sort it after loading
+     */
+    private void addGame(final int category, final int player, final int time, final long timestamp,
+                         final boolean sorted)
+    {
+        if (this.numGames == this.times.length)
+        {
+            this.categories = Arrays.copyOf(this.categories, this.numGames*2);
+            this.players = Arrays.copyOf(this.players, this.numGames*2);
+            this.times = Arrays.copyOf(this.times, this.numGames*2);
+            this.timestamps = Arrays.copyOf(this.timestamps, this.numGames*2);
+        }
+        
+        int game = this.numGames++;
+        this.categories[game] = category;
+        this.players[game] = player;
+        this.times[game] = time;
+        this.timestamps[game] = timestamp;
+        
+        Index index = this.indexes.get(category);
+        if (index == null)
+        {
+            index = new Index();
+            this.indexes.put(category, index);
+        }
+        index.add(((long) time << 32) | game, sorted);
+    }
+    
+    /**
+     * Removes every game from memory
+     */
+    private void clearGames()
+    {
+        this.numGames = 0;
+        this.indexes.clear();
+    }
+    
+    /**
+     * Appends a record to the log
+     * 
+     * @param record the record
+     * @throws IOException if the record can't be written
+     */
+    private void append(final ByteArrayOutputStream record) throws IOException
+    {
+        if (this.filename == null)
+        {
+            return;
+        }
+        
+        // A failed append may have left out names later records refer to
+        if (this.logStale)
+        {
+            this.compact();
+            return;
+        }
+        
+        try
+        {
+            FileOutputStream out = new FileOutputStream(this.filename, true);
+            try
+            {
+                record.writeTo(out);
+            }
+            finally
+            {
+                out.close();
+            }
+        }
+        catch (IOException e)
+        {
+            this.logStale = true;
+            throw e;
+        }
+    }
+    
+    /**
+     * The games of one category, sorted by time then by when they were won
+     */
+    private static class Index
+    {
+        long[] keys = new long[16];
+        int size = 0;
+        
+        /**
+         * Adds a game
+         * 
+         * @param key the time shifted above the number of the game
+         * @param sorted true to insert in order, false to append for sorting later
+         */
+        void add(final long key, final boolean sorted)
+        {
+            if (this.size == this.keys.length)
+            {
+                this.keys = Arrays.copyOf(this.keys, this.size*2);
+            }
+            
+            int pos = this.size;
+            if (sorted)
+            {
+                pos = -Arrays.binarySearch(this.keys, 0, this.size, key) - 1;
+                System.arraycopy(this.keys, pos, this.keys, pos + 1, this.size - pos);
+            }
+            this.keys[pos] = key;
+            this.size++;
+        }
+    }
+}
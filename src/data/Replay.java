@@ -0,0 +1,370 @@
+//********************************************
+// A recorded game, stored as a compact stream of varints
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A recorded game: the board, the mines and every move with the time since
+ * the move before. Stored as a stream of varints, with each move's cell kept
+ * as the distance from the cell before, so most moves take 2 or 3 bytes and
+ * an Expert game well under a kilobyte. Times are given in nanoseconds but
+ * stored to a tenth of a millisecond, which keeps a delay under 1.6 seconds
+ * to 2 bytes.
+ */
+public class Replay
+{
+    /**
+     * The kinds of move
+     */
+    public static final int REVEAL = 0;
+    public static final int FLAG   = 1;
+    public static final int CHORD  = 2;
+    
+    /**
+     * How the game ended
+     */
+    public static final int UNFINISHED = 0;
+    public static final int WON        = 1;
+    public static final int LOST       = 2;
+    
+    /**
+     * The bytes every replay starts with, then the format version
+     */
+    private static final byte[] MAGIC = {'M', 'S', 'R'};
+    private static final int VERSION = 1;
+    
+    /**
+     * How the mines are stored: as the gaps between them, or one bit per cell
+     */
+    private static final int MINES_GAPS   = 0;
+    private static final int MINES_BITMAP = 1;
+    
+    /**
+     * The nanoseconds in each unit delays are stored in
+     */
+    private static final long TIME_UNIT = 100000;
+    
+    private int width;
+    /**
+     * Returns the width of the board
+     * 
+     * @return the width of the board
+     */
+    public int getWidth() {return this.width;}
+    
+    private int height;
+    /**
+     * Returns the height of the board
+     * 
+     * @return the height of the board
+     */
+    public int getHeight() {return this.height;}
+    
+    private int numMines;
+    /**
+     * Returns the number of mines on the board
+     * 
+     * @return the number of mines on the board
+     */
+    public int getNumMines() {return this.numMines;}
+    
+    private int[] mines = new int[0];
+    /**
+     * Returns the cells that contain a mine, in ascending order
+     * 
+     * @return the cells that contain a mine
+     */
+    public int[] getMines() {return this.mines;}
+    
+    private int result = UNFINISHED;
+    /**
+     * Returns how the game ended
+     * 
+     * @return UNFINISHED, WON or LOST
+     */
+    public int getResult() {return this.result;}
+    
+    private int numMoves;
+    /**
+     * Returns the number of moves
+     * 
+     * @return the number of moves
+     */
+    public int getNumMoves() {return this.numMoves;}
+    
+    private byte[] types = new byte[64];
+    private int[] cells = new int[64];
+    private long[] delays = new long[64];
+    
+    /**
+     * Constructor, creates an empty replay to record a game into
+     * 
+     * @param _width the width of the board
+     * @param _height the height of the board
+     * @param _numMines the number of mines on the board
+     */
+    public Replay(final int _width, final int _height, final int _numMines)
+    {
+        this.width = _width;
+        this.height = _height;
+        this.numMines = _numMines;
+    }
+    
+    /**
+     * Records a move
+     * 
+     * @param type REVEAL, FLAG or CHORD
+     * @param cell the index of the cell
+     * @param delay the time since the move before, in nanoseconds
+     */
+    public void addMove(final int type, final int cell, final long delay)
+    {
+        if (this.numMoves == this.cells.length)
+        {
+            this.types = Arrays.copyOf(this.types, this.numMoves*2);
+            this.cells = Arrays.copyOf(this.cells, this.numMoves*2);
+            this.delays = Arrays.copyOf(this.delays, this.numMoves*2);
+        }
+        
+        this.types[this.numMoves] = (byte) type;
+        this.cells[this.numMoves] = cell;
+        this.delays[this.numMoves] = delay;
+        this.numMoves++;
+    }
+    
+    /**
+     * Ends the recording with the mines of the board and how the game ended
+     * 
+     * @param _mines the cells that contain a mine, in ascending order
+     * @param _result UNFINISHED, WON or LOST
+     */
+    public void finish(final int[] _mines, final int _result)
+    {
+        this.mines = _mines;
+        this.numMines = _mines.length;
+        this.result = _result;
+    }
+    
+    /**
+     * Returns the kind of a move
+     * 
+     * @param move the number of the move
+     * @return REVEAL, FLAG or CHORD
+     */
+    public int getType(final int move)
+    {
+        return this.types[move];
+    }
+    
+    /**
+     * Returns the cell of a move
+     * 
+     * @param move the number of the move
+     * @return the index of the cell
+     */
+    public int getCell(final int move)
+    {
+        return this.cells[move];
+    }
+    
+    /**
+     * Returns the time between a move and the move before
+     * 
+     * @param move the number of the move
+     * @return the time since the move before, in nanoseconds
+     */
+    public long getDelay(final int move)
+    {
+        return this.delays[move];
+    }
+    
+    /**
+     * Encodes this replay
+     * 
+     * @return the encoded replay
+     */
+    public byte[] toBytes()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + this.mines.length + 4*this.numMoves);
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+        VarInts.writeVarLong(out, this.width);
+        VarInts.writeVarLong(out, this.height);
+        VarInts.writeVarLong(out, this.numMines);
+        out.write(this.result);
+        
+        // Keep the mines whichever way is smaller
+        ByteArrayOutputStream gaps = new ByteArrayOutputStream(this.mines.length + 8);
+        int previous = -1;
+        for (int mine : this.mines)
+        {
+            VarInts.writeVarLong(gaps, mine - previous - 1);
+            previous = mine;
+        }
+        int numCells = this.width*this.height;
+        if (gaps.size() <= (numCells + 7) / 8)
+        {
+            out.write(MINES_GAPS);
+            out.write(gaps.toByteArray(), 0, gaps.size());
+        }
+        else
+        {
+            byte[] bitmap = new byte[(numCells + 7) / 8];
+            for (int mine : this.mines)
+            {
+                bitmap[mine >> 3] |= 1 << (mine & 7);
+            }
+            out.write(MINES_BITMAP);
+            out.write(bitmap, 0, bitmap.length);
+        }
+        
+        // Each move is its kind with the signed distance from the cell before,
+        // then its delay in time units
+        VarInts.writeVarLong(out, this.numMoves);
+        int previousCell = 0;
+        for (int i=0; i<this.numMoves; i++)
+        {
+            long distance = this.cells[i] - previousCell;
+            long zigzag = (distance << 1) ^ (distance >> 63);
+            VarInts.writeVarLong(out, (zigzag << 2) | this.types[i]);
+            VarInts.writeVarLong(out, (this.delays[i] + TIME_UNIT/2) / TIME_UNIT);
+            previousCell = this.cells[i];
+        }
+        
+        return out.toByteArray();
+    }
+    
+    /**
+     * Decodes a replay. Every size and cell is checked, since the replays file
+     * has no checksum and a damaged replay must not stop the others loading.
+     * 
+     * @param bytes the bytes holding the replay
+     * @param offset the position of the replay in the bytes
+     * @param length the length of the replay
+     * @return the replay
+     * @throws IOException if the bytes are not a replay
+     */
+    public static Replay fromBytes(final byte[] bytes, final int offset, final int length) throws IOException
+    {
+        VarInts.Input in = new VarInts.Input(bytes, offset, offset + length);
+        for (int i=0; i<MAGIC.length; i++)
+        {
+            if (in.readByte() != MAGIC[i])
+            {
+                throw new IOException("Not a replay");
+            }
+        }
+        if (in.readByte() != VERSION)
+        {
+            throw new IOException("Unknown replay version");
+        }
+        
+        long width = in.readVarLong();
+        long height = in.readVarLong();
+        long numMines = in.readVarLong();
+        if (width <= 0 || height <= 0 || width > Integer.MAX_VALUE || height > Integer.MAX_VALUE
+            || width*height > Integer.MAX_VALUE || numMines < 0 || numMines > width*height)
+        {
+            throw new IOException("Invalid board size");
+        }
+        int numCells = (int) (width*height);
+        Replay replay = new Replay((int) width, (int) height, (int) numMines);
+        int result = in.readByte();
+        if (result != UNFINISHED && result != WON && result != LOST)
+        {
+            throw new IOException("Invalid result");
+        }
+        
+        int[] mines;
+        int encoding = in.readByte();
+        if (encoding == MINES_GAPS)
+        {
+            // Each gap takes at least a byte
+            if (numMines > in.getRemaining())
+            {
+                throw new IOException("Truncated replay");
+            }
+            mines = new int[(int) numMines];
+            long previous = -1;
+            for (int i=0; i<mines.length; i++)
+            {
+                long gap = in.readVarLong();
+                previous += gap + 1;
+                if (gap < 0 || gap >= numCells || previous >= numCells)
+                {
+                    throw new IOException("Invalid mine");
+                }
+                mines[i] = (int) previous;
+            }
+        }
+        else if (encoding == MINES_BITMAP)
+        {
+            if ((numCells + 7)/8 > in.getRemaining())
+            {
+                throw new IOException("Truncated replay");
+            }
+            mines = new int[(int) numMines];
+            int found = 0;
+            for (int start=0; start<numCells; start+=8)
+            {
+                int bits = in.readByte();
+                for (int bit=0; bits!=0; bit++, bits>>>=1)
+                {
+                    if ((bits & 1) != 0)
+                    {
+                        if (found == mines.length || start + bit >= numCells)
+                        {
+                            throw new IOException("Invalid mine");
+                        }
+                        mines[found++] = start + bit;
+                    }
+                }
+            }
+            if (found != mines.length)
+            {
+                throw new IOException("Invalid mine");
+            }
+        }
+        else
+        {
+            throw new IOException("Unknown mine encoding");
+        }
+        replay.finish(mines, result);
+        
+        // Each move takes at least two bytes
+        long numMoves = in.readVarLong();
+        if (numMoves < 0 || numMoves > in.getRemaining()/2)
+        {
+            throw new IOException("Truncated replay");
+        }
+        replay.types = new byte[Math.max((int) numMoves, 1)];
+        replay.cells = new int[Math.max((int) numMoves, 1)];
+        replay.delays = new long[Math.max((int) numMoves, 1)];
+        long previousCell = 0;
+        for (int i=0; i<numMoves; i++)
+        {
+            long move = in.readVarLong();
+            long zigzag = move >>> 2;
+            previousCell += (zigzag >>> 1) ^ -(zigzag & 1);
+            long delay = in.readVarLong();
+            if ((move & 3) > CHORD || previousCell < 0 || previousCell >= numCells
+                || delay < 0 || delay > Long.MAX_VALUE / TIME_UNIT)
+            {
+                throw new IOException("Invalid move");
+            }
+            replay.types[i] = (byte) (move & 3);
+            replay.cells[i] = (int) previousCell;
+            replay.delays[i] = delay * TIME_UNIT;
+        }
+        replay.numMoves = (int) numMoves;
+        
+        return replay;
+    }
+}
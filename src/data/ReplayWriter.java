@@ -0,0 +1,158 @@
+//********************************************
+// Appends replays to a file on a background thread
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends replays to a file on a background thread, so the game never waits
+ * on the disk. Each replay is stored as its length, as a varint, followed by
+ * its bytes.
+ */
+public class ReplayWriter
+{
+    /**
+     * Path where the replays are stored
+     */
+    private String filename;
+    
+    private ExecutorService executor;
+    
+    /**
+     * Constructor, creates a writer that appends to the given file
+     * 
+     * @param _filename the path of the file to append replays to
+     */
+    public ReplayWriter(final String _filename)
+    {
+        this.filename = _filename;
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(Runnable r)
+                {
+                    Thread thread = new Thread(r, "ReplayWriter");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    }
+    
+    /**
+     * Appends a finished replay to the file in the background. The replay
+     * must not be changed afterwards.
+     * 
+     * @param replay the replay
+     */
+    public void write(final Replay replay)
+    {
+        this.executor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    byte[] bytes = replay.toBytes();
+                    ByteArrayOutputStream record = new ByteArrayOutputStream(bytes.length + 5);
+                    VarInts.writeVarLong(record, bytes.length);
+                    record.write(bytes, 0, bytes.length);
+                    
+                    try
+                    {
+                        FileOutputStream out = new FileOutputStream(filename, true);
+                        try
+                        {
+                            record.writeTo(out);
+                        }
+                        finally
+                        {
+                            out.close();
+                        }
+                    }
+                    catch (IOException e) {} //the game goes on without its replay
+                }
+            });
+    }
+    
+    /**
+     * Writes the replays still waiting, then stops the background thread
+     */
+    public void close()
+    {
+        this.executor.shutdown();
+        try
+        {
+            this.executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {}
+    }
+    
+    /**
+     * Reads every replay in a file, leaving out any that are damaged and a
+     * last one left half written
+     * 
+     * @param filename the path of the file
+     * @return the replays, oldest first
+     * @throws IOException if the file can't be read
+     */
+    public static List<Replay> readAll(final String filename) throws IOException
+    {
+        List<Replay> replays = new ArrayList<Replay>();
+        File file = new File(filename);
+        if ( ! file.exists())
+        {
+            return replays;
+        }
+        
+        byte[] bytes = new byte[(int) file.length()];
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try
+        {
+            in.readFully(bytes);
+        }
+        finally
+        {
+            in.close();
+        }
+        
+        VarInts.Input input = new VarInts.Input(bytes, 0, bytes.length);
+        while (input.getPos() < bytes.length)
+        {
+            int length;
+            try
+            {
+                length = (int) input.readVarLong();
+            }
+            catch (IOException e)
+            {
+                break;
+            }
+            if (length < 0 || length > bytes.length - input.getPos())
+            {
+                break;
+            }
+            
+            try
+            {
+                replays.add(Replay.fromBytes(bytes, input.getPos(), length));
+            }
+            catch (IOException e) {} //a damaged replay is left out, the rest still load
+            input.skip(length);
+        }
+        
+        return replays;
+    }
+}
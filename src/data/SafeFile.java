@@ -0,0 +1,166 @@
+//********************************************
+// Reads and writes files that are never left half written
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes files that are never left half written. Each file starts
+ * with a header: a number naming what the file holds, the version of its
+ * format, the length of its contents and their CRC32 checksum. A file is
+ * written to a temporary file beside it, forced to the disk and then renamed
+ * over the old one, so a crash leaves either the old contents or the new.
+ */
+public final class SafeFile
+{
+    /**
+     * The size of the header, in bytes
+     */
+    private static final int HEADER_SIZE = 16;
+    
+    /**
+     * Not created, only the static methods are used
+     */
+    private SafeFile() {}
+    
+    /**
+     * Reads the contents of a file in one go, checking its header
+     * 
+     * @param file the file
+     * @param magic the number naming what the file should hold
+     * @param version the newest version of the format that can be read
+     * @return the contents, null if the file doesn't exist
+     * @throws IOException if the file can't be read, holds something else or is damaged
+     */
+    public static byte[] read(final File file, final int magic, final int version) throws IOException
+    {
+        FileChannel channel;
+        try
+        {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+        
+        ByteBuffer buffer;
+        try
+        {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE)
+            {
+                throw new IOException("Not a saved file: " + file);
+            }
+            
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {}
+            buffer.flip();
+        }
+        finally
+        {
+            channel.close();
+        }
+        
+        int fileMagic = buffer.getInt();
+        int fileVersion = buffer.getInt();
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (fileMagic != magic || fileVersion < 1 || fileVersion > version)
+        {
+            throw new IOException("Unknown format: " + file);
+        }
+        if (length != buffer.remaining())
+        {
+            throw new IOException("Truncated: " + file);
+        }
+        
+        byte[] contents = new byte[length];
+        buffer.get(contents);
+        CRC32 crc = new CRC32();
+        crc.update(contents, 0, length);
+        if ((int) crc.getValue() != checksum)
+        {
+            throw new IOException("Checksum mismatch: " + file);
+        }
+        
+        return contents;
+    }
+    
+    /**
+     * Replaces a file with the given contents, behind a header
+     * 
+     * @param file the file
+     * @param magic the number naming what the file holds
+     * @param version the version of the format of the contents
+     * @param contents the contents
+     * @throws IOException if the file can't be written, in which case the old file is kept
+     */
+    public static void write(final File file, final int magic, final int version, final byte[] contents)
+        throws IOException
+    {
+        CRC32 crc = new CRC32();
+        crc.update(contents, 0, contents.length);
+        
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + contents.length);
+        buffer.putInt(magic);
+        buffer.putInt(version);
+        buffer.putInt(contents.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(contents);
+        buffer.flip();
+        
+        replace(file, buffer);
+    }
+    
+    /**
+     * Replaces a file with the given bytes, without a header
+     * 
+     * @param file the file
+     * @param bytes the bytes, from their position to their limit
+     * @throws IOException if the file can't be written, in which case the old file is kept
+     */
+    public static void replace(final File file, final ByteBuffer bytes) throws IOException
+    {
+        Path path = file.toPath();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        
+        FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try
+        {
+            while (bytes.hasRemaining())
+            {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        finally
+        {
+            channel.close();
+        }
+        
+        try
+        {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -21,22 +21,43 @@ public class SingleTime
     
     private int time;
     /**
-     * Returns the time this player achieved
+     * Returns the time this player achieved, in milliseconds
      * 
-     * @return the time this player achieved
+     * @return the time this player achieved, in milliseconds
      */
     public int getTime() {return this.time;}
     
+    private long timestamp;
+    /**
+     * Returns when this time was achieved, 0 if not known
+     * 
+     * @return when this time was achieved, in milliseconds since 1970
+     */
+    public long getTimestamp() {return this.timestamp;}
+    
     /**
      * Constructor, creates a new time object
      * 
      * @param _name the name of the player who got this time
-     * @param _time the time this player achieved
+     * @param _time the time this player achieved, in milliseconds
      */
     public SingleTime(final String _name, final int _time)
+    {
+        this(_name, _time, 0);
+    }
+    
+    /**
+     * Constructor, creates a new time object
+     * 
+     * @param _name the name of the player who got this time
+     * @param _time the time this player achieved, in milliseconds
+     * @param _timestamp when this time was achieved, in milliseconds since 1970
+     */
+    public SingleTime(final String _name, final int _time, final long _timestamp)
     {
         this.name = _name;
         this.time = _time;
+        this.timestamp = _timestamp;
     }
     
     /**
@@ -0,0 +1,327 @@
+//********************************************
+// A game in progress, saved so it can be resumed
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import model.Board;
+
+/**
+ * A game in progress, saved so it can be resumed after the window is closed.
+ * The difficulty, the size of the board, the time and the clicks so far are
+ * stored as varints, followed by three bitmaps of one bit per cell, the
+ * mines, the uncovered cells and the flags, compressed together. Most of a
+ * board is usually all covered or all uncovered, so those bitmaps shrink to
+ * almost nothing.
+ * 
+ * The mines are stored rather than the seed they came from, since boards can
+ * come from the board pool or the no-guess generator as well as a Random.
+ * A snapshot holds its own copy of the board, so it can be encoded on the
+ * BackgroundSaver's thread while the game goes on.
+ */
+public class Snapshot implements BackgroundSaver.Contents
+{
+    /**
+     * Identifies a snapshot file, "MSNP", and the version of its format
+     */
+    public static final int MAGIC   = 0x4D534E50;
+    public static final int VERSION = 1;
+    
+    /**
+     * The largest board a snapshot is read for, in cells
+     */
+    private static final int MAX_CELLS = 1 << 28;
+    
+    private int difficulty;
+    /**
+     * Returns the difficulty of the game, as numbered by Minesweeper
+     * 
+     * @return the difficulty of the game
+     */
+    public int getDifficulty() {return this.difficulty;}
+    
+    private int width;
+    /**
+     * Returns the width of the board
+     * 
+     * @return the width of the board
+     */
+    public int getWidth() {return this.width;}
+    
+    private int height;
+    /**
+     * Returns the height of the board
+     * 
+     * @return the height of the board
+     */
+    public int getHeight() {return this.height;}
+    
+    private int numMines;
+    /**
+     * Returns the number of mines on the board
+     * 
+     * @return the number of mines on the board
+     */
+    public int getNumMines() {return this.numMines;}
+    
+    private long elapsedMillis;
+    /**
+     * Returns the time on the timer when the game was saved
+     * 
+     * @return the time on the timer, in milliseconds
+     */
+    public long getElapsedMillis() {return this.elapsedMillis;}
+    
+    private int[] numClicks = new int[3];
+    /**
+     * Returns the number of clicks of each type before the game was saved
+     * 
+     * @return a copy of the number of clicks, indexed by Replay.REVEAL, FLAG and CHORD
+     */
+    public int[] getNumClicks() {return this.numClicks.clone();}
+    
+    /**
+     * Bitmaps of the mines, the uncovered cells and the flags, one bit per cell
+     */
+    private byte[] mines;
+    private byte[] uncovered;
+    private byte[] flagged;
+    
+    /**
+     * Constructor, saves the state of a game in progress
+     * 
+     * @param _difficulty the difficulty of the game, as numbered by Minesweeper
+     * @param board the board, with its mines added
+     * @param _elapsedMillis the time on the timer, in milliseconds
+     * @param clicks the number of clicks of each type so far
+     */
+    public Snapshot(final int _difficulty, final Board board, final long _elapsedMillis, final int[] clicks)
+    {
+        this.difficulty = _difficulty;
+        this.width = board.getWidth();
+        this.height = board.getHeight();
+        this.numMines = board.getNumMines();
+        this.elapsedMillis = _elapsedMillis;
+        System.arraycopy(clicks, 0, this.numClicks, 0, this.numClicks.length);
+        
+        int bytes = (this.width*this.height + 7) / 8;
+        this.mines = new byte[bytes];
+        this.uncovered = new byte[bytes];
+        this.flagged = new byte[bytes];
+        
+        int cell = 0;
+        for (int row=0; row<this.height; row++) {
+        for (int col=0; col<this.width; col++)
+        {
+            if (board.isMine(col, row))
+            {
+                this.mines[cell >>> 3] |= 1 << (cell & 7);
+            }
+            if (board.isUncovered(col, row))
+            {
+                this.uncovered[cell >>> 3] |= 1 << (cell & 7);
+            }
+            else if (board.isFlagged(col, row))
+            {
+                this.flagged[cell >>> 3] |= 1 << (cell & 7);
+            }
+            cell++;
+        }
+        }
+    }
+    
+    /**
+     * Constructor, used when reading a snapshot
+     */
+    private Snapshot() {}
+    
+    /**
+     * Returns the cells that contain a mine, in ascending order
+     * 
+     * @return the cells that contain a mine
+     */
+    public int[] getMines()
+    {
+        return this.getCells(this.mines);
+    }
+    
+    /**
+     * Returns the cells that were uncovered, in ascending order
+     * 
+     * @return the cells that were uncovered
+     */
+    public int[] getUncoveredCells()
+    {
+        return this.getCells(this.uncovered);
+    }
+    
+    /**
+     * Returns the cells that were flagged, in ascending order
+     * 
+     * @return the cells that were flagged
+     */
+    public int[] getFlaggedCells()
+    {
+        return this.getCells(this.flagged);
+    }
+    
+    /**
+     * Puts the saved mines, uncovered cells and flags on a board
+     * 
+     * @param board a new board of the saved size, without mines added
+     */
+    public void restore(final Board board)
+    {
+        board.setMines(this.getMines());
+        int[] cells = this.getUncoveredCells();
+        for (int i=0; i<cells.length; i++)
+        {
+            board.uncover(board.getCol(cells[i]), board.getRow(cells[i]));
+        }
+        cells = this.getFlaggedCells();
+        for (int i=0; i<cells.length; i++)
+        {
+            board.toggleFlagged(board.getCol(cells[i]), board.getRow(cells[i]));
+        }
+    }
+    
+    /**
+     * Encodes this snapshot
+     * 
+     * @return the encoded snapshot
+     */
+    @Override
+    public byte[] toBytes()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + this.mines.length);
+        VarInts.writeVarLong(out, this.difficulty);
+        VarInts.writeVarLong(out, this.width);
+        VarInts.writeVarLong(out, this.height);
+        VarInts.writeVarLong(out, this.numMines);
+        VarInts.writeVarLong(out, this.elapsedMillis);
+        for (int i=0; i<this.numClicks.length; i++)
+        {
+            VarInts.writeVarLong(out, this.numClicks[i]);
+        }
+        
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try
+        {
+            DeflaterOutputStream bitmaps = new DeflaterOutputStream(out, deflater, 8192);
+            bitmaps.write(this.mines);
+            bitmaps.write(this.uncovered);
+            bitmaps.write(this.flagged);
+            bitmaps.finish();
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException(e); //not thrown writing to memory
+        }
+        finally
+        {
+            deflater.end();
+        }
+        
+        return out.toByteArray();
+    }
+    
+    /**
+     * Decodes a snapshot
+     * 
+     * @param bytes the encoded snapshot
+     * @return the snapshot
+     * @throws IOException if the bytes are not a valid snapshot
+     */
+    public static Snapshot fromBytes(final byte[] bytes) throws IOException
+    {
+        VarInts.Input in = new VarInts.Input(bytes, 0, bytes.length);
+        Snapshot snapshot = new Snapshot();
+        snapshot.difficulty = (int) in.readVarLong();
+        snapshot.width = (int) in.readVarLong();
+        snapshot.height = (int) in.readVarLong();
+        snapshot.numMines = (int) in.readVarLong();
+        snapshot.elapsedMillis = in.readVarLong();
+        for (int i=0; i<snapshot.numClicks.length; i++)
+        {
+            snapshot.numClicks[i] = (int) in.readVarLong();
+        }
+        
+        if (snapshot.width <= 0 || snapshot.height <= 0 || (long) snapshot.width*snapshot.height > MAX_CELLS)
+        {
+            throw new IOException("Invalid board size");
+        }
+        
+        int length = (snapshot.width*snapshot.height + 7) / 8;
+        snapshot.mines = new byte[length];
+        snapshot.uncovered = new byte[length];
+        snapshot.flagged = new byte[length];
+        
+        Inflater inflater = new Inflater();
+        try
+        {
+            DataInputStream bitmaps = new DataInputStream(new InflaterInputStream(
+                new ByteArrayInputStream(bytes, in.getPos(), bytes.length - in.getPos()), inflater, 8192));
+            bitmaps.readFully(snapshot.mines);
+            bitmaps.readFully(snapshot.uncovered);
+            bitmaps.readFully(snapshot.flagged);
+        }
+        finally
+        {
+            inflater.end();
+        }
+        
+        // A game in progress has every mine covered
+        int numMines = 0;
+        for (int i=0; i<length; i++)
+        {
+            numMines += Integer.bitCount(snapshot.mines[i] & 0xFF);
+            if ((snapshot.mines[i] & snapshot.uncovered[i]) != 0)
+            {
+                throw new IOException("Uncovered mine");
+            }
+        }
+        if (numMines != snapshot.numMines)
+        {
+            throw new IOException("Wrong number of mines");
+        }
+        
+        return snapshot;
+    }
+    
+    /**
+     * Returns the cells set in a bitmap, in ascending order
+     * 
+     * @param bitmap the bitmap
+     * @return the cells
+     */
+    private int[] getCells(final byte[] bitmap)
+    {
+        int count = 0;
+        for (int i=0; i<bitmap.length; i++)
+        {
+            count += Integer.bitCount(bitmap[i] & 0xFF);
+        }
+        
+        int[] cells = new int[count];
+        int found = 0;
+        for (int i=0; i<bitmap.length; i++)
+        {
+            for (int bits=bitmap[i] & 0xFF; bits!=0; bits&=bits - 1)
+            {
+                cells[found++] = i*8 + Integer.numberOfTrailingZeros(bits);
+            }
+        }
+        
+        return cells;
+    }
+}
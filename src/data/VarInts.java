@@ -0,0 +1,122 @@
+//********************************************
+// Writes and reads the varints the data files are made of
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Writes and reads the varints the data files are made of. A varint holds
+ * a non-negative number 7 bits at a time, lowest first, with the top bit of
+ * each byte set if more follow, so small numbers take a single byte.
+ */
+final class VarInts
+{
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    
+    private VarInts() {}
+    
+    /**
+     * Writes a non-negative number as a varint
+     * 
+     * @param out the stream to write to
+     * @param value the number
+     */
+    static void writeVarLong(final ByteArrayOutputStream out, final long value)
+    {
+        long rest = value;
+        while ((rest & ~0x7FL) != 0)
+        {
+            out.write((int) ((rest & 0x7F) | 0x80));
+            rest >>>= 7;
+        }
+        out.write((int) rest);
+    }
+    
+    /**
+     * Writes a string as its length in UTF-8 bytes followed by the bytes
+     * 
+     * @param out the stream to write to
+     * @param value the string
+     */
+    static void writeString(final ByteArrayOutputStream out, final String value)
+    {
+        byte[] bytes = value.getBytes(UTF8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+    
+    /**
+     * Reads bytes, varints and strings from an array
+     */
+    static class Input
+    {
+        private byte[] bytes;
+        private int pos;
+        private int end;
+        
+        Input(final byte[] _bytes, final int _pos, final int _end)
+        {
+            this.bytes = _bytes;
+            this.pos = _pos;
+            this.end = _end;
+        }
+        
+        int getPos()
+        {
+            return this.pos;
+        }
+        
+        int getRemaining()
+        {
+            return this.end - this.pos;
+        }
+        
+        void skip(final int length)
+        {
+            this.pos += length;
+        }
+        
+        int readByte() throws IOException
+        {
+            if (this.pos >= this.end)
+            {
+                throw new IOException("Data is truncated");
+            }
+            return this.bytes[this.pos++] & 0xFF;
+        }
+        
+        long readVarLong() throws IOException
+        {
+            long value = 0;
+            for (int shift=0; shift<64; shift+=7)
+            {
+                int b = this.readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                {
+                    return value;
+                }
+            }
+            throw new IOException("Varint is too long");
+        }
+        
+        String readString() throws IOException
+        {
+            long length = this.readVarLong();
+            if (length > this.end - this.pos)
+            {
+                throw new IOException("Data is truncated");
+            }
+            
+            String value = new String(this.bytes, this.pos, (int) length, UTF8);
+            this.pos += (int) length;
+            return value;
+        }
+    }
+}
@@ -8,12 +8,14 @@ package impl;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.List;
 import data.*;
 import javax.swing.JOptionPane;
 import ui.BestTimesDialog;
 
 /**
- * Handles viewing/saving/resetting the best times
+ * Handles viewing/saving/resetting the best times. Every game won is kept
+ * in a Leaderboard, and the best times are the fastest of each difficulty.
  */
 public class BestTimes
 {
@@ -26,89 +28,133 @@ public class BestTimes
     public Minesweeper getMainFrame() {return main;}
     
     /**
-     * Path where the best times are stored
+     * The names of the difficulties, which are also their categories
      */
-    private String filename;
+    public static final String[] DIFFICULTY_NAMES = {"Beginner", "Intermediate", "Expert"};
     
-    private ArrayList bestTimes = new ArrayList();
     /**
-     * Returns the current best times
+     * The time shown for a difficulty no game has been won at, in milliseconds
+     */
+    private static final int NO_TIME = 999000;
+    
+    private Leaderboard leaderboard;
+    /**
+     * Returns every game won, ranked by category
      * 
-     * @return the current best times
+     * @return the leaderboard
      */
-    public ArrayList getBestTimes() {return this.bestTimes;}
+    public Leaderboard getLeaderboard() {return this.leaderboard;}
     
     /**
      * Constructor, creates a new best times handler
      * 
      * @param _main the main Minesweeper object
-     * @param _filename the file path to store and retrieve the best times
+     * @param _filename the file path to store and retrieve the games won
+     * @param legacyFilename the file path of best times kept by older versions,
+     *                       read if there are no games won yet
      */
-    public BestTimes(final Minesweeper _main, final String _filename)
+    public BestTimes(final Minesweeper _main, final String _filename, final String legacyFilename)
     {
         this.main = _main;
-        this.filename = _filename;
         
         try
         {
-            this.readAllTimesFromFile();
-        } 
-        catch (Exception Ex) //if file not found or can't read file
+            boolean firstRun = ! new File(_filename).exists();
+            this.leaderboard = new Leaderboard(_filename);
+            if (firstRun)
+            {
+                this.importLegacyTimes(legacyFilename);
+            }
+        }
+        catch (Exception Ex) //if the file can't be read, keep the games in memory
         {
-            bestTimes.clear();
-            for (int i=0; i<3; i++)
+            try
             {
-                bestTimes.add(new SingleTime("Anonymous", 999));
+                this.leaderboard = new Leaderboard(null);
             }
+            catch (IOException e) {} //not thrown without a file
+        }
+    }
+    
+    /**
+     * Returns the category of a game
+     * 
+     * @param difficulty the difficulty of the game
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param numMines the number of mines on the board
+     * @return the name of the difficulty, or the size for a custom game
+     */
+    public static String getCategory(final int difficulty, final int width, final int height, final int numMines)
+    {
+        if (difficulty >= 0 && difficulty < DIFFICULTY_NAMES.length)
+        {
+            return DIFFICULTY_NAMES[difficulty];
         }
+        return "Custom " + width + "x" + height + "/" + numMines;
+    }
+    
+    /**
+     * Returns the best time of each difficulty
+     * 
+     * @return the current best times
+     */
+    public ArrayList<SingleTime> getBestTimes()
+    {
+        ArrayList<SingleTime> bestTimes = new ArrayList<SingleTime>();
+        
+        for (String category : DIFFICULTY_NAMES)
+        {
+            List<SingleTime> top = this.leaderboard.getTop(category, 1);
+            bestTimes.add(top.isEmpty() ? new SingleTime("Anonymous", NO_TIME) : top.get(0));
+        }
+        
+        return bestTimes;
     }
     
     /**
      * Determines if the given time is the fastest for the given difficulty
      * 
-     * @param time the new time
+     * @param time the new time, in milliseconds
      * @param difficulty the difficulty the time was achieved for
      * @return true if the time is a new best, false otherwise
      */
     public boolean isNewBestTime(final int time, final int difficulty)
     {
-        SingleTime newTime = new SingleTime("", time);
-
         if (difficulty == main.CUSTOM)
         {
             return false;
         }
-
-        if (newTime.isLessTime( (SingleTime)this.bestTimes.get(difficulty) ))
-        {
-            return true;
-        }
-        else
-        {
-            return false;
-        }
+        
+        List<SingleTime> top = this.leaderboard.getTop(DIFFICULTY_NAMES[difficulty], 1);
+        return time < (top.isEmpty() ? NO_TIME : top.get(0).getTime());
     }
     
     /**
-     * Adds the given time to the best times, if the time is faster
+     * Returns the rank of a time among the games won in a category
+     * 
+     * @param time the time, in milliseconds
+     * @param category the category
+     * @return the rank, from 1
+     */
+    public int getRank(final int time, final String category)
+    {
+        return this.leaderboard.getRank(category, time);
+    }
+    
+    /**
+     * Adds a game won to the leaderboard
      * 
      * @param name the name of the player who achieved the time
-     * @param time the time the player achieved
-     * @param difficulty the difficulty the time was achieved for
+     * @param time the time the player achieved, in milliseconds
+     * @param category the category the time was achieved for
      */
-    public void addTime(final String name, final int time, final int difficulty)
+    public void addTime(final String name, final int time, final String category)
     {
-        if (isNewBestTime(time, difficulty))
-        {
-            SingleTime newTime = new SingleTime(name, time);
-            
-            this.bestTimes.set(difficulty, newTime);
-        }
-        
         try
         {
-            writeAllTimesToFile();
-        } 
+            this.leaderboard.add(category, name, time, System.currentTimeMillis());
+        }
         catch(Exception e)
         {
             // Alert the user an error occured
@@ -120,70 +166,57 @@ public class BestTimes
     }
     
     /**
-     * Reads all the best times from a file
+     * Adds the best times kept by older versions, one per difficulty in
+     * whole seconds, to the leaderboard
      * 
-     * @throws FileNotFoundException if the file containing the best times does not exist
-     * @throws IOException if there was an error reading the best times from file
+     * @param legacyFilename the path to the file that contains the old best times
+     * @throws IOException if there was an error writing the leaderboard
      */
-    private void readAllTimesFromFile() throws FileNotFoundException, IOException
+    private void importLegacyTimes(final String legacyFilename) throws IOException
     {
-        DataInputStream in = new DataInputStream(new FileInputStream(this.filename));
-        
-        String name = "";
-        int time = 0;
+        DataInputStream in;
+        try
+        {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(legacyFilename)));
+        }
+        catch (FileNotFoundException e)
+        {
+            return;
+        }
         
-        boolean eof = false;
-        while ( ! eof)
+        try
         {
-            try
+            for (int difficulty=0; difficulty<DIFFICULTY_NAMES.length; difficulty++)
             {
-                name = in.readUTF();
-                time = in.readInt();
-                this.bestTimes.add(new SingleTime(name, time));
+                String name = in.readUTF();
+                int time = in.readInt();
+                
+                // The default times aren't real games
+                if (time > 0 && time < NO_TIME / 1000)
+                {
+                    this.leaderboard.add(DIFFICULTY_NAMES[difficulty], name, time*1000, 0);
+                }
             }
-            catch (EOFException eofEx) {eof = true;}          
         }
-        
-        in.close();
-    }
-    
-    /**
-     * Writes all of the best times to a file
-     * 
-     * @throws FileNotFoundException if the file containing the best times does not exist
-     * @throws IOException if there was an error reading the best times from file
-     */
-    private void writeAllTimesToFile() throws FileNotFoundException, IOException
-    {
-        DataOutputStream out = new DataOutputStream(new FileOutputStream(this.filename));
-        
-        for (int i=0; i<this.bestTimes.size(); i++)
+        catch (EOFException eofEx) {} //keep the times read before the end
+        finally
         {
-            out.writeUTF(((SingleTime)this.bestTimes.get(i)).getName());
-            out.writeInt(((SingleTime)this.bestTimes.get(i)).getTime());
+            in.close();
         }
-        
-        out.close();
     }
     
     /**
-     * Sets all the best times to 999 by player Anonymous
+     * Clears all the best times
      */
     public void resetBestTimes()
     {
-        this.bestTimes.clear();
-        
-        for (int i=0; i<3; i++)
-        {
-            this.bestTimes.add(new SingleTime("Anonymous", 999));
-        }
-        
         try
         {
-            writeAllTimesToFile();
-            this.displayBestTimes();
-        } 
+            this.leaderboard.reset();
+        }
         catch(Exception e) {}
+        
+        this.displayBestTimes();
     }
     
     /**
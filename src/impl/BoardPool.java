@@ -0,0 +1,486 @@
+//********************************************
+// Generates boards in the background so new games start instantly
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import model.Board;
+import solver.NoGuessGenerator;
+
+/**
+ * Generates boards in the background so new games start instantly. A daemon
+ * thread keeps a bounded queue of boards, mines and neighbour counts
+ * included, for each of the most recently used board sizes. On the first
+ * click a queued board is used if the clicked cell is safe on it, or on one
+ * of its mirror images or rotations, which are just as random. The one
+ * tried is picked at random, and a board that doesn't fit is dropped, so the
+ * boards handed out stay uniform.
+ */
+public class BoardPool
+{
+    /**
+     * The default number of boards kept ready for each size
+     */
+    public static final int DEFAULT_DEPTH = 4;
+    
+    /**
+     * The number of board sizes kept ready at once
+     */
+    public static final int MAX_CONFIGS = 8;
+    
+    /**
+     * The number of no-guess boards of a size not found in time, one after
+     * another, before the pool stops generating that size
+     */
+    public static final int MAX_FAILURES = 3;
+    
+    /**
+     * For each symmetry, the symmetry that undoes it
+     */
+    private static final int[] INVERSE = {0, 1, 2, 3, 4, 6, 5, 7};
+    
+    private int depth;
+    /**
+     * Returns the number of boards kept ready for each size
+     * 
+     * @return the number of boards kept ready for each size
+     */
+    public int getDepth() {return this.depth;}
+    
+    /**
+     * The queues of ready boards, least recently used first
+     */
+    private LinkedHashMap<String, Config> configs;
+    
+    private Random random = new Random();
+    private NoGuessGenerator generator = new NoGuessGenerator();
+    /**
+     * Returns the generator of the boards without guessing kept ready
+     * 
+     * @return the generator of the boards without guessing kept ready
+     */
+    public NoGuessGenerator getGenerator() {return this.generator;}
+    
+    private Thread producer;
+    private volatile boolean shutdown = false;
+    
+    /**
+     * Constructor, creates a pool and starts its producer thread
+     * 
+     * @param _depth the number of boards kept ready for each size
+     */
+    public BoardPool(final int _depth)
+    {
+        this.depth = _depth;
+        this.configs = new LinkedHashMap<String, Config>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Config> eldest)
+                {
+                    return this.size() > MAX_CONFIGS;
+                }
+            };
+        
+        this.producer = new Thread("BoardPool")
+            {
+                @Override
+                public void run()
+                {
+                    produce();
+                }
+            };
+        this.producer.setDaemon(true);
+        this.producer.setPriority(Thread.MIN_PRIORITY);
+        this.producer.start();
+    }
+    
+    /**
+     * Returns the key of a board size
+     * 
+     * @param representation the representation of the boards, Board.ARRAY or Board.BITS
+     * @param width the width of the boards
+     * @param height the height of the boards
+     * @param numMines the number of mines on the boards
+     * @param noGuess true for boards that can be solved without guessing
+     * @return the key
+     */
+    private static String getKey(final int representation, final int width, final int height,
+                                 final int numMines, final boolean noGuess)
+    {
+        return NoGuessGenerator.getKey(width, height, numMines)
+               + ((representation == Board.BITS) ? " bits" : "") + (noGuess ? " no-guess" : "");
+    }
+    
+    /**
+     * Asks for boards of the given size to be kept ready, replacing the least
+     * recently used size if too many are kept
+     * 
+     * @param representation the representation of the boards, Board.ARRAY or Board.BITS
+     * @param width the width of the boards
+     * @param height the height of the boards
+     * @param numMines the number of mines on the boards
+     * @param noGuess true for boards that can be solved without guessing
+     */
+    public void register(final int representation, final int width, final int height,
+                         final int numMines, final boolean noGuess)
+    {
+        // The first click must always have somewhere safe to go
+        if (numMines >= width*height)
+        {
+            return;
+        }
+        
+        String key = getKey(representation, width, height, numMines, noGuess);
+        synchronized (this.configs)
+        {
+            if (this.configs.get(key) == null)
+            {
+                this.configs.put(key, new Config(representation, width, height, numMines, noGuess, this.depth));
+            }
+            this.configs.notifyAll();
+        }
+    }
+    
+    /**
+     * Takes a ready board of the given size whose cell at the first click is
+     * safe, or can be solved without guessing from there for no-guess boards
+     * 
+     * @param representation the representation of the board, Board.ARRAY or Board.BITS
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param numMines the number of mines on the board
+     * @param noGuess true for a board that can be solved without guessing
+     * @param col the column of the first click
+     * @param row the row of the first click
+     * @return a board with its mines added, null if no ready board fits
+     */
+    public Board take(final int representation, final int width, final int height, final int numMines,
+                      final boolean noGuess, final int col, final int row)
+    {
+        Config config;
+        synchronized (this.configs)
+        {
+            config = this.configs.get(getKey(representation, width, height, numMines, noGuess));
+        }
+        if (config == null)
+        {
+            return null;
+        }
+        
+        int numSymmetries = (width == height) ? 8 : 4;
+        int cell = row*width + col;
+        boolean dropped = false;
+        Board board = null;
+        
+        for (Iterator<Ready> it = config.queue.iterator(); it.hasNext() && board == null; )
+        {
+            Ready ready = it.next();
+            if ( ! config.queue.remove(ready))
+            {
+                continue;
+            }
+            dropped = true;
+            
+            // Try one symmetry picked at random and drop the board if it doesn't
+            // fit. Trying them all in turn would favour boards that fit only
+            // one way, and keeping boards passed over would leave mines where
+            // players click first.
+            int symmetry = this.random.nextInt(numSymmetries);
+            if ( ! fits(ready, transform(INVERSE[symmetry], cell, width, height), config))
+            {
+                continue;
+            }
+            
+            if (symmetry == 0)
+            {
+                board = ready.board;
+            }
+            else
+            {
+                int[] mines = new int[ready.mines.length];
+                for (int i=0; i<mines.length; i++)
+                {
+                    mines[i] = transform(symmetry, ready.mines[i], width, height);
+                }
+                board = Board.create(representation, width, height, numMines, null);
+                board.setMines(mines);
+            }
+        }
+        
+        if (dropped)
+        {
+            synchronized (this.configs)
+            {
+                this.configs.notifyAll();
+            }
+        }
+        
+        if (board == null)
+        {
+            config.misses.incrementAndGet();
+        }
+        else
+        {
+            config.hits.incrementAndGet();
+        }
+        return board;
+    }
+    
+    /**
+     * Returns true if a ready board can be started from the given cell
+     * 
+     * @param ready the ready board
+     * @param cell the first cell uncovered
+     * @param config the size of the board
+     * @return true if the board can be used, false otherwise
+     */
+    private static boolean fits(final Ready ready, final int cell, final Config config)
+    {
+        if (ready.board.isMine(cell % config.width, cell / config.width))
+        {
+            return false;
+        }
+        if ( ! config.noGuess)
+        {
+            return true;
+        }
+        
+        // Play a copy, since the ready board must stay untouched
+        Board copy = Board.create(Board.ARRAY, config.width, config.height, config.numMines, null);
+        copy.setMines(ready.mines);
+        return NoGuessGenerator.isSolvable(copy, cell % config.width, cell / config.width);
+    }
+    
+    /**
+     * Moves a cell by one of the symmetries of the board: 0 leaves it, 1 mirrors
+     * left to right, 2 top to bottom, 3 turns it half way round, and on square
+     * boards 4 to 7 do the same after mirroring across the diagonal
+     * 
+     * @param symmetry the symmetry, 0 to 7
+     * @param cell the cell
+     * @param width the width of the board
+     * @param height the height of the board
+     * @return the cell it moves to
+     */
+    private static int transform(final int symmetry, final int cell, final int width, final int height)
+    {
+        int col = cell % width;
+        int row = cell / width;
+        
+        if (symmetry >= 4)
+        {
+            int swapped = col;
+            col = row;
+            row = swapped;
+        }
+        if ((symmetry & 1) != 0)
+        {
+            col = width - 1 - col;
+        }
+        if ((symmetry & 2) != 0)
+        {
+            row = height - 1 - row;
+        }
+        
+        return row*width + col;
+    }
+    
+    /**
+     * Keeps every queue full until shut down, waiting while they are, and gives
+     * up on a no-guess size not found MAX_FAILURES times in a row
+     */
+    private void produce()
+    {
+        while ( ! this.shutdown)
+        {
+            Config next = null;
+            synchronized (this.configs)
+            {
+                for (Config config : this.configs.values())
+                {
+                    if (config.queue.remainingCapacity() > 0 && config.failures < MAX_FAILURES)
+                    {
+                        next = config;
+                    }
+                }
+                if (next == null)
+                {
+                    try
+                    {
+                        this.configs.wait();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            
+            long start = System.nanoTime();
+            Ready ready = this.generate(next);
+            next.generationNanos.addAndGet(System.nanoTime() - start);
+            if (ready != null)
+            {
+                next.failures = 0;
+                next.produced.incrementAndGet();
+                next.queue.offer(ready);
+            }
+            else
+            {
+                // Sizes too dense to solve without guessing would keep every worker busy
+                next.failures++;
+            }
+        }
+    }
+    
+    /**
+     * Generates a board of the given size
+     * 
+     * @param config the size of the board
+     * @return the board, null if a no-guess board wasn't found in time
+     */
+    private Ready generate(final Config config)
+    {
+        int[] mines;
+        if (config.noGuess)
+        {
+            int cell = this.random.nextInt(config.width*config.height);
+            mines = this.generator.generate(config.width, config.height, config.numMines,
+                                            cell % config.width, cell / config.width);
+            if (mines == null)
+            {
+                return null;
+            }
+        }
+        else
+        {
+            Board board = Board.create(Board.ARRAY, config.width, config.height, config.numMines, this.random);
+            board.addMines(new int[0]);
+            mines = board.getMineCells();
+        }
+        
+        Board board = Board.create(config.representation, config.width, config.height, config.numMines, null);
+        board.setMines(mines);
+        return new Ready(board, mines);
+    }
+    
+    /**
+     * Stops the producer thread and waits for it to finish
+     */
+    public void shutdown()
+    {
+        this.shutdown = true;
+        this.producer.interrupt();
+        try
+        {
+            this.producer.join(1000);
+        }
+        catch (InterruptedException e) {}
+    }
+    
+    /**
+     * Returns the number of boards ready for the given size
+     * 
+     * @param representation the representation of the boards, Board.ARRAY or Board.BITS
+     * @param width the width of the boards
+     * @param height the height of the boards
+     * @param numMines the number of mines on the boards
+     * @param noGuess true for boards that can be solved without guessing
+     * @return the number of boards ready, 0 if the size isn't kept ready
+     */
+    public int getQueueDepth(final int representation, final int width, final int height,
+                             final int numMines, final boolean noGuess)
+    {
+        synchronized (this.configs)
+        {
+            Config config = this.configs.get(getKey(representation, width, height, numMines, noGuess));
+            return (config == null) ? 0 : config.queue.size();
+        }
+    }
+    
+    /**
+     * Returns a line for each size kept ready with its queue depth, boards
+     * produced, first clicks served and missed, and boards produced per
+     * second of generation
+     * 
+     * @return the report
+     */
+    public String getReport()
+    {
+        StringBuilder report = new StringBuilder();
+        
+        synchronized (this.configs)
+        {
+            for (Map.Entry<String, Config> entry : this.configs.entrySet())
+            {
+                Config config = entry.getValue();
+                long nanos = config.generationNanos.get();
+                report.append(String.format("%-24s depth=%d/%d produced=%d hits=%d misses=%d refill=%.1f/s%n",
+                    entry.getKey(), config.queue.size(), this.depth,
+                    config.produced.get(), config.hits.get(), config.misses.get(),
+                    (nanos > 0) ? config.produced.get() / (nanos / 1e9) : 0.0));
+            }
+        }
+        
+        return report.toString();
+    }
+    
+    /**
+     * A board size kept ready, with its queue and metrics
+     */
+    private static class Config
+    {
+        int representation;
+        int width;
+        int height;
+        int numMines;
+        boolean noGuess;
+        
+        ArrayBlockingQueue<Ready> queue;
+        AtomicLong produced = new AtomicLong();
+        AtomicLong hits = new AtomicLong();
+        AtomicLong misses = new AtomicLong();
+        AtomicLong generationNanos = new AtomicLong();
+        
+        /**
+         * The boards not found in time since the last one found, only used
+         * by the producer thread
+         */
+        int failures;
+        
+        Config(final int _representation, final int _width, final int _height,
+               final int _numMines, final boolean _noGuess, final int depth)
+        {
+            this.representation = _representation;
+            this.width = _width;
+            this.height = _height;
+            this.numMines = _numMines;
+            this.noGuess = _noGuess;
+            this.queue = new ArrayBlockingQueue<Ready>(depth);
+        }
+    }
+    
+    /**
+     * A ready board and its mines
+     */
+    private static class Ready
+    {
+        Board board;
+        int[] mines;
+        
+        Ready(final Board _board, final int[] _mines)
+        {
+            this.board = _board;
+            this.mines = _mines;
+        }
+    }
+}
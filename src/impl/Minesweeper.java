@@ -12,6 +12,15 @@ import javax.swing.*;
 import java.awt.event.*;
 import java.awt.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import data.BackgroundSaver;
+import data.GameStats;
+import data.Replay;
+import data.ReplayWriter;
+import data.SafeFile;
+import data.Snapshot;
+import model.Board;
 import ui.*;
 
 /**
@@ -33,6 +42,34 @@ public class Minesweeper extends JFrame
     public final String RES_MINE           = "res/res_mine.gif";
     public final String RES_NOT_MINE       = "res/res_notmine.gif";
     
+    /**
+     * Names of the files the game saves, kept in the data directory. The
+     * settings and best times under res/ are only read, by older versions'
+     * format, if the game has not saved its own yet.
+     */
+    public static final String DATA_SETTINGS    = "preferences.dat";
+    public static final String DATA_LEADERBOARD = "leaderboard.log";
+    public static final String DATA_REPLAYS     = "replays.dat";
+    public static final String DATA_STATS       = "stats";
+    public static final String DATA_SNAPSHOT    = "game.dat";
+    
+    /**
+     * Identifies the settings file, "MSET", and the version of its format
+     */
+    private static final int SETTINGS_MAGIC   = 0x4D534554;
+    private static final int SETTINGS_VERSION = 1;
+    
+    /**
+     * How often the game in progress is saved, in milliseconds, if it has
+     * changed since it was last saved
+     */
+    private static final int AUTOSAVE_INTERVAL = 10000;
+    
+    /**
+     * Where the files the game saves are kept, found when first needed
+     */
+    private static File dataDir;
+    
     private MineGrid mineGrid;
     /**
      * Returns an instance of this game's mine grid
@@ -70,6 +107,48 @@ public class Minesweeper extends JFrame
      */
     public BestTimes getBestTimesObj() {return this.bestTimes;}
     
+    private ReplayWriter replayWriter;
+    /**
+     * Returns the writer that saves the replay of every game
+     * 
+     * @return the writer that saves the replay of every game
+     */
+    public ReplayWriter getReplayWriter() {return this.replayWriter;}
+    
+    private BackgroundSaver saver;
+    /**
+     * Returns the saver that writes the settings off the event thread
+     * 
+     * @return the saver that writes the settings off the event thread
+     */
+    public BackgroundSaver getSaver() {return this.saver;}
+    
+    private GameStats stats;
+    /**
+     * Returns the statistics of every game finished, null if they can't be kept
+     * 
+     * @return the statistics of every game finished
+     */
+    public GameStats getStats() {return this.stats;}
+    
+    /**
+     * Saves the game in progress every so often, so little is lost if the game
+     * doesn't get to save it on exit
+     */
+    private javax.swing.Timer autosave;
+    
+    /**
+     * The number of clicks made in the game when it was last saved, and
+     * whether there is a saved game to delete once it is over
+     */
+    private int savedClicks = -1;
+    private boolean gameSaved;
+    
+    /**
+     * The name last entered for a best time, used for every other game won
+     */
+    private String playerName = "Anonymous";
+    
     private boolean gameOver;
     /**
      * Checks if the game is over or still in progress
@@ -128,18 +207,80 @@ public class Minesweeper extends JFrame
         
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         
+        // Load all the icons once, up front
+        IconCache.preload(RES_GAME_ICON, RES_SMILEY_NORMAL, RES_SMILEY_DEAD, RES_SMILEY_COOL,
+                          RES_SMILEY_NERVOUS, RES_FLAG, RES_MINE, RES_NOT_MINE);
+        
         // Set the window icon
-        this.setIconImage(Toolkit.getDefaultToolkit().getImage(RES_GAME_ICON));
+        this.setIconImage(IconCache.getIcon(RES_GAME_ICON).getImage());
         
         // Create the 2 red integer displays
         this.timerDisplay = new TimerDisplay();
         this.minesLeftDisplay = new MinesLeftDisplay();
         
         // Create a manager for the best times
-        this.bestTimes = new BestTimes(this, RES_BEST_TIMES);
+        this.bestTimes = new BestTimes(this, getDataFile(DATA_LEADERBOARD).getPath(), RES_BEST_TIMES);
+        
+        // Save the settings and the replay of every game in the background, finishing before the JVM exits
+        this.saver = new BackgroundSaver();
+        this.replayWriter = new ReplayWriter(getDataFile(DATA_REPLAYS).getPath());
+        try
+        {
+            this.stats = new GameStats(getDataFile(DATA_STATS));
+        }
+        catch (IOException e) {} //the game goes on without statistics
+        Runtime.getRuntime().addShutdownHook(new Thread("Save on exit")
+            {
+                @Override
+                public void run()
+                {
+                    replayWriter.close();
+                    saver.close();
+                    if (stats != null)
+                    {
+                        stats.close();
+                    }
+                }
+            });
+        this.addWindowListener(new WindowAdapter()
+            {
+                @Override
+                public void windowClosing(WindowEvent e)
+                {
+                    saveGame();
+                    mineGrid.finishReplay();
+                }
+            });
         
         // Create the grid containing all the mines
         this.mineGrid = new MineGrid(this);
+        if ("bits".equals(System.getProperty("minesweeper.board")))
+        {
+            this.mineGrid.setBoardRepresentation(model.Board.BITS);
+        }
+        if ("tiles".equals(System.getProperty("minesweeper.render")))
+        {
+            this.mineGrid.setPainted(false);
+        }
+        if ("true".equals(System.getProperty("minesweeper.noguess")))
+        {
+            this.mineGrid.setNoGuess(true);
+        }
+        
+        // Generate boards in the background, stopping before the JVM exits
+        if ( ! "false".equals(System.getProperty("minesweeper.pool")))
+        {
+            final BoardPool boardPool = new BoardPool(BoardPool.DEFAULT_DEPTH);
+            this.mineGrid.setBoardPool(boardPool);
+            Runtime.getRuntime().addShutdownHook(new Thread("BoardPool shutdown")
+                {
+                    @Override
+                    public void run()
+                    {
+                        boardPool.shutdown();
+                    }
+                });
+        }
         
         // Create button borders
         this.borderDepressed = BorderFactory.createCompoundBorder(
@@ -162,7 +303,7 @@ public class Minesweeper extends JFrame
         );
         
         // Create the smiley new game button
-        this.butNewGame = new JLabel(new ImageIcon(RES_SMILEY_NORMAL));
+        this.butNewGame = new JLabel(IconCache.getIcon(RES_SMILEY_NORMAL));
         this.butNewGame.setBorder(this.borderDepressed);
         this.butNewGame.addMouseListener(new MouseListener()
         {
@@ -225,7 +366,7 @@ public class Minesweeper extends JFrame
         int diffic = BEGINNER;
         try
         {
-            diffic = this.getPreviousDifficulty(RES_SETTINGS);
+            diffic = this.getPreviousDifficulty(getDataFile(DATA_SETTINGS), RES_SETTINGS);
             if (diffic == -1)
                 diffic = BEGINNER;
         } 
@@ -235,6 +376,21 @@ public class Minesweeper extends JFrame
         }
         this.setDifficulty(diffic);
         
+        // Carry on the game in progress when the game was last closed
+        this.resumeSavedGame();
+        this.autosave = new javax.swing.Timer(AUTOSAVE_INTERVAL, new ActionListener()
+            {
+                @Override
+                public void actionPerformed(ActionEvent e)
+                {
+                    if (isGameInProgress() && getTotalClicks() != savedClicks)
+                    {
+                        saveGame();
+                    }
+                }
+            });
+        this.autosave.start();
+        
         // Create the menu bar (must be done after setting difficulty so radio buttons set properly)
         this.setJMenuBar(new ui.MenuBar(this));
         
@@ -256,55 +412,179 @@ public class Minesweeper extends JFrame
      */
     public void setSmileyIcon(final String iconName)
     {
-        this.butNewGame.setIcon(new ImageIcon(iconName));
+        this.butNewGame.setIcon(IconCache.getIcon(iconName));
+    }
+    
+    /**
+     * Returns where a file the game saves is kept. The data directory is
+     * .minesweeper in the user's home, or the directory named by the
+     * minesweeper.data property, falling back to res/ if it can't be created.
+     * 
+     * @param name the name of the file
+     * @return the file in the data directory
+     */
+    public static synchronized File getDataFile(final String name)
+    {
+        if (dataDir == null)
+        {
+            String path = System.getProperty("minesweeper.data");
+            File dir = (path != null) ? new File(path) : new File(System.getProperty("user.home"), ".minesweeper");
+            dir.mkdirs();
+            dataDir = (dir.isDirectory() && dir.canWrite()) ? dir : new File("res");
+        }
+        
+        return new File(dataDir, name);
     }
     
     /**
-     * Gets the previous difficulty from a given file
+     * Gets the previous difficulty from the settings file, or from the file
+     * older versions kept it in if there are no settings yet
      * 
-     * @param filename the path to the file that contains the previous difficulty
+     * @param file the settings file
+     * @param legacyFilename the path to the file older versions kept the difficulty in
      * @return the previous difficulty of the Minesweeper game, -1 if no prev difficulty
-     * @throws FileNotFoundException if the settings file was not found
-     * @throws IOException if there was an error reading the settings file
+     * @throws FileNotFoundException if neither file was found
+     * @throws IOException if there was an error reading the settings, or they are damaged
      */
-    private int getPreviousDifficulty(final String filename) throws FileNotFoundException, IOException
+    private int getPreviousDifficulty(final File file, final String legacyFilename)
+        throws FileNotFoundException, IOException
     {
-        DataInputStream in = new DataInputStream(new FileInputStream(filename));
+        byte[] settings = SafeFile.read(file, SETTINGS_MAGIC, SETTINGS_VERSION);
+        if (settings != null)
+        {
+            return ByteBuffer.wrap(settings).getInt();
+        }
         
-        int _difficulty = -1;
+        // Older versions appended the difficulty as an int, so the last one counts
+        File legacy = new File(legacyFilename);
+        if ( ! legacy.exists())
+        {
+            throw new FileNotFoundException(legacyFilename);
+        }
+        settings = Files.readAllBytes(legacy.toPath());
+        if (settings.length < 4)
+        {
+            return -1;
+        }
+        return ByteBuffer.wrap(settings, (settings.length/4 - 1)*4, 4).getInt();
+    }
+    
+    /**
+     * Saves the current difficulty to the settings file in the background
+     */
+    private void saveDifficulty()
+    {
+        if ( ! (CUSTOM == this.difficulty)) // won't write custom games to file
+        {
+            byte[] settings = ByteBuffer.allocate(4).putInt(this.difficulty).array();
+            this.saver.save(getDataFile(DATA_SETTINGS), SETTINGS_MAGIC, SETTINGS_VERSION, settings);
+        }
+    }
+    
+    /**
+     * Checks if a game is being played, with its first tile uncovered and not
+     * yet won or lost
+     * 
+     * @return true if a game is in progress, false otherwise
+     */
+    public boolean isGameInProgress()
+    {
+        return ! this.gameOver && this.mineGrid.areMinesAdded() && ! this.mineGrid.isWatchingReplay();
+    }
+    
+    /**
+     * Returns the number of clicks of every type made in the current game
+     * 
+     * @return the number of clicks made
+     */
+    private int getTotalClicks()
+    {
+        int[] clicks = this.mineGrid.getNumClicks();
+        return clicks[Replay.REVEAL] + clicks[Replay.FLAG] + clicks[Replay.CHORD];
+    }
+    
+    /**
+     * Saves the game in progress in the background, so it can be resumed the
+     * next time the game starts, or deletes the saved game if the game it was
+     * is over. Replays being watched are never saved.
+     */
+    public void saveGame()
+    {
+        if (this.mineGrid.isWatchingReplay())
+        {
+            return;
+        }
         
-        boolean eof = false;
-        while ( ! eof)
+        File file = getDataFile(DATA_SNAPSHOT);
+        if (this.isGameInProgress())
+        {
+            Snapshot snapshot = new Snapshot(this.difficulty, this.mineGrid.getBoard(),
+                                             this.timerDisplay.getElapsedMillis(), this.mineGrid.getNumClicks());
+            this.saver.save(file, Snapshot.MAGIC, Snapshot.VERSION, snapshot);
+            this.savedClicks = this.getTotalClicks();
+            this.gameSaved = true;
+        }
+        else if (this.gameSaved)
+        {
+            this.saver.delete(file);
+            this.savedClicks = -1;
+            this.gameSaved = false;
+        }
+    }
+    
+    /**
+     * Resumes the game saved when the game was last closed, if there is one.
+     * A saved game that can't be read is deleted.
+     */
+    private void resumeSavedGame()
+    {
+        File file = getDataFile(DATA_SNAPSHOT);
+        try
         {
-            try
+            byte[] bytes = SafeFile.read(file, Snapshot.MAGIC, Snapshot.VERSION);
+            if (bytes == null)
+            {
+                return;
+            }
+            Snapshot snapshot = Snapshot.fromBytes(bytes);
+            if (snapshot.getDifficulty() < BEGINNER || snapshot.getDifficulty() > CUSTOM)
             {
-                _difficulty = in.readInt();
+                throw new IOException("Invalid difficulty");
             }
-            catch (EOFException eofEx) {eof = true;}          
+            this.resumeGame(snapshot);
+        }
+        catch (IOException e)
+        {
+            this.saver.delete(file);
         }
-        
-        in.close();
-        
-        return _difficulty;
     }
     
     /**
-     * Writes the current difficulty to a given file
+     * Carries on a saved game in place of the current game
      * 
-     * @param filename the path to the file to write the difficulty
-     * @throws FileNotFoundException if the file to write to does not exist
-     * @throws IOException if there was an error writing to file
+     * @param snapshot the saved game
      */
-    private void writeDifficultyToFile(final String filename) throws FileNotFoundException, IOException
+    public void resumeGame(final Snapshot snapshot)
     {
-        if ( ! (CUSTOM == this.difficulty)) // won't write custom games to file
+        this.difficulty = snapshot.getDifficulty();
+        if (this.difficulty == CUSTOM)
         {
-            DataOutputStream out = new DataOutputStream(new FileOutputStream(filename));
-
-            out.writeInt(this.difficulty);
-
-            out.close();
+            this.customWidth = snapshot.getWidth();
+            this.customHeight = snapshot.getHeight();
+            this.customNumMines = snapshot.getNumMines();
         }
+        
+        this.gameOver = false;
+        this.setSmileyIcon(RES_SMILEY_NORMAL);
+        this.mineGrid.setGrid(snapshot);
+        this.minesLeftDisplay.setNumMines(snapshot.getNumMines());
+        this.minesLeftDisplay.setNumMinesLeft(snapshot.getNumMines() - this.mineGrid.getBoard().getNumFlags());
+        this.timerDisplay.resumeTimer(snapshot.getElapsedMillis());
+        this.savedClicks = this.getTotalClicks();
+        this.gameSaved = true;
+        
+        this.pack();
+        this.saveDifficulty();
     }
     
     /**
@@ -319,24 +599,50 @@ public class Minesweeper extends JFrame
         // Set the mine grid
         if (difficulty == BEGINNER)
         {
-            this.minesLeftDisplay.setNumMinesLeft(10);
+            this.minesLeftDisplay.setNumMines(10);
             this.mineGrid.setGrid(9, 9, 10);
         }
         else if (difficulty == INTERMEDIATE)
         {
-            this.minesLeftDisplay.setNumMinesLeft(40);
+            this.minesLeftDisplay.setNumMines(40);
             this.mineGrid.setGrid(16, 16, 40);
         }
         else if (difficulty == EXPERT)
         {
-            this.minesLeftDisplay.setNumMinesLeft(99);
+            this.minesLeftDisplay.setNumMines(99);
             this.mineGrid.setGrid(30, 16, 99);
         }
         else if (difficulty == CUSTOM)
         {
-            this.minesLeftDisplay.setNumMinesLeft(this.customNumMines);
+            this.minesLeftDisplay.setNumMines(this.customNumMines);
             this.mineGrid.setGrid(this.customWidth, this.customHeight, this.customNumMines);
         }
+        
+        // The game left behind is over
+        this.saveGame();
+    }
+    
+    /**
+     * Starts watching a replay in place of the current game
+     * 
+     * @param replay the replay to watch
+     * @param speed how many times faster than real time to play it
+     */
+    public void playReplay(final Replay replay, final double speed)
+    {
+        // Keep the game left behind, to be resumed next time. It is only
+        // replaced once another game is played, not deleted with the replay.
+        this.saveGame();
+        this.gameSaved = false;
+        
+        this.gameOver = false;
+        this.timerDisplay.resetTimer();
+        this.setSmileyIcon(RES_SMILEY_NORMAL);
+        this.minesLeftDisplay.setNumMines(replay.getNumMines());
+        this.mineGrid.setGrid(replay);
+        this.pack();
+        
+        new ReplayPlayer(this, replay, speed).start();
     }
     
     /**
@@ -349,11 +655,7 @@ public class Minesweeper extends JFrame
         this.difficulty = _difficulty;
         this.newGame();
         this.pack(); //resize the window to fit the components
-        try
-        {
-            this.writeDifficultyToFile(RES_SETTINGS);
-        } 
-        catch (Exception e) {} //do nothing if the save fails
+        this.saveDifficulty();
     }
     
     /**
@@ -381,6 +683,31 @@ public class Minesweeper extends JFrame
         this.mineGrid.showMines();
         this.timerDisplay.stopTimer();
         this.setSmileyIcon(RES_SMILEY_DEAD);
+        this.recordStats(Replay.LOST);
+        this.saveGame();
+    }
+    
+    /**
+     * Records a finished game in the statistics, unless it was a replay
+     * 
+     * @param result Replay.WON or Replay.LOST
+     */
+    private void recordStats(final int result)
+    {
+        if (this.stats == null || this.mineGrid.isWatchingReplay())
+        {
+            return;
+        }
+        
+        Board board = this.mineGrid.getBoard();
+        try
+        {
+            this.stats.add(this.difficulty, board.getWidth(), board.getHeight(), board.getNumMines(), result,
+                           (int) Math.min(this.timerDisplay.getElapsedMillis(), Integer.MAX_VALUE),
+                           board.get3BV(), this.mineGrid.getNumClicks(), System.currentTimeMillis());
+            this.stats.flush();
+        }
+        catch (IOException e) {} //kept in memory, written with the next game
     }
     
     /**
@@ -392,32 +719,43 @@ public class Minesweeper extends JFrame
         this.mineGrid.showMines();
         this.timerDisplay.stopTimer();
         this.setSmileyIcon(RES_SMILEY_COOL);
+        this.recordStats(Replay.WON);
+        this.saveGame();
         
-        // Handles the best times
-        if ( ! (difficulty == CUSTOM))
+        // Every game won goes on the leaderboard, asking for a name on a best time
+        int time = (int) Math.min(this.timerDisplay.getElapsedMillis(), Integer.MAX_VALUE);
+        if ( ! this.mineGrid.isWatchingReplay())
         {
-            if (this.bestTimes.isNewBestTime(this.timerDisplay.getNumSeconds(), difficulty))
+            String category = BestTimes.getCategory(difficulty, this.mineGrid.getGridWidth(),
+                                                    this.mineGrid.getGridHeight(), this.mineGrid.getNumMines());
+            if (this.bestTimes.isNewBestTime(time, difficulty))
             {
-                String[] diffNames = {"Beginner", "Intermediate", "Expert"};
-                
                 // Alert the user he/she has a new best time
-                String playerName = JOptionPane.showInputDialog(
+                String name = JOptionPane.showInputDialog(
                     this,
-                    "You have the fastest time for "+diffNames[difficulty]+" level.\nPlease enter your name:",
+                    "You have the fastest time for "+BestTimes.DIFFICULTY_NAMES[difficulty]+" level.\nPlease enter your name:",
                     "New best time!",
                     JOptionPane.QUESTION_MESSAGE
                 );
                 
-                // Clip player names that are too long
-                if (playerName.length() > 30)
+                if (name != null && name.trim().length() > 0)
                 {
-                    playerName = playerName.substring(0, 30);
+                    // Clip player names that are too long
+                    if (name.length() > 30)
+                    {
+                        name = name.substring(0, 30);
+                    }
+                    this.playerName = name;
                 }
 
-                this.bestTimes.addTime(playerName, this.timerDisplay.getNumSeconds(), difficulty);
+                this.bestTimes.addTime(this.playerName, time, category);
 
                 this.bestTimes.displayBestTimes();
             }
+            else
+            {
+                this.bestTimes.addTime(this.playerName, time, category);
+            }
         }
     }
 }
@@ -0,0 +1,227 @@
+//********************************************
+// Plays back recorded games
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package impl;
+
+import data.Replay;
+import data.ReplayWriter;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import model.Board;
+
+/**
+ * Plays back recorded games, either in the game window at real time or
+ * faster, or straight on a board without a window as fast as possible, to
+ * check that each replay ends the way it was recorded.
+ * 
+ * Usage: java impl.ReplayPlayer [-speed N] [file] [index]
+ *        java impl.ReplayPlayer -headless [file]
+ */
+public class ReplayPlayer implements ActionListener
+{
+    private Minesweeper main;
+    private Replay replay;
+    private double speed;
+    
+    /**
+     * The next move to play
+     */
+    private int move = 0;
+    
+    /**
+     * The board being played, to stop if the player starts another game
+     */
+    private Board board;
+    
+    /**
+     * Fires once for each move, after that move's delay
+     */
+    private Timer timer;
+    
+    /**
+     * Constructor, creates a player for a replay in the game window
+     * 
+     * @param _main the main Minesweeper object, with its grid set up for the replay
+     * @param _replay the replay to play
+     * @param _speed how many times faster than real time to play it
+     */
+    public ReplayPlayer(final Minesweeper _main, final Replay _replay, final double _speed)
+    {
+        this.main = _main;
+        this.replay = _replay;
+        this.speed = _speed;
+        this.timer = new Timer(0, this);
+        this.timer.setRepeats(false);
+    }
+    
+    /**
+     * Starts playing the replay
+     */
+    public void start()
+    {
+        this.board = this.main.getMineGrid().getBoard();
+        this.main.getMineGrid().setReplayPlaying(true);
+        this.scheduleNextMove();
+    }
+    
+    /**
+     * Plays the next move, unless the game has been replaced or ended
+     * 
+     * @param e the timer event
+     */
+    @Override
+    public void actionPerformed(ActionEvent e)
+    {
+        if (this.main.getMineGrid().getBoard() != this.board)
+        {
+            return;
+        }
+        if (this.main.isGameOver())
+        {
+            this.main.getMineGrid().setReplayPlaying(false);
+            return;
+        }
+        
+        int cell = this.replay.getCell(this.move);
+        int col = cell % this.replay.getWidth();
+        int row = cell / this.replay.getWidth();
+        int type = this.replay.getType(this.move);
+        this.move++;
+        
+        if (type == Replay.REVEAL)
+            this.main.getMineGrid().tileUncovered(col, row);
+        else if (type == Replay.FLAG)
+            this.main.getMineGrid().toggleFlagged(col, row);
+        else
+            this.main.getMineGrid().uncoverAdjacentTiles(col, row);
+        
+        this.scheduleNextMove();
+    }
+    
+    /**
+     * Waits for the delay of the next move, if there is one, or hands the
+     * grid back to the player
+     */
+    private void scheduleNextMove()
+    {
+        if (this.move < this.replay.getNumMoves())
+        {
+            this.timer.setInitialDelay((int) Math.round(this.replay.getDelay(this.move) / 1e6 / this.speed));
+            this.timer.restart();
+        }
+        else
+        {
+            this.main.getMineGrid().setReplayPlaying(false);
+        }
+    }
+    
+    /**
+     * Plays a replay straight on a new board
+     * 
+     * @param replay the replay
+     * @param representation the representation of the board, Board.ARRAY or Board.BITS
+     * @return the board as the replay left it
+     */
+    public static Board play(final Replay replay, final int representation)
+    {
+        Board board = Board.create(representation, replay.getWidth(), replay.getHeight(), replay.getNumMines(), null);
+        board.setMines(replay.getMines());
+        
+        for (int i=0; i<replay.getNumMoves() && ! board.isExploded() && ! board.isWon(); i++)
+        {
+            int col = replay.getCell(i) % replay.getWidth();
+            int row = replay.getCell(i) / replay.getWidth();
+            int type = replay.getType(i);
+            
+            if (type == Replay.REVEAL)
+                board.uncover(col, row);
+            else if (type == Replay.FLAG)
+                board.toggleFlagged(col, row);
+            else
+                board.uncoverAdjacent(col, row);
+        }
+        
+        return board;
+    }
+    
+    /**
+     * Plays a replay straight on a new board and checks it ends as recorded
+     * 
+     * @param replay the replay
+     * @return true if the game ended the way it was recorded, false otherwise
+     */
+    public static boolean verify(final Replay replay)
+    {
+        Board board = play(replay, Board.ARRAY);
+        int result = board.isWon() ? Replay.WON : (board.isExploded() ? Replay.LOST : Replay.UNFINISHED);
+        return result == replay.getResult();
+    }
+    
+    /**
+     * Plays a replay in the game window, or checks every replay in a file
+     * 
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) throws Exception
+    {
+        boolean headless = false;
+        double speed = 1;
+        String filename = Minesweeper.getDataFile(Minesweeper.DATA_REPLAYS).getPath();
+        int index = -1;
+        
+        for (int i=0, position=0; i<args.length; i++)
+        {
+            if ("-headless".equals(args[i]))
+                headless = true;
+            else if ("-speed".equals(args[i]))
+                speed = Double.parseDouble(args[++i]);
+            else if (position++ == 0)
+                filename = args[i];
+            else
+                index = Integer.parseInt(args[i]);
+        }
+        
+        final List<Replay> replays = ReplayWriter.readAll(filename);
+        if (replays.isEmpty())
+        {
+            System.err.println("No replays in " + filename);
+            return;
+        }
+        
+        if (headless)
+        {
+            long start = System.nanoTime();
+            int numVerified = 0;
+            for (Replay replay : replays)
+            {
+                if (verify(replay))
+                {
+                    numVerified++;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            
+            System.out.println(replays.size() + " replays, " + numVerified + " ended as recorded, "
+                               + Math.round(replays.size() / seconds) + " replays/s");
+            return;
+        }
+        
+        final Replay replay = replays.get((index < 0) ? replays.size() - 1 : index);
+        final double playSpeed = speed;
+        final Minesweeper main = new Minesweeper();
+        SwingUtilities.invokeLater(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    main.playReplay(replay, playSpeed);
+                }
+            });
+    }
+}
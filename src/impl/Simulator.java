@@ -0,0 +1,250 @@
+//********************************************
+// Plays games with a bot from the command line, without a window
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import model.Board;
+import solver.Bot;
+
+/**
+ * Plays games with a bot from the command line, without a window. Games of
+ * each board size are handed out in chunks to a thread per core, each with
+ * its own bot and tallies, which are only added up once every game is played.
+ * 
+ * Usage: java impl.Simulator [-games N] [-threads N] [-bot class] [-seed N]
+ *                            [-bits] [beginner|intermediate|expert|WxH/M]...
+ */
+public class Simulator
+{
+    /**
+     * The number of games a thread takes at a time
+     */
+    private static final int CHUNK = 256;
+    
+    /**
+     * How often progress is printed, in milliseconds
+     */
+    private static final long PROGRESS_INTERVAL = 10000;
+    
+    private long numGames = 1000;
+    private int numThreads = Runtime.getRuntime().availableProcessors();
+    private String botClass = "solver.SolverBot";
+    private int representation = Board.ARRAY;
+    private SplittableRandom random = new SplittableRandom();
+    
+    /**
+     * Plays the board sizes given on the command line, or every difficulty if none
+     * 
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) throws Exception
+    {
+        Simulator simulator = new Simulator();
+        List<int[]> sizes = new ArrayList<int[]>();
+        List<String> names = new ArrayList<String>();
+        
+        for (int i=0; i<args.length; i++)
+        {
+            if ("-games".equals(args[i]))
+                simulator.numGames = Long.parseLong(args[++i]);
+            else if ("-threads".equals(args[i]))
+                simulator.numThreads = Integer.parseInt(args[++i]);
+            else if ("-bot".equals(args[i]))
+                simulator.botClass = args[++i];
+            else if ("-seed".equals(args[i]))
+                simulator.random = new SplittableRandom(Long.parseLong(args[++i]));
+            else if ("-bits".equals(args[i]))
+                simulator.representation = Board.BITS;
+            else
+            {
+                sizes.add(parseSize(args[i]));
+                names.add(args[i]);
+            }
+        }
+        
+        if (sizes.isEmpty())
+        {
+            for (String name : new String[] {"beginner", "intermediate", "expert"})
+            {
+                sizes.add(parseSize(name));
+                names.add(name);
+            }
+        }
+        
+        for (int i=0; i<sizes.size(); i++)
+        {
+            int[] size = sizes.get(i);
+            System.out.println(names.get(i) + " " + simulator.play(size[0], size[1], size[2]));
+        }
+    }
+    
+    /**
+     * Returns the width, height and number of mines of a difficulty, or of a
+     * custom size written as WxH/M
+     * 
+     * @param size the difficulty or size
+     * @return the width, height and number of mines
+     */
+    private static int[] parseSize(final String size)
+    {
+        if ("beginner".equals(size))
+            return new int[] {9, 9, 10};
+        else if ("intermediate".equals(size))
+            return new int[] {16, 16, 40};
+        else if ("expert".equals(size))
+            return new int[] {30, 16, 99};
+        
+        String[] parts = size.split("[x/]");
+        if (parts.length != 3)
+        {
+            throw new IllegalArgumentException("Unknown board size: " + size);
+        }
+        return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])};
+    }
+    
+    /**
+     * Plays every game of the given size across the threads
+     * 
+     * @param width the width of the boards
+     * @param height the height of the boards
+     * @param numMines the number of mines on the boards
+     * @return the results of the games
+     */
+    public Tally play(final int width, final int height, final int numMines) throws Exception
+    {
+        final AtomicLong nextGame = new AtomicLong();
+        final AtomicLong gamesDone = new AtomicLong();
+        final Tally[] tallies = new Tally[this.numThreads];
+        Thread[] threads = new Thread[this.numThreads];
+        
+        long start = System.nanoTime();
+        for (int t=0; t<this.numThreads; t++)
+        {
+            final Tally tally = new Tally();
+            final Bot bot = (Bot) Class.forName(this.botClass).getDeclaredConstructor().newInstance();
+            final Random random = new Random(this.random.split().nextLong());
+            tallies[t] = tally;
+            
+            threads[t] = new Thread("Simulator-" + t)
+                {
+                    @Override
+                    public void run()
+                    {
+                        long first;
+                        while ((first = nextGame.getAndAdd(CHUNK)) < numGames)
+                        {
+                            long last = Math.min(first + CHUNK, numGames);
+                            for (long game=first; game<last; game++)
+                            {
+                                playGame(Board.create(representation, width, height, numMines, random), bot, tally);
+                            }
+                            gamesDone.addAndGet(last - first);
+                        }
+                    }
+                };
+            threads[t].start();
+        }
+        
+        for (Thread thread : threads)
+        {
+            while (thread.isAlive())
+            {
+                thread.join(PROGRESS_INTERVAL);
+                if (thread.isAlive())
+                {
+                    System.err.println(width + "x" + height + "/" + numMines + ": "
+                                       + gamesDone.get() + " of " + this.numGames + " games");
+                }
+            }
+        }
+        
+        Tally total = new Tally();
+        for (Tally tally : tallies)
+        {
+            total.add(tally);
+        }
+        total.nanos = System.nanoTime() - start;
+        return total;
+    }
+    
+    /**
+     * Plays a single game with the given bot
+     * 
+     * @param board the board, before its mines are added
+     * @param bot the bot to play with
+     * @param tally the tally to add the result to
+     */
+    private static void playGame(final Board board, final Bot bot, final Tally tally)
+    {
+        bot.newGame(board);
+        int clicks = 0;
+        
+        while ( ! board.isWon() && ! board.isExploded())
+        {
+            int cell = bot.nextMove();
+            if (cell == -1)
+            {
+                break;
+            }
+            
+            int col = board.getCol(cell);
+            int row = board.getRow(cell);
+            if ( ! board.areMinesAdded())
+            {
+                board.addMines(col, row);
+            }
+            board.uncover(col, row);
+            clicks++;
+        }
+        
+        tally.games++;
+        tally.clicks += clicks;
+        tally.bv += board.get3BV();
+        if (board.isWon())
+        {
+            tally.wins++;
+        }
+    }
+    
+    /**
+     * The results of the games played on one board size
+     */
+    public static class Tally
+    {
+        long games;
+        long wins;
+        long clicks;
+        long bv;
+        long nanos;
+        
+        /**
+         * Adds the results of another tally to this one
+         * 
+         * @param other the other tally
+         */
+        void add(final Tally other)
+        {
+            this.games += other.games;
+            this.wins += other.wins;
+            this.clicks += other.clicks;
+            this.bv += other.bv;
+        }
+        
+        @Override
+        public String toString()
+        {
+            double games = Math.max(this.games, 1);
+            return String.format("%d games, %.2f%% won, %.0f games/s, 3BV %.1f, %.1f clicks",
+                this.games, 100.0*this.wins / games, this.games / (this.nanos / 1e9),
+                this.bv / games, this.clicks / games);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+//********************************************
+// A board storing one byte of value and one byte of state per cell
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package model;
+
+import java.util.Random;
+
+/**
+ * A board storing one byte of value and one byte of state per cell. The cells
+ * are stored in flat arrays with a border of sentinel cells around the grid,
+ * so the neighbours of any cell can be reached through a fixed table of
+ * offsets without bounds checks.
+ */
+public class ArrayBoard extends Board
+{
+    /**
+     * Bits used in the state of each cell
+     */
+    private static final byte UNCOVERED = 1;
+    private static final byte FLAGGED   = 2;
+    private static final byte BORDER    = 4;
+    
+    /**
+     * Width of a row in the padded arrays, including the border on each side
+     */
+    private int stride;
+    
+    /**
+     * Offsets from a padded index to each of its 8 neighbours
+     */
+    private int[] neighbours;
+    
+    /**
+     * The value of each padded cell (0-8, -1 is mine)
+     */
+    private byte[] values;
+    
+    /**
+     * The uncovered and flagged bits of each padded cell. Border cells are
+     * marked uncovered so they are never uncovered or flagged.
+     */
+    private byte[] states;
+    
+    /**
+     * Constructor, creates a new board with every cell covered
+     * 
+     * @param _width the width of the board
+     * @param _height the height of the board
+     * @param _numMines the number of mines on the board
+     */
+    public ArrayBoard(final int _width, final int _height, final int _numMines)
+    {
+        this(_width, _height, _numMines, new Random());
+    }
+    
+    /**
+     * Constructor, creates a new board with every cell covered, placing mines
+     * with the given random number generator
+     * 
+     * @param _width the width of the board
+     * @param _height the height of the board
+     * @param _numMines the number of mines on the board
+     * @param _random the random number generator used to place the mines
+     */
+    public ArrayBoard(final int _width, final int _height, final int _numMines, final Random _random)
+    {
+        super(_width, _height, _numMines, _random);
+        
+        this.stride = _width + 2;
+        this.neighbours = new int[] {
+            -this.stride-1, -this.stride, -this.stride+1,
+            -1,                           1,
+            this.stride-1,  this.stride,  this.stride+1
+        };
+        
+        this.values = new byte[this.stride*(_height + 2)];
+        this.states = new byte[this.stride*(_height + 2)];
+        
+        // Mark the border cells
+        for (int i=0; i<this.stride; i++)
+        {
+            this.states[i] = UNCOVERED | BORDER;
+            this.states[this.states.length - 1 - i] = UNCOVERED | BORDER;
+        }
+        for (int j=1; j<=_height; j++)
+        {
+            this.states[j*this.stride] = UNCOVERED | BORDER;
+            this.states[j*this.stride + this.stride - 1] = UNCOVERED | BORDER;
+        }
+    }
+    
+    /**
+     * Returns the index of the given position in the padded arrays
+     * 
+     * @param col the column of the cell
+     * @param row the row of the cell
+     * @return the padded index of the cell
+     */
+    private int pad(final int col, final int row)
+    {
+        return (row + 1)*this.stride + col + 1;
+    }
+    
+    /**
+     * Returns the cell at the given index in the padded arrays
+     * 
+     * @param padded the padded index of the cell
+     * @return the index of the cell
+     */
+    private int unpad(final int padded)
+    {
+        return (padded/this.stride - 1)*this.getWidth() + padded%this.stride - 1;
+    }
+    
+    @Override
+    public int getValue(final int col, final int row)
+    {
+        return this.values[this.pad(col, row)];
+    }
+    
+    @Override
+    public boolean isMine(final int col, final int row)
+    {
+        return this.values[this.pad(col, row)] == MINE;
+    }
+    
+    @Override
+    public boolean isUncovered(final int col, final int row)
+    {
+        return (this.states[this.pad(col, row)] & UNCOVERED) != 0;
+    }
+    
+    @Override
+    public boolean isFlagged(final int col, final int row)
+    {
+        return (this.states[this.pad(col, row)] & FLAGGED) != 0;
+    }
+    
+    /**
+     * Makes the given cell a mine, adding one to the value of each neighbour
+     * that isn't a mine itself. Values end up correct once all mines are
+     * added, without a separate pass over the board.
+     * 
+     * @param cell the index of the cell
+     */
+    @Override
+    protected void addMine(final int cell)
+    {
+        int padded = this.pad(this.getCol(cell), this.getRow(cell));
+        this.values[padded] = MINE;
+        
+        for (int k=0; k<8; k++)
+        {
+            int neighbour = padded + this.neighbours[k];
+            if (this.values[neighbour] != MINE)
+            {
+                this.values[neighbour]++;
+            }
+        }
+    }
+    
+    @Override
+    public void uncover(final int col, final int row)
+    {
+        this.numRevealed = 0;
+        this.uncoverFrom(this.pad(col, row));
+        this.unpadRevealed();
+    }
+    
+    /**
+     * Uncovers the given padded cell if it is covered and not flagged, followed
+     * by the whole opening around it if it has no neighbouring mines. Cells are
+     * marked uncovered as soon as they are queued so each cell is visited only
+     * once, and the border cells are never queued. The revealed cells hold
+     * padded indexes until unpadRevealed is called.
+     * 
+     * @param cell the padded index of the cell to uncover
+     */
+    private void uncoverFrom(final int cell)
+    {
+        if ((this.states[cell] & (UNCOVERED | FLAGGED)) != 0)
+        {
+            return;
+        }
+        
+        if (this.values[cell] == 0 && this.openings != null)
+        {
+            this.uncoverOpening(this.openings.getOpening(this.unpad(cell)));
+            return;
+        }
+        
+        int next = this.numRevealed;
+        this.uncoverCell(cell);
+        
+        while (next < this.numRevealed)
+        {
+            int current = this.revealed[next++];
+            if (this.values[current] != 0)
+            {
+                continue;
+            }
+            
+            // For each surrounding cell
+            for (int k=0; k<8; k++)
+            {
+                int neighbour = current + this.neighbours[k];
+                if ((this.states[neighbour] & UNCOVERED) == 0)
+                {
+                    this.uncoverCell(neighbour);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Uncovers a whole opening from the board's openings, without searching
+     * for it: each of its zero cells and every cell next to one. Zero cells
+     * are only ever uncovered along with their whole opening, so this
+     * uncovers the same cells a search from any of them would.
+     * 
+     * @param opening the opening
+     */
+    private void uncoverOpening(final int opening)
+    {
+        int[] cells = this.openings.cells;
+        int width = this.getWidth();
+        int start = this.openings.starts[opening];
+        
+        // The cells are in row order, so follow the row instead of dividing
+        int row = cells[start] / width;
+        int rowStart = row*width;
+        for (int i=start; i<this.openings.starts[opening + 1]; i++)
+        {
+            while (cells[i] >= rowStart + width)
+            {
+                row++;
+                rowStart += width;
+            }
+            int cell = this.pad(cells[i] - rowStart, row);
+            if ((this.states[cell] & UNCOVERED) == 0)
+            {
+                this.uncoverCell(cell);
+            }
+            
+            // For each surrounding cell
+            for (int k=0; k<8; k++)
+            {
+                int neighbour = cell + this.neighbours[k];
+                if ((this.states[neighbour] & UNCOVERED) == 0)
+                {
+                    this.uncoverCell(neighbour);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Marks a single padded cell as uncovered, removing any flag it had, and
+     * adds it to the revealed cells
+     * 
+     * @param cell the padded index of the cell
+     */
+    private void uncoverCell(final int cell)
+    {
+        if ((this.states[cell] & FLAGGED) != 0)
+        {
+            this.numFlags--;
+        }
+        this.states[cell] = UNCOVERED;
+        
+        if (this.values[cell] != MINE)
+        {
+            this.numCoveredSafe--;
+        }
+        
+        this.addRevealed(cell);
+        
+        // BOOOOOOM!!!!
+        if (this.values[cell] == MINE && this.explodedCell == -1)
+        {
+            this.explodedCell = this.unpad(cell);
+        }
+    }
+    
+    /**
+     * Converts the revealed cells from padded indexes to cell indexes
+     */
+    private void unpadRevealed()
+    {
+        for (int i=0; i<this.numRevealed; i++)
+        {
+            this.revealed[i] = this.unpad(this.revealed[i]);
+        }
+    }
+    
+    @Override
+    public void uncoverAdjacent(final int col, final int row)
+    {
+        this.numRevealed = 0;
+        
+        int cell = this.pad(col, row);
+        if ((this.states[cell] & UNCOVERED) != 0
+            && this.values[cell] == this.numAdjacentFlags(col, row))
+        {
+            // For each surrounding cell
+            for (int k=0; k<8; k++)
+            {
+                this.uncoverFrom(cell + this.neighbours[k]);
+            }
+        }
+        
+        this.unpadRevealed();
+    }
+    
+    @Override
+    public int numAdjacentFlags(final int col, final int row)
+    {
+        int cell = this.pad(col, row);
+        int neighbourFlags = 0;
+        
+        // For each surrounding cell
+        for (int k=0; k<8; k++)
+        {
+            if ((this.states[cell + this.neighbours[k]] & FLAGGED) != 0)
+            {
+                neighbourFlags++;
+            }
+        }
+        
+        return neighbourFlags;
+    }
+    
+    @Override
+    public void toggleFlagged(final int col, final int row)
+    {
+        int cell = this.pad(col, row);
+        
+        if ((this.states[cell] & UNCOVERED) != 0)
+        {
+            return;
+        }
+        
+        if ((this.states[cell] & FLAGGED) == 0)
+        {
+            this.states[cell] |= FLAGGED;
+            this.numFlags++;
+        }
+        else
+        {
+            this.states[cell] &= ~FLAGGED;
+            this.numFlags--;
+        }
+    }
+    
+    @Override
+    public boolean areAllMinesFlagged()
+    {
+        if (this.numFlags != this.numMines)
+        {
+            return false;
+        }
+        
+        // Border cells are never flagged and never mines
+        for (int i=0; i<this.values.length; i++)
+        {
+            if ((this.values[i] == MINE) != ((this.states[i] & FLAGGED) != 0))
+                return false;
+        }
+        
+        return true;
+    }
+}
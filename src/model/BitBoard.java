@@ -0,0 +1,510 @@
+//********************************************
+// A board storing each row as packed bitmaps
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package model;
+
+import java.util.Random;
+
+/**
+ * A board storing each row as packed bitmaps of 64 cells per word, with bit
+ * i of word w holding column 64*w+i. The neighbour counts are kept as four
+ * bit planes and computed 64 cells at a time with carry-save adders, and
+ * openings are uncovered a row of words at a time.
+ */
+public class BitBoard extends Board
+{
+    /**
+     * Number of words in each row
+     */
+    private int wordsPerRow;
+    
+    /**
+     * Mask of the columns in use in the last word of each row
+     */
+    private long lastMask;
+    
+    /**
+     * The mine, uncovered and flagged bitmaps
+     */
+    private long[] mines;
+    private long[] uncovered;
+    private long[] flagged;
+    
+    /**
+     * The bit planes of the neighbour counts, count0 holding the lowest bit
+     */
+    private long[] count0;
+    private long[] count1;
+    private long[] count2;
+    private long[] count3;
+    
+    /**
+     * Rows waiting to have their openings spread, as a circular queue
+     */
+    private int[] rowQueue;
+    private boolean[] rowQueued;
+    private int queueTail;
+    private int queueSize;
+    
+    /**
+     * Scratch words for one row while spreading openings
+     */
+    private long[] runs;
+    
+    /**
+     * Constructor, creates a new board with every cell covered
+     * 
+     * @param _width the width of the board
+     * @param _height the height of the board
+     * @param _numMines the number of mines on the board
+     */
+    public BitBoard(final int _width, final int _height, final int _numMines)
+    {
+        this(_width, _height, _numMines, new Random());
+    }
+    
+    /**
+     * Constructor, creates a new board with every cell covered, placing mines
+     * with the given random number generator
+     * 
+     * @param _width the width of the board
+     * @param _height the height of the board
+     * @param _numMines the number of mines on the board
+     * @param _random the random number generator used to place the mines
+     */
+    public BitBoard(final int _width, final int _height, final int _numMines, final Random _random)
+    {
+        super(_width, _height, _numMines, _random);
+        
+        this.wordsPerRow = (_width + 63) >>> 6;
+        this.lastMask = (_width & 63) == 0 ? -1L : (1L << (_width & 63)) - 1;
+        
+        int numWords = this.wordsPerRow*_height;
+        this.mines = new long[numWords];
+        this.uncovered = new long[numWords];
+        this.flagged = new long[numWords];
+        this.count0 = new long[numWords];
+        this.count1 = new long[numWords];
+        this.count2 = new long[numWords];
+        this.count3 = new long[numWords];
+        
+        this.rowQueue = new int[_height];
+        this.rowQueued = new boolean[_height];
+        this.runs = new long[this.wordsPerRow];
+    }
+    
+    /**
+     * Returns the index of the word holding the given position
+     * 
+     * @param col the column of the cell
+     * @param row the row of the cell
+     * @return the index of the word
+     */
+    private int wordOf(final int col, final int row)
+    {
+        return row*this.wordsPerRow + (col >>> 6);
+    }
+    
+    @Override
+    public int getValue(final int col, final int row)
+    {
+        int i = this.wordOf(col, row);
+        int bit = col & 63;
+        
+        if (((this.mines[i] >>> bit) & 1) != 0)
+        {
+            return MINE;
+        }
+        
+        return (int) (((this.count0[i] >>> bit) & 1)
+                   | (((this.count1[i] >>> bit) & 1) << 1)
+                   | (((this.count2[i] >>> bit) & 1) << 2)
+                   | (((this.count3[i] >>> bit) & 1) << 3));
+    }
+    
+    @Override
+    public boolean isMine(final int col, final int row)
+    {
+        return ((this.mines[this.wordOf(col, row)] >>> (col & 63)) & 1) != 0;
+    }
+    
+    @Override
+    public boolean isUncovered(final int col, final int row)
+    {
+        return ((this.uncovered[this.wordOf(col, row)] >>> (col & 63)) & 1) != 0;
+    }
+    
+    @Override
+    public boolean isFlagged(final int col, final int row)
+    {
+        return ((this.flagged[this.wordOf(col, row)] >>> (col & 63)) & 1) != 0;
+    }
+    
+    @Override
+    protected void addMine(final int cell)
+    {
+        int col = this.getCol(cell);
+        this.mines[this.wordOf(col, this.getRow(cell))] |= 1L << (col & 63);
+    }
+    
+    /**
+     * Computes the neighbour counts of every row once the mines are added
+     */
+    @Override
+    protected void minesPlaced()
+    {
+        for (int row=0; row<this.getHeight(); row++)
+        {
+            this.countRow(row);
+        }
+    }
+    
+    /**
+     * Returns a word of the given bitmap, or 0 if it is outside the board
+     * 
+     * @param bits the bitmap
+     * @param row the row of the word
+     * @param w the position of the word in the row
+     * @return the word, or 0 if outside the board
+     */
+    private long word(final long[] bits, final int row, final int w)
+    {
+        if (row < 0 || row >= this.getHeight() || w < 0 || w >= this.wordsPerRow)
+        {
+            return 0;
+        }
+        return bits[row*this.wordsPerRow + w];
+    }
+    
+    /**
+     * Returns a word of the given bitmap shifted so each cell holds the bit of
+     * its left hand neighbour
+     * 
+     * @param bits the bitmap
+     * @param row the row of the word
+     * @param w the position of the word in the row
+     * @return the shifted word
+     */
+    private long fromLeft(final long[] bits, final int row, final int w)
+    {
+        return (this.word(bits, row, w) << 1) | (this.word(bits, row, w - 1) >>> 63);
+    }
+    
+    /**
+     * Returns a word of the given bitmap shifted so each cell holds the bit of
+     * its right hand neighbour
+     * 
+     * @param bits the bitmap
+     * @param row the row of the word
+     * @param w the position of the word in the row
+     * @return the shifted word
+     */
+    private long fromRight(final long[] bits, final int row, final int w)
+    {
+        return (this.word(bits, row, w) >>> 1) | (this.word(bits, row, w + 1) << 63);
+    }
+    
+    /**
+     * Computes the neighbour counts of one row, adding up the 8 neighbour
+     * bitmaps of each word with a tree of carry-save adders
+     * 
+     * @param row the row to count
+     */
+    private void countRow(final int row)
+    {
+        for (int w=0; w<this.wordsPerRow; w++)
+        {
+            long n0 = this.fromLeft(this.mines, row - 1, w);
+            long n1 = this.word(this.mines, row - 1, w);
+            long n2 = this.fromRight(this.mines, row - 1, w);
+            long n3 = this.fromLeft(this.mines, row, w);
+            long n4 = this.fromRight(this.mines, row, w);
+            long n5 = this.fromLeft(this.mines, row + 1, w);
+            long n6 = this.word(this.mines, row + 1, w);
+            long n7 = this.fromRight(this.mines, row + 1, w);
+            
+            // Ones: n0+n1+n2 and n3+n4+n5, then those sums with n6 and n7
+            long sumA = n0 ^ n1 ^ n2;
+            long carryA = (n0 & n1) | (n2 & (n0 ^ n1));
+            long sumB = n3 ^ n4 ^ n5;
+            long carryB = (n3 & n4) | (n5 & (n3 ^ n4));
+            long sumC = sumA ^ sumB ^ n6;
+            long carryC = (sumA & sumB) | (n6 & (sumA ^ sumB));
+            long ones = sumC ^ n7;
+            long carryD = sumC & n7;
+            
+            // Twos: the four carries out of the ones
+            long sumE = carryA ^ carryB ^ carryC;
+            long carryE = (carryA & carryB) | (carryC & (carryA ^ carryB));
+            long twos = sumE ^ carryD;
+            long carryF = sumE & carryD;
+            
+            // Fours and eights: the two carries out of the twos
+            long fours = carryE ^ carryF;
+            long eights = carryE & carryF;
+            
+            long mask = (w == this.wordsPerRow - 1) ? this.lastMask : -1L;
+            int i = row*this.wordsPerRow + w;
+            this.count0[i] = ones & mask;
+            this.count1[i] = twos & mask;
+            this.count2[i] = fours & mask;
+            this.count3[i] = eights & mask;
+        }
+    }
+    
+    /**
+     * Returns the cells of a word that have no neighbouring mines and aren't
+     * mines themselves
+     * 
+     * @param i the index of the word
+     * @return the bits of the word that are empty cells
+     */
+    private long zeros(final int i)
+    {
+        long mask = ((i + 1) % this.wordsPerRow == 0) ? this.lastMask : -1L;
+        return ~(this.mines[i] | this.count0[i] | this.count1[i] | this.count2[i] | this.count3[i]) & mask;
+    }
+    
+    @Override
+    public void uncover(final int col, final int row)
+    {
+        this.numRevealed = 0;
+        this.uncoverFrom(col, row);
+    }
+    
+    /**
+     * Uncovers the given cell if it is covered and not flagged, followed by the
+     * whole opening around it if it has no neighbouring mines
+     * 
+     * @param col the column of the cell to uncover
+     * @param row the row of the cell to uncover
+     */
+    private void uncoverFrom(final int col, final int row)
+    {
+        int i = this.wordOf(col, row);
+        long bit = 1L << (col & 63);
+        
+        if (((this.uncovered[i] | this.flagged[i]) & bit) != 0)
+        {
+            return;
+        }
+        
+        if (this.uncoverBits(row, col >>> 6, bit))
+        {
+            this.queueRow(row);
+            this.spreadOpenings();
+        }
+    }
+    
+    /**
+     * Uncovers the given cells of a word, removing any flags they had and
+     * adding them to the revealed cells
+     * 
+     * @param row the row of the word
+     * @param w the position of the word in the row
+     * @param bits the cells to uncover, cells already uncovered are ignored
+     * @return true if an empty cell was uncovered, false otherwise
+     */
+    private boolean uncoverBits(final int row, final int w, final long bits)
+    {
+        int i = row*this.wordsPerRow + w;
+        long fresh = bits & ~this.uncovered[i];
+        
+        if (fresh == 0)
+        {
+            return false;
+        }
+        
+        this.numFlags -= Long.bitCount(fresh & this.flagged[i]);
+        this.flagged[i] &= ~fresh;
+        this.uncovered[i] |= fresh;
+        this.numCoveredSafe -= Long.bitCount(fresh & ~this.mines[i]);
+        
+        // BOOOOOOM!!!!
+        if ((fresh & this.mines[i]) != 0 && this.explodedCell == -1)
+        {
+            this.explodedCell = this.getCell((w << 6) + Long.numberOfTrailingZeros(fresh & this.mines[i]), row);
+        }
+        
+        // Add each uncovered cell to the revealed cells
+        int first = this.getCell(w << 6, row);
+        for (long rest=fresh; rest!=0; rest&=rest-1)
+        {
+            this.addRevealed(first + Long.numberOfTrailingZeros(rest));
+        }
+        
+        return (fresh & this.zeros(i)) != 0;
+    }
+    
+    /**
+     * Adds a row to the queue of rows whose openings need spreading
+     * 
+     * @param row the row to add
+     */
+    private void queueRow(final int row)
+    {
+        if (this.rowQueued[row])
+        {
+            return;
+        }
+        this.rowQueued[row] = true;
+        this.rowQueue[this.queueTail] = row;
+        this.queueTail = (this.queueTail + 1) % this.rowQueue.length;
+        this.queueSize++;
+    }
+    
+    /**
+     * Spreads the openings of every queued row until no more empty cells are
+     * uncovered. In each row the runs of empty cells touching an uncovered
+     * empty cell are found with carry propagation, then those runs and their
+     * neighbours are uncovered in this row and the rows above and below.
+     */
+    private void spreadOpenings()
+    {
+        while (this.queueSize > 0)
+        {
+            int row = this.rowQueue[(this.queueTail - this.queueSize + this.rowQueue.length) % this.rowQueue.length];
+            this.queueSize--;
+            this.rowQueued[row] = false;
+            
+            this.findRuns(row);
+            
+            for (int w=0; w<this.wordsPerRow; w++)
+            {
+                long spread = this.runs[w]
+                    | (this.runs[w] << 1) | (w > 0 ? this.runs[w - 1] >>> 63 : 0)
+                    | (this.runs[w] >>> 1) | (w < this.wordsPerRow - 1 ? this.runs[w + 1] << 63 : 0);
+                if (w == this.wordsPerRow - 1)
+                {
+                    spread &= this.lastMask;
+                }
+                
+                this.uncoverBits(row, w, spread); //the runs are already spread along this row
+                if (row > 0 && this.uncoverBits(row - 1, w, spread))
+                {
+                    this.queueRow(row - 1);
+                }
+                if (row < this.getHeight() - 1 && this.uncoverBits(row + 1, w, spread))
+                {
+                    this.queueRow(row + 1);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Finds the runs of empty cells in a row that contain an uncovered empty
+     * cell, storing them in runs. Adding the seeds to the run bits carries
+     * through each run towards the higher columns, and the same on the
+     * reversed bits covers the lower columns.
+     * 
+     * @param row the row to search
+     */
+    private void findRuns(final int row)
+    {
+        int base = row*this.wordsPerRow;
+        
+        // Towards the higher columns
+        long carry = 0;
+        for (int w=0; w<this.wordsPerRow; w++)
+        {
+            long empty = this.zeros(base + w);
+            long seeds = ((this.uncovered[base + w] & empty) | carry) & empty;
+            long up = (((empty + seeds) ^ empty) | seeds) & empty;
+            this.runs[w] = up;
+            carry = up >>> 63;
+        }
+        
+        // Towards the lower columns
+        carry = 0;
+        for (int w=this.wordsPerRow-1; w>=0; w--)
+        {
+            long empty = Long.reverse(this.zeros(base + w));
+            long seeds = ((Long.reverse(this.uncovered[base + w]) & empty) | carry) & empty;
+            long down = (((empty + seeds) ^ empty) | seeds) & empty;
+            this.runs[w] |= Long.reverse(down);
+            carry = down >>> 63;
+        }
+    }
+    
+    @Override
+    public void uncoverAdjacent(final int col, final int row)
+    {
+        this.numRevealed = 0;
+        
+        if (this.isUncovered(col, row)
+            && this.getValue(col, row) == this.numAdjacentFlags(col, row))
+        {
+            // For each surrounding cell
+            for (int i=col-1; i<=col+1; i++) {
+            for (int j=row-1; j<=row+1; j++)
+            {
+                if ( ! (i<0 || j<0 || i>=this.getWidth() || j>=this.getHeight())) //neighbour cell not out of board
+                {
+                    this.uncoverFrom(i, j);
+                }
+            }
+            }
+        }
+    }
+    
+    @Override
+    public int numAdjacentFlags(final int col, final int row)
+    {
+        int neighbourFlags = 0;
+        
+        // For each surrounding row, count the flags in the 3 columns
+        for (int j=row-1; j<=row+1; j++)
+        {
+            if (j >= 0 && j < this.getHeight())
+            {
+                for (int i=col-1; i<=col+1; i++)
+                {
+                    if (i >= 0 && i < this.getWidth() && ! (i==col && j==row) && this.isFlagged(i, j))
+                    {
+                        neighbourFlags++;
+                    }
+                }
+            }
+        }
+        
+        return neighbourFlags;
+    }
+    
+    @Override
+    public void toggleFlagged(final int col, final int row)
+    {
+        int i = this.wordOf(col, row);
+        long bit = 1L << (col & 63);
+        
+        if ((this.uncovered[i] & bit) != 0)
+        {
+            return;
+        }
+        
+        if ((this.flagged[i] & bit) == 0)
+        {
+            this.numFlags++;
+        }
+        else
+        {
+            this.numFlags--;
+        }
+        this.flagged[i] ^= bit;
+    }
+    
+    @Override
+    public boolean areAllMinesFlagged()
+    {
+        for (int i=0; i<this.mines.length; i++)
+        {
+            if (this.mines[i] != this.flagged[i])
+                return false;
+        }
+        
+        return true;
+    }
+}
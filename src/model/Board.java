@@ -0,0 +1,456 @@
+//********************************************
+// The state of a Minesweeper grid, independent of any display
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package model;
+
+import java.util.Random;
+
+/**
+ * The state of a Minesweeper grid, independent of any display. Cells are
+ * identified by row*width+col, so a board can be created and played without
+ * any Swing components. Subclasses choose how the cells are stored.
+ */
+public abstract class Board
+{
+    /**
+     * Value of a cell containing a mine
+     */
+    public static final byte MINE = -1;
+    
+    /**
+     * Board representations, see create
+     */
+    public static final int ARRAY = 0;
+    public static final int BITS = 1;
+    
+    private int width;
+    /**
+     * Returns the width of this board
+     * 
+     * @return the width of this board
+     */
+    public int getWidth() {return this.width;}
+    
+    private int height;
+    /**
+     * Returns the height of this board
+     * 
+     * @return the height of this board
+     */
+    public int getHeight() {return this.height;}
+    
+    protected int numMines;
+    /**
+     * Returns the number of mines on this board
+     * 
+     * @return the number of mines on this board
+     */
+    public int getNumMines() {return this.numMines;}
+    
+    protected int numFlags;
+    /**
+     * Returns the number of flagged cells on this board
+     * 
+     * @return the number of flagged cells on this board
+     */
+    public int getNumFlags() {return this.numFlags;}
+    
+    protected boolean minesAdded;
+    /**
+     * Returns true if the mines have been added to this board, false otherwise
+     * 
+     * @return true if the mines have been added to this board, false otherwise
+     */
+    public boolean areMinesAdded() {return this.minesAdded;}
+    
+    protected int numCoveredSafe;
+    /**
+     * Returns the number of cells without a mine that are still covered
+     * 
+     * @return the number of cells without a mine that are still covered
+     */
+    public int getNumCoveredSafe() {return this.numCoveredSafe;}
+    
+    protected int explodedCell = -1;
+    /**
+     * Returns the cell of the mine that was uncovered, -1 if no mine was uncovered
+     * 
+     * @return the cell of the mine that was uncovered, -1 if no mine was uncovered
+     */
+    public int getExplodedCell() {return this.explodedCell;}
+    
+    /**
+     * The cells uncovered by the last uncover or uncoverAdjacent, which
+     * subclasses may also use as a work queue while uncovering openings
+     */
+    protected int[] revealed = new int[64];
+    
+    protected int numRevealed;
+    /**
+     * Returns the number of cells uncovered by the last uncover or uncoverAdjacent
+     * 
+     * @return the number of cells uncovered by the last uncover or uncoverAdjacent
+     */
+    public int getNumRevealed() {return this.numRevealed;}
+    
+    /**
+     * The openings of this board, found as soon as the mines are placed
+     */
+    protected Openings openings;
+    
+    /**
+     * The random number generator used to place the mines
+     */
+    protected Random random;
+    
+    /**
+     * Creates a new board with every cell covered, using the given representation
+     * 
+     * @param representation the representation of the board, ARRAY or BITS
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param numMines the number of mines on the board
+     * @param random the random number generator used to place the mines
+     * @return the new board
+     */
+    public static Board create(final int representation, final int width, final int height,
+                               final int numMines, final Random random)
+    {
+        if (representation == BITS)
+        {
+            return new BitBoard(width, height, numMines, random);
+        }
+        else
+        {
+            return new ArrayBoard(width, height, numMines, random);
+        }
+    }
+    
+    /**
+     * Constructor, sets up the state shared by every representation
+     * 
+     * @param _width the width of the board
+     * @param _height the height of the board
+     * @param _numMines the number of mines on the board
+     * @param _random the random number generator used to place the mines
+     */
+    protected Board(final int _width, final int _height, final int _numMines, final Random _random)
+    {
+        this.width = _width;
+        this.height = _height;
+        this.numMines = _numMines;
+        this.random = _random;
+    }
+    
+    /**
+     * Returns the index of the cell at the given position
+     * 
+     * @param col the column of the cell
+     * @param row the row of the cell
+     * @return the index of the cell
+     */
+    public int getCell(final int col, final int row)
+    {
+        return row*this.width + col;
+    }
+    
+    /**
+     * Returns the column of the given cell
+     * 
+     * @param cell the index of the cell
+     * @return the column of the cell
+     */
+    public int getCol(final int cell)
+    {
+        return cell % this.width;
+    }
+    
+    /**
+     * Returns the row of the given cell
+     * 
+     * @param cell the index of the cell
+     * @return the row of the cell
+     */
+    public int getRow(final int cell)
+    {
+        return cell / this.width;
+    }
+    
+    /**
+     * Returns the value of the cell at the given position
+     * 
+     * @param col the column of the cell
+     * @param row the row of the cell
+     * @return the value of the cell, from -1 (mine) to 8
+     */
+    public abstract int getValue(final int col, final int row);
+    
+    /**
+     * Returns true if the cell at the given position is a mine
+     * 
+     * @param col the column of the cell
+     * @param row the row of the cell
+     * @return true if the cell is a mine, false otherwise
+     */
+    public abstract boolean isMine(final int col, final int row);
+    
+    /**
+     * Returns true if the cell at the given position has been uncovered
+     * 
+     * @param col the column of the cell
+     * @param row the row of the cell
+     * @return true if the cell has been uncovered, false otherwise
+     */
+    public abstract boolean isUncovered(final int col, final int row);
+    
+    /**
+     * Returns true if the cell at the given position is flagged
+     * 
+     * @param col the column of the cell
+     * @param row the row of the cell
+     * @return true if the cell is flagged, false otherwise
+     */
+    public abstract boolean isFlagged(final int col, final int row);
+    
+    /**
+     * Returns true if a mine has been uncovered on this board
+     * 
+     * @return true if a mine has been uncovered, false otherwise
+     */
+    public boolean isExploded()
+    {
+        return this.explodedCell != -1;
+    }
+    
+    /**
+     * Adds all mines to this board
+     * 
+     * @param col the column of the very first cell uncovered
+     * @param row the row of the very first cell uncovered
+     */
+    public void addMines(final int col, final int row)
+    {
+        this.addMines(new int[] {this.getCell(col, row)});
+    }
+    
+    /**
+     * Adds all mines to this board, leaving the given cells free of mines.
+     * Mines are chosen with Floyd's sampling algorithm over the cells that are
+     * not excluded, so every layout is equally likely and placement takes one
+     * random number per mine however dense the board is.
+     * 
+     * @param excluded the cells that must not contain a mine, in ascending order
+     */
+    public void addMines(final int[] excluded)
+    {
+        this.minesAdded = true;
+        
+        // If more mines than available cells, fill every available cell
+        int numAvailable = this.width*this.height - excluded.length;
+        if (this.numMines > numAvailable)
+        {
+            this.numMines = numAvailable;
+        }
+        
+        for (int j=numAvailable-this.numMines; j<numAvailable; j++)
+        {
+            int cell = this.getAvailableCell(this.random.nextInt(j + 1), excluded);
+            
+            // If already chosen, the j-th cell can't have been, so take it instead
+            if (this.isMine(this.getCol(cell), this.getRow(cell)))
+            {
+                cell = this.getAvailableCell(j, excluded);
+            }
+            
+            this.addMine(cell);
+        }
+        
+        this.minesPlaced();
+        this.numCoveredSafe = this.width*this.height - this.numMines;
+        this.openings = new Openings(this);
+    }
+    
+    /**
+     * Adds the given mines to this board, in place of a random layout. The
+     * board must not have had mines added yet.
+     * 
+     * @param mines the cells that contain a mine
+     */
+    public void setMines(final int[] mines)
+    {
+        this.minesAdded = true;
+        this.numMines = mines.length;
+        
+        for (int i=0; i<mines.length; i++)
+        {
+            this.addMine(mines[i]);
+        }
+        
+        this.minesPlaced();
+        this.numCoveredSafe = this.width*this.height - this.numMines;
+        this.openings = new Openings(this);
+    }
+    
+    /**
+     * Returns the openings of this board, finding them first if the mines
+     * haven't been added yet
+     * 
+     * @return the openings of this board
+     */
+    public Openings getOpenings()
+    {
+        if (this.openings == null)
+        {
+            return new Openings(this);
+        }
+        return this.openings;
+    }
+    
+    /**
+     * Returns the cells that contain a mine, in ascending order
+     * 
+     * @return the cells that contain a mine
+     */
+    public int[] getMineCells()
+    {
+        int[] mines = new int[this.numMines];
+        int found = 0;
+        
+        for (int cell=0; cell<this.width*this.height && found<mines.length; cell++)
+        {
+            if (this.isMine(this.getCol(cell), this.getRow(cell)))
+            {
+                mines[found++] = cell;
+            }
+        }
+        
+        return mines;
+    }
+    
+    /**
+     * Returns the 3BV of this board, the fewest clicks that uncover every safe
+     * cell without flagging: one for each opening, which also uncovers the
+     * numbers around it, and one for every number not next to an opening
+     * 
+     * @return the 3BV of this board
+     */
+    public int get3BV()
+    {
+        return this.getOpenings().get3BV();
+    }
+    
+    /**
+     * Returns the n-th cell that is not excluded
+     * 
+     * @param n the position of the cell among the cells that are not excluded
+     * @param excluded the excluded cells, in ascending order
+     * @return the index of the cell
+     */
+    private int getAvailableCell(final int n, final int[] excluded)
+    {
+        int cell = n;
+        
+        for (int i=0; i<excluded.length && excluded[i]<=cell; i++)
+        {
+            cell++;
+        }
+        
+        return cell;
+    }
+    
+    /**
+     * Makes the given cell a mine while the mines are being added
+     * 
+     * @param cell the index of the cell
+     */
+    protected abstract void addMine(final int cell);
+    
+    /**
+     * Runs once every mine has been added, so the neighbour counts can be
+     * completed if the representation doesn't keep them up to date
+     */
+    protected void minesPlaced() {}
+    
+    /**
+     * Returns the cells uncovered by the last uncover or uncoverAdjacent. Only
+     * the first getNumRevealed() entries are valid, and the array is reused by
+     * the next call.
+     * 
+     * @return the cells uncovered by the last uncover or uncoverAdjacent
+     */
+    public int[] getRevealedCells()
+    {
+        return this.revealed;
+    }
+    
+    /**
+     * Adds a cell to the revealed cells, growing the array if needed
+     * 
+     * @param cell the cell to add
+     */
+    protected void addRevealed(final int cell)
+    {
+        if (this.numRevealed == this.revealed.length)
+        {
+            int[] larger = new int[Math.min(this.revealed.length*2, this.width*this.height)];
+            System.arraycopy(this.revealed, 0, larger, 0, this.numRevealed);
+            this.revealed = larger;
+        }
+        this.revealed[this.numRevealed++] = cell;
+    }
+    
+    /**
+     * Uncovers the given cell. If the cell has no neighbouring mines, all
+     * adjacent cells are uncovered as well.
+     * 
+     * @param col the column of the cell to uncover
+     * @param row the row of the cell to uncover
+     */
+    public abstract void uncover(final int col, final int row);
+    
+    /**
+     * Uncovers the adjacent cells to the given cell, if the cell is uncovered
+     * and has as many adjacent flags as neighbouring mines
+     * 
+     * @param col the column of the given cell
+     * @param row the row of the given cell
+     */
+    public abstract void uncoverAdjacent(final int col, final int row);
+    
+    /**
+     * Calculates and returns the number of adjacent flags to a given cell
+     * 
+     * @param col the column of the given cell
+     * @param row the row of the given cell
+     * @return the number of adjacent flags
+     */
+    public abstract int numAdjacentFlags(final int col, final int row);
+    
+    /**
+     * Removes the flag if a covered cell is flagged and vice versa
+     * 
+     * @param col the column of the cell
+     * @param row the row of the cell
+     */
+    public abstract void toggleFlagged(final int col, final int row);
+    
+    /**
+     * Returns true if every mine is flagged and no other cell is
+     * 
+     * @return true if exactly the mines are flagged, false otherwise
+     */
+    public abstract boolean areAllMinesFlagged();
+    
+    /**
+     * Checks if this board, in its current state, has been won
+     * 
+     * @return true if all non-mine cells have been uncovered, false otherwise
+     */
+    public boolean isWon()
+    {
+        return this.minesAdded && this.numCoveredSafe == 0 && ! this.isExploded();
+    }
+}
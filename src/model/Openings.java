@@ -0,0 +1,263 @@
+//********************************************
+// The openings of a board and its 3BV, found once the mines are placed
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The openings of a board and its 3BV, found once the mines are placed. An
+ * opening is a connected region of cells with no neighbouring mines, which
+ * uncovering any one of them uncovers along with the numbers around it.
+ * 
+ * The openings are found in a single pass over the rows with a union-find
+ * of the labels given to the zero cells, so the work is linear in the
+ * number of cells. The zero cells of each opening are then stored together,
+ * so an opening can be uncovered without searching for its cells.
+ */
+public class Openings
+{
+    private int width;
+    private int height;
+    
+    private int numOpenings;
+    /**
+     * Returns the number of openings on the board
+     * 
+     * @return the number of openings on the board
+     */
+    public int getNumOpenings() {return this.numOpenings;}
+    
+    private int bv;
+    /**
+     * Returns the 3BV of the board, the fewest clicks that uncover every safe
+     * cell without flagging: one for each opening, which also uncovers the
+     * numbers around it, and one for every number not next to an opening
+     * 
+     * @return the 3BV of the board
+     */
+    public int get3BV() {return this.bv;}
+    
+    /**
+     * The opening each cell belongs to, -1 for cells that aren't zeros
+     */
+    private int[] openingOf;
+    
+    /**
+     * The zero cells of every opening, grouped by opening in row order, and
+     * where each opening's cells begin, with the end of the last opening after it
+     */
+    int[] cells;
+    int[] starts;
+    
+    /**
+     * Constructor, finds the openings of a board
+     * 
+     * @param board the board, with its mines added
+     */
+    public Openings(final Board board)
+    {
+        this.width = board.getWidth();
+        this.height = board.getHeight();
+        this.openingOf = new int[this.width*this.height];
+        
+        // The values of the row above, the row being labelled and the row below,
+        // with rows outside the board read as mines
+        byte[] above = new byte[this.width];
+        byte[] current = new byte[this.width];
+        byte[] below = new byte[this.width];
+        Arrays.fill(current, Board.MINE);
+        this.readRow(board, 0, below);
+        
+        // Label the zero cells, joining the labels of zero cells next to each other
+        int[] parents = new int[64];
+        int numLabels = 0;
+        for (int row=0; row<this.height; row++)
+        {
+            byte[] spare = above;
+            above = current;
+            current = below;
+            below = spare;
+            this.readRow(board, row + 1, below);
+            
+            int rowStart = row*this.width;
+            for (int col=0; col<this.width; col++)
+            {
+                if (current[col] != 0)
+                {
+                    this.openingOf[rowStart + col] = -1;
+                    
+                    // A number not next to any zero takes a click of its own
+                    if (current[col] != Board.MINE && ! this.nextToZero(above, current, below, col))
+                    {
+                        this.bv++;
+                    }
+                    continue;
+                }
+                
+                // Join the labels of the zero cells already labelled around this one
+                int label = -1;
+                if (col > 0 && current[col - 1] == 0)
+                {
+                    label = this.openingOf[rowStart + col - 1];
+                }
+                for (int c=Math.max(col - 1, 0); c<=Math.min(col + 1, this.width - 1); c++)
+                {
+                    if (above[c] == 0)
+                    {
+                        int other = this.openingOf[rowStart - this.width + c];
+                        label = (label == -1) ? other : union(parents, label, other);
+                    }
+                }
+                
+                if (label == -1)
+                {
+                    if (numLabels == parents.length)
+                    {
+                        parents = Arrays.copyOf(parents, numLabels*2);
+                    }
+                    parents[numLabels] = numLabels;
+                    label = numLabels++;
+                }
+                this.openingOf[rowStart + col] = label;
+            }
+        }
+        
+        // Number the openings and count the zero cells of each
+        int[] openingOfLabel = new int[numLabels];
+        Arrays.fill(openingOfLabel, -1);
+        int[] sizes = new int[numLabels + 1];
+        for (int cell=0; cell<this.openingOf.length; cell++)
+        {
+            int label = this.openingOf[cell];
+            if (label != -1)
+            {
+                int root = find(parents, label);
+                if (openingOfLabel[root] == -1)
+                {
+                    openingOfLabel[root] = this.numOpenings++;
+                }
+                this.openingOf[cell] = openingOfLabel[root];
+                sizes[this.openingOf[cell]]++;
+            }
+        }
+        this.bv += this.numOpenings;
+        
+        // Store the zero cells of each opening together
+        this.starts = new int[this.numOpenings + 1];
+        for (int opening=0; opening<this.numOpenings; opening++)
+        {
+            this.starts[opening + 1] = this.starts[opening] + sizes[opening];
+        }
+        int[] next = Arrays.copyOf(this.starts, this.numOpenings);
+        this.cells = new int[this.starts[this.numOpenings]];
+        for (int cell=0; cell<this.openingOf.length; cell++)
+        {
+            if (this.openingOf[cell] != -1)
+            {
+                this.cells[next[this.openingOf[cell]]++] = cell;
+            }
+        }
+    }
+    
+    /**
+     * Returns the opening a cell belongs to
+     * 
+     * @param cell the index of the cell
+     * @return the opening, -1 if the cell has neighbouring mines
+     */
+    public int getOpening(final int cell)
+    {
+        return this.openingOf[cell];
+    }
+    
+    /**
+     * Returns the number of zero cells in an opening, not counting the
+     * numbers around it
+     * 
+     * @param opening the opening
+     * @return the number of zero cells
+     */
+    public int getSize(final int opening)
+    {
+        return this.starts[opening + 1] - this.starts[opening];
+    }
+    
+    /**
+     * Reads the values of a row of the board, all non-zero outside the board
+     * 
+     * @param board the board
+     * @param row the row
+     * @param values the array to read into
+     */
+    private void readRow(final Board board, final int row, final byte[] values)
+    {
+        for (int col=0; col<this.width; col++)
+        {
+            values[col] = (row < this.height) ? (byte) board.getValue(col, row) : Board.MINE;
+        }
+    }
+    
+    /**
+     * Returns true if a cell of the current row has a zero cell next to it
+     * 
+     * @param above the values of the row above
+     * @param current the values of the current row
+     * @param below the values of the row below
+     * @param col the column of the cell
+     * @return true if a neighbour is a zero cell, false otherwise
+     */
+    private boolean nextToZero(final byte[] above, final byte[] current, final byte[] below, final int col)
+    {
+        for (int c=Math.max(col - 1, 0); c<=Math.min(col + 1, this.width - 1); c++)
+        {
+            if (above[c] == 0 || current[c] == 0 || below[c] == 0)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Returns the root of a label, halving the path to it on the way
+     * 
+     * @param parents the parent of each label
+     * @param label the label
+     * @return the root of the label
+     */
+    private static int find(final int[] parents, final int label)
+    {
+        int root = label;
+        while (parents[root] != root)
+        {
+            parents[root] = parents[parents[root]];
+            root = parents[root];
+        }
+        return root;
+    }
+    
+    /**
+     * Joins two labels, the larger root taking the smaller as its parent
+     * 
+     * @param parents the parent of each label
+     * @param a one label
+     * @param b the other label
+     * @return the root of the joined labels
+     */
+    private static int union(final int[] parents, final int a, final int b)
+    {
+        int rootA = find(parents, a);
+        int rootB = find(parents, b);
+        if (rootA < rootB)
+        {
+            parents[rootB] = rootA;
+            return rootA;
+        }
+        parents[rootA] = rootB;
+        return rootB;
+    }
+}
@@ -0,0 +1,31 @@
+//********************************************
+// A strategy that plays games without a player
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package solver;
+
+import model.Board;
+
+/**
+ * A strategy that plays games without a player, one move at a time. Each
+ * thread playing games uses its own bot, so bots need not be thread safe.
+ */
+public interface Bot
+{
+    /**
+     * Starts a new game on the given board, whose mines are added after the first move
+     * 
+     * @param board the board to play
+     */
+    void newGame(Board board);
+    
+    /**
+     * Returns the next cell to uncover, after the board has been updated with
+     * the last one
+     * 
+     * @return the index of the cell to uncover, -1 to give up
+     */
+    int nextMove();
+}
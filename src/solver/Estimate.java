@@ -0,0 +1,124 @@
+//********************************************
+// A snapshot of the Monte Carlo mine probabilities
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package solver;
+
+/**
+ * A snapshot of the mine probabilities estimated by a MonteCarloEstimator,
+ * with a 95% confidence interval for each cell worked out from how much the
+ * independent chains disagree
+ */
+public class Estimate
+{
+    /**
+     * The cells sampled, each covered and not known to the solver
+     */
+    private int[] cells;
+    
+    /**
+     * The estimated chance of a mine and the half width of its confidence
+     * interval, for each sampled cell
+     */
+    private double[] probabilities;
+    private double[] halfWidths;
+    
+    /**
+     * The position of each cell in cells, -1 if it wasn't sampled
+     */
+    private int[] positions;
+    
+    private long numSamples;
+    /**
+     * Returns the number of configurations sampled, over all chains
+     * 
+     * @return the number of configurations sampled
+     */
+    public long getNumSamples() {return this.numSamples;}
+    
+    private int numChains;
+    /**
+     * Returns the number of chains that had found a configuration
+     * 
+     * @return the number of chains with samples
+     */
+    public int getNumChains() {return this.numChains;}
+    
+    /**
+     * Constructor, creates a snapshot of the given estimates
+     * 
+     * @param _cells the cells sampled
+     * @param _positions the position of each board cell in _cells, -1 if not sampled
+     * @param _probabilities the estimated chance of a mine for each sampled cell
+     * @param _halfWidths the half width of the confidence interval for each sampled cell
+     * @param _numSamples the number of configurations sampled
+     * @param _numChains the number of chains with samples
+     */
+    Estimate(final int[] _cells, final int[] _positions, final double[] _probabilities,
+             final double[] _halfWidths, final long _numSamples, final int _numChains)
+    {
+        this.cells = _cells;
+        this.positions = _positions;
+        this.probabilities = _probabilities;
+        this.halfWidths = _halfWidths;
+        this.numSamples = _numSamples;
+        this.numChains = _numChains;
+    }
+    
+    /**
+     * Returns true if the given cell was sampled
+     * 
+     * @param cell the index of the cell
+     * @return true if the cell has an estimate, false otherwise
+     */
+    public boolean isSampled(final int cell)
+    {
+        return this.positions[cell] != -1;
+    }
+    
+    /**
+     * Returns the estimated chance of a mine under the given sampled cell
+     * 
+     * @param cell the index of the cell
+     * @return the estimated chance of a mine, NaN if nothing was sampled yet
+     */
+    public double getProbability(final int cell)
+    {
+        return this.probabilities[this.positions[cell]];
+    }
+    
+    /**
+     * Returns the half width of the 95% confidence interval for the given
+     * sampled cell
+     * 
+     * @param cell the index of the cell
+     * @return the half width of the interval, NaN with fewer than two chains
+     */
+    public double getHalfWidth(final int cell)
+    {
+        return this.halfWidths[this.positions[cell]];
+    }
+    
+    /**
+     * Returns the sampled cell least likely to be a mine
+     * 
+     * @return the index of the safest sampled cell, -1 if nothing was sampled
+     */
+    public int findBestGuess()
+    {
+        int best = -1;
+        
+        for (int i=0; i<this.cells.length; i++)
+        {
+            if ( ! Double.isNaN(this.probabilities[i])
+                && (best == -1 || this.probabilities[i] < this.probabilities[best]))
+            {
+                best = i;
+            }
+        }
+        
+        return (best == -1) ? -1 : this.cells[best];
+    }
+}
@@ -0,0 +1,892 @@
+//********************************************
+// Estimates the chance of a mine under each covered cell by sampling
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package solver;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import model.Board;
+
+/**
+ * Estimates the chance of a mine under each covered cell by sampling, for
+ * frontiers too large for the ProbabilityEngine to enumerate. Only the
+ * frontier (covered cells next to a number) is sampled: a placement of its
+ * mines that leaves k mines for the rest of the board is worth C(rest, k)
+ * placements there, so the cells away from the frontier are never stored.
+ * 
+ * Each chain first repairs a random placement until every number agrees
+ * with it, then walks between such placements by picking a small block of
+ * linked frontier cells and redrawing it from every way of filling it that
+ * fits the numbers around it, weighted by the placements left for the rest of
+ * the board. Over time every placement turns up as often as it should, so
+ * the share of samples with a mine under a cell estimates its probability.
+ * 
+ * The chains are independent, each with its own SplittableRandom stream, and
+ * run in short slices on the pool shared with the ProbabilityEngine so they
+ * all make progress however many cores there are. The estimate can be read
+ * at any time while they run and improves as they go; the confidence
+ * intervals come from the spread between the chains.
+ */
+public class MonteCarloEstimator
+{
+    /**
+     * The default number of independent chains
+     */
+    public static final int DEFAULT_CHAINS = 8;
+    
+    /**
+     * The most cells redrawn together in one step
+     */
+    private static final int BLOCK_CELLS = 12;
+    
+    /**
+     * How long each chain runs before the next round, in nanoseconds
+     */
+    private static final long SLICE = 20000000L;
+    
+    /**
+     * Student's t for a 95% confidence interval, by degrees of freedom, and
+     * the normal value used beyond the table
+     */
+    private static final double[] T_95 = {
+        Double.NaN, 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262,
+        2.228, 2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093,
+        2.086, 2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z_95 = 1.96;
+    
+    private Board board;
+    private Solver solver;
+    
+    private int numChains = DEFAULT_CHAINS;
+    /**
+     * Returns the number of independent chains
+     * 
+     * @return the number of independent chains
+     */
+    public int getNumChains() {return this.numChains;}
+    
+    /**
+     * Sets the number of independent chains, at least 2 for confidence intervals
+     * 
+     * @param _numChains the number of independent chains
+     */
+    public void setNumChains(final int _numChains) {this.numChains = Math.max(1, _numChains);}
+    
+    /**
+     * The covered cells not known to the solver, frontier cells first, and
+     * the position of each board cell among them (-1 if not one of them)
+     */
+    private int[] cells;
+    private int[] positions;
+    private int numFrontier;
+    
+    /**
+     * For each uncovered number next to the frontier, how many of its
+     * frontier neighbours are mines
+     */
+    private int[] needs;
+    
+    /**
+     * The numbers next to each frontier cell, and the frontier cells next to
+     * each number, ending with -1 if fewer than 8
+     */
+    private int[][] cellConstraints;
+    private int[][] constraintCells;
+    
+    /**
+     * The log of the number of ways of placing the rest of the mines away from
+     * the frontier, for each number of mines on the frontier
+     */
+    private double[] logWays;
+    
+    /**
+     * The number of mines left to place, and the number of cells away from
+     * the frontier to place them on
+     */
+    private int minesLeft;
+    private int numInterior;
+    
+    private Chain[] chains;
+    private volatile boolean stopped;
+    private ForkJoinTask<?> driver;
+    
+    /**
+     * Constructor, creates an estimator for the given board
+     * 
+     * @param _board the board to estimate the probabilities for
+     */
+    public MonteCarloEstimator(final Board _board)
+    {
+        this(_board, null);
+    }
+    
+    /**
+     * Constructor, creates an estimator for the given board that leaves the
+     * cells the given solver is certain of out of the sampling
+     * 
+     * @param _board the board to estimate the probabilities for
+     * @param _solver a solver kept up to date with the board, or null
+     */
+    public MonteCarloEstimator(final Board _board, final Solver _solver)
+    {
+        this.board = _board;
+        this.solver = _solver;
+    }
+    
+    /**
+     * Starts sampling in the background until stop is called or the time
+     * budget runs out, replacing any earlier run
+     * 
+     * @param budget the time allowed for sampling, in milliseconds
+     * @param seed the seed the chains' random streams are split from
+     */
+    public synchronized void start(final long budget, final long seed)
+    {
+        this.stop();
+        this.setUp();
+        
+        final long deadline = System.nanoTime() + budget*1000000L;
+        SplittableRandom random = new SplittableRandom(seed);
+        
+        this.chains = new Chain[this.numChains];
+        for (int i=0; i<this.numChains; i++)
+        {
+            this.chains[i] = new Chain(random.split());
+        }
+        
+        // Run every chain for a slice, round after round
+        this.stopped = false;
+        final Chain[] running = this.chains;
+        this.driver = ProbabilityEngine.getPool().submit(new RecursiveAction()
+            {
+                @Override
+                protected void compute()
+                {
+                    while ( ! stopped && System.nanoTime() < deadline)
+                    {
+                        boolean active = false;
+                        for (Chain chain : running)
+                        {
+                            chain.reinitialize();
+                            chain.deadline = deadline;
+                            active |= ! chain.finished;
+                        }
+                        if ( ! active)
+                        {
+                            return;
+                        }
+                        invokeAll(running);
+                    }
+                }
+            });
+    }
+    
+    /**
+     * Samples for the given time and returns the final estimate
+     * 
+     * @param budget the time allowed for sampling, in milliseconds
+     * @param seed the seed the chains' random streams are split from
+     * @return the estimate
+     */
+    public Estimate run(final long budget, final long seed)
+    {
+        this.start(budget, seed);
+        this.awaitDone();
+        return this.getEstimate();
+    }
+    
+    /**
+     * Stops sampling, keeping the estimate made so far
+     */
+    public synchronized void stop()
+    {
+        this.stopped = true;
+        this.awaitDone();
+    }
+    
+    /**
+     * Waits for sampling to finish
+     */
+    public void awaitDone()
+    {
+        ForkJoinTask<?> running = this.driver;
+        if (running != null)
+        {
+            running.join();
+        }
+    }
+    
+    /**
+     * Returns true if the chains are still sampling
+     * 
+     * @return true if sampling, false otherwise
+     */
+    public boolean isRunning()
+    {
+        ForkJoinTask<?> running = this.driver;
+        return running != null && ! running.isDone();
+    }
+    
+    /**
+     * Reads the cells and numbers of the board
+     */
+    private void setUp()
+    {
+        int width = this.board.getWidth();
+        int height = this.board.getHeight();
+        int numCells = width*height;
+        
+        // Find the covered cells to sample, counting the mines already known
+        boolean[] sampled = new boolean[numCells];
+        this.minesLeft = this.board.getNumMines();
+        for (int cell=0; cell<numCells; cell++)
+        {
+            if (this.board.isUncovered(cell % width, cell / width)
+                || (this.solver != null && this.solver.isSafe(cell)))
+            {
+                continue;
+            }
+            
+            if (this.solver != null && this.solver.isMine(cell))
+            {
+                this.minesLeft--;
+            }
+            else
+            {
+                sampled[cell] = true;
+            }
+        }
+        
+        // Number the uncovered cells next to sampled cells, and put the
+        // sampled cells next to them first
+        int[] constraintOf = new int[numCells];
+        int[] needList = new int[64];
+        int numConstraints = 0;
+        boolean[] frontier = new boolean[numCells];
+        for (int cell=0; cell<numCells; cell++)
+        {
+            constraintOf[cell] = -1;
+            int col = cell % width;
+            int row = cell / width;
+            if ( ! this.board.isUncovered(col, row))
+            {
+                continue;
+            }
+            
+            int need = this.board.getValue(col, row);
+            boolean touches = false;
+            for (int r=Math.max(0, row-1); r<=Math.min(height-1, row+1); r++) {
+            for (int c=Math.max(0, col-1); c<=Math.min(width-1, col+1); c++)
+            {
+                int neighbour = r*width + c;
+                if (sampled[neighbour])
+                {
+                    frontier[neighbour] = true;
+                    touches = true;
+                }
+                else if (this.solver != null && this.solver.isMine(neighbour))
+                {
+                    need--;
+                }
+            }
+            }
+            
+            if (touches)
+            {
+                if (numConstraints == needList.length)
+                {
+                    int[] larger = new int[needList.length*2];
+                    System.arraycopy(needList, 0, larger, 0, numConstraints);
+                    needList = larger;
+                }
+                needList[numConstraints] = need;
+                constraintOf[cell] = numConstraints++;
+            }
+        }
+        this.needs = new int[numConstraints];
+        System.arraycopy(needList, 0, this.needs, 0, numConstraints);
+        
+        int numSampled = 0;
+        this.numFrontier = 0;
+        for (int cell=0; cell<numCells; cell++)
+        {
+            if (sampled[cell])
+            {
+                numSampled++;
+                if (frontier[cell])
+                    this.numFrontier++;
+            }
+        }
+        this.numInterior = numSampled - this.numFrontier;
+        
+        this.cells = new int[numSampled];
+        this.positions = new int[numCells];
+        int nextFrontier = 0;
+        int nextInterior = this.numFrontier;
+        for (int cell=0; cell<numCells; cell++)
+        {
+            this.positions[cell] = -1;
+            if (sampled[cell])
+            {
+                this.positions[cell] = frontier[cell] ? nextFrontier++ : nextInterior++;
+                this.cells[this.positions[cell]] = cell;
+            }
+        }
+        
+        // Link the frontier cells and the numbers next to them
+        this.cellConstraints = new int[this.numFrontier][];
+        this.constraintCells = new int[numConstraints][8];
+        int[] numCellsOf = new int[numConstraints];
+        int[] around = new int[8];
+        for (int c=0; c<numConstraints; c++)
+        {
+            for (int i=0; i<8; i++)
+            {
+                this.constraintCells[c][i] = -1;
+            }
+        }
+        for (int p=0; p<this.numFrontier; p++)
+        {
+            int col = this.cells[p] % width;
+            int row = this.cells[p] / width;
+            int num = 0;
+            
+            for (int r=Math.max(0, row-1); r<=Math.min(height-1, row+1); r++) {
+            for (int c=Math.max(0, col-1); c<=Math.min(width-1, col+1); c++)
+            {
+                int constraint = constraintOf[r*width + c];
+                if (constraint != -1)
+                {
+                    around[num++] = constraint;
+                    this.constraintCells[constraint][numCellsOf[constraint]++] = p;
+                }
+            }
+            }
+            
+            this.cellConstraints[p] = new int[num];
+            System.arraycopy(around, 0, this.cellConstraints[p], 0, num);
+        }
+        
+        // Ways of placing the rest of the mines, by mines on the frontier
+        this.logWays = ProbabilityEngine.logWays(this.minesLeft, this.numInterior, this.numFrontier);
+    }
+    
+    /**
+     * Returns the estimate from the samples taken so far
+     * 
+     * @return the current estimate
+     */
+    public Estimate getEstimate()
+    {
+        Chain[] current = this.chains;
+        int numSampled = this.cells.length;
+        double[] sums = new double[numSampled];
+        double[] squares = new double[numSampled];
+        long numSamples = 0;
+        int numWithSamples = 0;
+        
+        // Average the chains, each chain counting once however far it got
+        for (Chain chain : current)
+        {
+            synchronized (chain)
+            {
+                if (chain.publishedSamples == 0)
+                {
+                    continue;
+                }
+                numSamples += chain.publishedSamples;
+                numWithSamples++;
+                
+                // Cells away from the frontier are alike, so share one estimate
+                double interiorMean = chain.publishedInterior / chain.publishedSamples;
+                for (int p=0; p<numSampled; p++)
+                {
+                    double mean = (p < this.numFrontier)
+                                  ? (double) chain.publishedCounts[p] / chain.publishedSamples
+                                  : interiorMean;
+                    sums[p] += mean;
+                    squares[p] += mean*mean;
+                }
+            }
+        }
+        
+        double[] probabilities = new double[numSampled];
+        double[] halfWidths = new double[numSampled];
+        for (int p=0; p<numSampled; p++)
+        {
+            if (numWithSamples == 0)
+            {
+                probabilities[p] = Double.NaN;
+                halfWidths[p] = Double.NaN;
+                continue;
+            }
+            
+            probabilities[p] = sums[p] / numWithSamples;
+            if (numWithSamples < 2)
+            {
+                halfWidths[p] = Double.NaN;
+            }
+            else
+            {
+                double variance = (squares[p] - sums[p]*probabilities[p]) / (numWithSamples - 1);
+                double t = (numWithSamples - 1 < T_95.length) ? T_95[numWithSamples - 1] : Z_95;
+                halfWidths[p] = t*Math.sqrt(Math.max(0, variance) / numWithSamples);
+            }
+        }
+        
+        return new Estimate(this.cells, this.positions, probabilities, halfWidths, numSamples, numWithSamples);
+    }
+    
+    /**
+     * One chain of frontier placements, run a slice at a time
+     */
+    private class Chain extends RecursiveAction
+    {
+        private SplittableRandom random;
+        
+        /**
+         * When sampling must stop, and when the current slice ends, from System.nanoTime
+         */
+        long deadline;
+        private long sliceEnd;
+        
+        /**
+         * Set once the chain can't take any more useful samples
+         */
+        boolean finished;
+        
+        /**
+         * Whether each frontier cell has a mine, the mines on the frontier,
+         * and the mines next to each number
+         */
+        private boolean[] mine;
+        private int numMines;
+        private int[] counts;
+        
+        /**
+         * Set once every number agrees with the placement
+         */
+        private boolean placed;
+        
+        /**
+         * The numbers that disagree with the placement while it is repaired,
+         * and where each one is in the list (-1 if it agrees)
+         */
+        private int[] broken;
+        private int numBroken;
+        private int[] brokenIndex;
+        
+        /**
+         * The cells of the block being redrawn, the block each cell was last
+         * in, and the unfilled block cells next to each number
+         */
+        private int[] block = new int[BLOCK_CELLS];
+        private int[] blockOf;
+        private int blockStamp;
+        private int[] open;
+        
+        /**
+         * Every way of filling the block found, as a bit per block cell, with
+         * its number of mines
+         */
+        private int[] fillings = new int[64];
+        private int[] fillingMines = new int[64];
+        private int numFillings;
+        
+        /**
+         * The samples taken by this chain
+         */
+        private long[] sampleCounts;
+        private double sampleInterior;
+        private long numSamples;
+        
+        /**
+         * The samples as last published for getEstimate
+         */
+        long[] publishedCounts;
+        double publishedInterior;
+        long publishedSamples;
+        
+        /**
+         * Constructor, creates a chain with its own random stream
+         * 
+         * @param _random the random stream of this chain
+         */
+        Chain(final SplittableRandom _random)
+        {
+            this.random = _random;
+            this.mine = new boolean[numFrontier];
+            this.counts = new int[needs.length];
+            this.blockOf = new int[numFrontier];
+            this.open = new int[needs.length];
+            this.sampleCounts = new long[numFrontier];
+            this.publishedCounts = new long[numFrontier];
+            
+            // Start from a random placement on the frontier
+            double share = (numFrontier + numInterior > 0)
+                           ? (double) minesLeft / (numFrontier + numInterior) : 0;
+            for (int p=0; p<numFrontier; p++)
+            {
+                if (this.random.nextDouble() < share)
+                {
+                    this.flip(p);
+                }
+            }
+            
+            this.broken = new int[needs.length];
+            this.brokenIndex = new int[needs.length];
+            for (int c=0; c<needs.length; c++)
+            {
+                this.brokenIndex[c] = -1;
+                this.updateBroken(c);
+            }
+        }
+        
+        @Override
+        protected void compute()
+        {
+            if (this.finished)
+            {
+                return;
+            }
+            this.sliceEnd = Math.min(this.deadline, System.nanoTime() + SLICE);
+            
+            if ( ! this.placed)
+            {
+                this.repair();
+            }
+            if ( ! this.placed)
+            {
+                return;
+            }
+            
+            // A frontier with no cells has a single placement
+            if (numFrontier == 0)
+            {
+                this.sample();
+                this.publish();
+                this.finished = true;
+                return;
+            }
+            
+            // Take one sample every few blocks, so each cell is redrawn a few times
+            int stepsPerSample = Math.max(1, numFrontier / 4);
+            while (System.nanoTime() < this.sliceEnd && ! stopped)
+            {
+                for (int i=0; i<stepsPerSample; i++)
+                {
+                    this.redrawBlock();
+                }
+                this.sample();
+            }
+            this.publish();
+        }
+        
+        /**
+         * Repairs the placement until every number agrees with it and the rest
+         * of the mines fit away from the frontier, or the slice ends
+         */
+        private void repair()
+        {
+            int steps = 0;
+            
+            while (true)
+            {
+                if ((++steps & 255) == 0 && (System.nanoTime() >= this.sliceEnd || stopped))
+                {
+                    return;
+                }
+                
+                // Too many or too few mines left for the rest of the board
+                if (this.numBroken == 0)
+                {
+                    if (logWays[this.numMines] != Double.NEGATIVE_INFINITY)
+                    {
+                        this.placed = true;
+                        this.broken = null;
+                        this.brokenIndex = null;
+                        return;
+                    }
+                    if (numFrontier == 0)
+                    {
+                        this.finished = true;
+                        return;
+                    }
+                    int p = this.random.nextInt(numFrontier);
+                    boolean tooMany = (minesLeft - this.numMines < 0);
+                    if (this.mine[p] == tooMany)
+                    {
+                        this.flip(p);
+                    }
+                    continue;
+                }
+                
+                // Fix a broken number by adding or removing one of its mines,
+                // keeping a worse placement now and then so the repair can't get stuck
+                int c = this.broken[this.random.nextInt(this.numBroken)];
+                int p = this.pickNeighbour(c, this.counts[c] > needs[c]);
+                int before = this.numBroken;
+                this.flip(p);
+                if (this.numBroken > before && this.random.nextInt(10) != 0)
+                {
+                    this.flip(p);
+                }
+            }
+        }
+        
+        /**
+         * Picks a random frontier cell next to the given number with or
+         * without a mine
+         * 
+         * @param constraint the number
+         * @param withMine true to pick a mine, false to pick an empty cell
+         * @return the position picked
+         */
+        private int pickNeighbour(final int constraint, final boolean withMine)
+        {
+            int picked = -1;
+            int seen = 0;
+            
+            int[] around = constraintCells[constraint];
+            for (int i=0; i<around.length && around[i] != -1; i++)
+            {
+                if (this.mine[around[i]] == withMine && this.random.nextInt(++seen) == 0)
+                {
+                    picked = around[i];
+                }
+            }
+            
+            return picked;
+        }
+        
+        /**
+         * Adds or removes the mine at a frontier cell
+         * 
+         * @param p the position of the cell
+         */
+        private void flip(final int p)
+        {
+            int change = this.mine[p] ? -1 : 1;
+            this.mine[p] = ! this.mine[p];
+            this.numMines += change;
+            
+            for (int c : cellConstraints[p])
+            {
+                this.counts[c] += change;
+                this.updateBroken(c);
+            }
+        }
+        
+        /**
+         * Adds or removes a number from the broken list, while repairing
+         * 
+         * @param c the number
+         */
+        private void updateBroken(final int c)
+        {
+            if (this.broken == null)
+            {
+                return;
+            }
+            
+            boolean isBroken = (this.counts[c] != needs[c]);
+            if (isBroken && this.brokenIndex[c] == -1)
+            {
+                this.brokenIndex[c] = this.numBroken;
+                this.broken[this.numBroken++] = c;
+            }
+            else if ( ! isBroken && this.brokenIndex[c] != -1)
+            {
+                int last = this.broken[--this.numBroken];
+                this.broken[this.brokenIndex[c]] = last;
+                this.brokenIndex[last] = this.brokenIndex[c];
+                this.brokenIndex[c] = -1;
+            }
+        }
+        
+        /**
+         * Redraws a block of linked frontier cells around a random cell from
+         * every way of filling it that fits the numbers around it
+         */
+        private void redrawBlock()
+        {
+            // Grow the block out from a random cell through the numbers
+            this.blockStamp++;
+            int size = 0;
+            int start = this.random.nextInt(numFrontier);
+            this.block[size++] = start;
+            this.blockOf[start] = this.blockStamp;
+            for (int next=0; next<size && size<BLOCK_CELLS; next++)
+            {
+                for (int c : cellConstraints[this.block[next]])
+                {
+                    for (int q : constraintCells[c])
+                    {
+                        if (q == -1 || size == BLOCK_CELLS)
+                            break;
+                        if (this.blockOf[q] != this.blockStamp)
+                        {
+                            this.blockOf[q] = this.blockStamp;
+                            this.block[size++] = q;
+                        }
+                    }
+                }
+            }
+            
+            // Empty the block, so the counts only hold mines outside it
+            for (int i=0; i<size; i++)
+            {
+                int p = this.block[i];
+                if (this.mine[p])
+                {
+                    this.flip(p);
+                }
+                for (int c : cellConstraints[p])
+                {
+                    this.open[c] = 0;
+                }
+            }
+            for (int i=0; i<size; i++)
+            {
+                for (int c : cellConstraints[this.block[i]])
+                {
+                    this.open[c]++;
+                }
+            }
+            
+            // Find every filling, then pick one by the placements it leaves
+            int outside = this.numMines;
+            this.numFillings = 0;
+            this.fill(0, size, 0, 0);
+            
+            double max = Double.NEGATIVE_INFINITY;
+            for (int f=0; f<this.numFillings; f++)
+            {
+                max = Math.max(max, logWays[outside + this.fillingMines[f]]);
+            }
+            double total = 0;
+            double[] weights = new double[this.numFillings];
+            for (int f=0; f<this.numFillings; f++)
+            {
+                weights[f] = Math.exp(logWays[outside + this.fillingMines[f]] - max);
+                total += weights[f];
+            }
+            
+            double pick = this.random.nextDouble()*total;
+            int chosen = this.numFillings - 1;
+            for (int f=0; f<this.numFillings; f++)
+            {
+                pick -= weights[f];
+                if (pick < 0)
+                {
+                    chosen = f;
+                    break;
+                }
+            }
+            
+            for (int i=0; i<size; i++)
+            {
+                if ((this.fillings[chosen] & (1 << i)) != 0)
+                {
+                    this.flip(this.block[i]);
+                }
+            }
+        }
+        
+        /**
+         * Finds every way of filling the block from the given cell on, by
+         * backtracking over the cells in order
+         * 
+         * @param i the block cell to fill next
+         * @param size the number of cells in the block
+         * @param bits the filling so far, a bit per block cell
+         * @param mines the mines in the filling so far
+         */
+        private void fill(final int i, final int size, final int bits, final int mines)
+        {
+            if (i == size)
+            {
+                if (logWays[this.numMines + mines] == Double.NEGATIVE_INFINITY)
+                {
+                    return;
+                }
+                if (this.numFillings == this.fillings.length)
+                {
+                    int[] larger = new int[this.fillings.length*2];
+                    System.arraycopy(this.fillings, 0, larger, 0, this.numFillings);
+                    this.fillings = larger;
+                    larger = new int[this.fillingMines.length*2];
+                    System.arraycopy(this.fillingMines, 0, larger, 0, this.numFillings);
+                    this.fillingMines = larger;
+                }
+                this.fillings[this.numFillings] = bits;
+                this.fillingMines[this.numFillings++] = mines;
+                return;
+            }
+            
+            int[] around = cellConstraints[this.block[i]];
+            for (int value=0; value<=1; value++)
+            {
+                // Every number next to the cell must still be reachable
+                boolean fits = true;
+                for (int c : around)
+                {
+                    int m = this.counts[c] + value;
+                    if (m > needs[c] || m + this.open[c] - 1 < needs[c])
+                    {
+                        fits = false;
+                        break;
+                    }
+                }
+                if ( ! fits)
+                {
+                    continue;
+                }
+                
+                for (int c : around)
+                {
+                    this.counts[c] += value;
+                    this.open[c]--;
+                }
+                this.fill(i + 1, size, bits | (value << i), mines + value);
+                for (int c : around)
+                {
+                    this.counts[c] -= value;
+                    this.open[c]++;
+                }
+            }
+        }
+        
+        /**
+         * Adds the current placement to the samples
+         */
+        private void sample()
+        {
+            for (int p=0; p<numFrontier; p++)
+            {
+                if (this.mine[p])
+                    this.sampleCounts[p]++;
+            }
+            if (numInterior > 0)
+            {
+                this.sampleInterior += (double) (minesLeft - this.numMines) / numInterior;
+            }
+            this.numSamples++;
+        }
+        
+        /**
+         * Makes the samples of this chain visible to getEstimate
+         */
+        private synchronized void publish()
+        {
+            System.arraycopy(this.sampleCounts, 0, this.publishedCounts, 0, numFrontier);
+            this.publishedInterior = this.sampleInterior;
+            this.publishedSamples = this.numSamples;
+        }
+    }
+}
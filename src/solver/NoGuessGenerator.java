@@ -0,0 +1,234 @@
+//********************************************
+// Generates boards that can be solved without guessing
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package solver;
+
+import data.LatencyStats;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import model.Board;
+
+/**
+ * Generates boards that can be solved without guessing. Candidate layouts
+ * leave the 3x3 block around the first click free of mines, so it always
+ * opens an area, and a candidate is accepted only if the Solver can uncover
+ * every safe cell from there. Candidates are tried in parallel on the pool
+ * shared with the ProbabilityEngine, and the other workers stop as soon as
+ * one succeeds. The time taken for each board is recorded by board size.
+ */
+public class NoGuessGenerator
+{
+    /**
+     * The default time allowed for finding a board, in milliseconds
+     */
+    public static final long DEFAULT_BUDGET = 5000;
+    
+    private long budget = DEFAULT_BUDGET;
+    /**
+     * Returns the time allowed for finding a board, in milliseconds
+     * 
+     * @return the time allowed for finding a board, in milliseconds
+     */
+    public long getBudget() {return this.budget;}
+    
+    /**
+     * Sets the time allowed for finding a board
+     * 
+     * @param _budget the time allowed for finding a board, in milliseconds
+     */
+    public void setBudget(final long _budget) {this.budget = _budget;}
+    
+    private LatencyStats stats = new LatencyStats();
+    /**
+     * Returns the time taken to generate boards, recorded by board size
+     * 
+     * @return the generation latencies
+     */
+    public LatencyStats getStats() {return this.stats;}
+    
+    /**
+     * The random stream every search is split from
+     */
+    private SplittableRandom random;
+    
+    /**
+     * Constructor, creates a generator with a random seed
+     */
+    public NoGuessGenerator()
+    {
+        this(new Random().nextLong());
+    }
+    
+    /**
+     * Constructor, creates a generator whose searches come from the given seed
+     * 
+     * @param seed the seed
+     */
+    public NoGuessGenerator(final long seed)
+    {
+        this.random = new SplittableRandom(seed);
+    }
+    
+    /**
+     * Returns the key latencies are recorded under for a board size
+     * 
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param numMines the number of mines on the board
+     * @return the key, such as 30x16/99
+     */
+    public static String getKey(final int width, final int height, final int numMines)
+    {
+        return width + "x" + height + "/" + numMines;
+    }
+    
+    /**
+     * Returns the cells around the given cell, and the cell itself, in ascending order
+     * 
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param col the column of the cell
+     * @param row the row of the cell
+     * @return the cells of the 3x3 block around the cell that are on the board
+     */
+    public static int[] getOpening(final int width, final int height, final int col, final int row)
+    {
+        int[] block = new int[9];
+        int num = 0;
+        
+        for (int r=Math.max(0, row-1); r<=Math.min(height-1, row+1); r++) {
+        for (int c=Math.max(0, col-1); c<=Math.min(width-1, col+1); c++)
+        {
+            block[num++] = r*width + c;
+        }
+        }
+        
+        int[] opening = new int[num];
+        System.arraycopy(block, 0, opening, 0, num);
+        return opening;
+    }
+    
+    /**
+     * Finds a layout of mines that can be solved without guessing from the
+     * given first click
+     * 
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param numMines the number of mines on the board
+     * @param col the column of the first click
+     * @param row the row of the first click
+     * @return the cells that contain a mine, null if none was found in time
+     */
+    public int[] generate(final int width, final int height, final int numMines,
+                          final int col, final int row)
+    {
+        long start = System.nanoTime();
+        final long deadline = start + this.budget*1000000L;
+        final AtomicReference<int[]> found = new AtomicReference<int[]>();
+        final int[] opening = getOpening(width, height, col, row);
+        
+        // One worker per thread in the pool, each with its own random stream
+        final List<RecursiveAction> workers = new ArrayList<RecursiveAction>();
+        for (int i=0; i<ProbabilityEngine.getPool().getParallelism(); i++)
+        {
+            final SplittableRandom stream;
+            synchronized (this)
+            {
+                stream = this.random.split();
+            }
+            
+            workers.add(new RecursiveAction()
+                {
+                    @Override
+                    protected void compute()
+                    {
+                        while (found.get() == null && System.nanoTime() < deadline)
+                        {
+                            Board board = Board.create(Board.ARRAY, width, height, numMines,
+                                                       new Random(stream.nextLong()));
+                            board.addMines(opening);
+                            
+                            if (isSolvable(board, col, row, found) && found.compareAndSet(null, board.getMineCells()))
+                            {
+                                return;
+                            }
+                        }
+                    }
+                });
+        }
+        
+        ProbabilityEngine.getPool().invoke(new RecursiveAction()
+            {
+                @Override
+                protected void compute()
+                {
+                    invokeAll(workers);
+                }
+            });
+        
+        // Boards not found count as taking the whole budget
+        long nanos = System.nanoTime() - start;
+        if (found.get() != null)
+        {
+            this.stats.record(getKey(width, height, numMines), nanos);
+        }
+        else
+        {
+            this.stats.recordMiss(getKey(width, height, numMines), Math.min(nanos, this.budget*1000000L));
+        }
+        return found.get();
+    }
+    
+    /**
+     * Plays a board from the given first click, only uncovering cells the
+     * Solver is certain of, and returns true if every safe cell is uncovered.
+     * The board is left as far as it was played.
+     * 
+     * @param board the board, with mines added
+     * @param col the column of the first click
+     * @param row the row of the first click
+     * @return true if the board was solved without guessing, false otherwise
+     */
+    public static boolean isSolvable(final Board board, final int col, final int row)
+    {
+        return isSolvable(board, col, row, null);
+    }
+    
+    /**
+     * Plays a board from the given first click, giving up early once another
+     * worker has found a board
+     * 
+     * @param board the board, with mines added
+     * @param col the column of the first click
+     * @param row the row of the first click
+     * @param found set once any board has been found, or null
+     * @return true if the board was solved without guessing, false otherwise
+     */
+    private static boolean isSolvable(final Board board, final int col, final int row,
+                                      final AtomicReference<int[]> found)
+    {
+        board.uncover(col, row);
+        Solver solver = new Solver(board);
+        
+        while ( ! board.isWon() && ! board.isExploded())
+        {
+            int cell = solver.findSafeCell();
+            if (cell == -1 || (found != null && found.get() != null))
+            {
+                return false;
+            }
+            
+            board.uncover(board.getCol(cell), board.getRow(cell));
+            solver.update();
+        }
+        
+        return board.isWon();
+    }
+}
@@ -0,0 +1,1027 @@
+//********************************************
+// Works out the exact chance of a mine under each covered cell
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import model.Board;
+
+/**
+ * Works out the exact chance of a mine under each covered cell. The covered
+ * cells next to uncovered numbers (the frontier) are split into components
+ * that share no number, and every arrangement of mines in each component is
+ * counted by backtracking, grouped by how many mines it uses. The components
+ * are then combined with the remaining cells away from the frontier, which
+ * can hold the rest of the mines in any of C(cells, mines) ways.
+ * 
+ * Components are searched in parallel on a shared ForkJoinPool, and large
+ * components are split further. A component that isn't finished within the
+ * budget is left out of the exact answer: its cells are treated like the
+ * cells away from the frontier and isExact() returns false.
+ */
+public class ProbabilityEngine
+{
+    /**
+     * The default time allowed for searching, in milliseconds
+     */
+    public static final long DEFAULT_BUDGET = 500;
+    
+    /**
+     * Components with more cells left than this are split into parallel tasks
+     */
+    private static final int SPLIT_CELLS = 16;
+    
+    /**
+     * The number of cells a component is split on, at most
+     */
+    private static final int SPLIT_DEPTH = 6;
+    
+    /**
+     * How many search steps are taken between checks of the budget
+     */
+    private static final int CHECK_INTERVAL = 1024;
+    
+    /**
+     * Shared by every engine, created on first use. Its threads are daemons so
+     * they never keep the game running.
+     */
+    private static ForkJoinPool pool;
+    
+    private Board board;
+    
+    /**
+     * Deductions already made, so certain cells are left out of the search
+     */
+    private Solver solver;
+    
+    private long budget = DEFAULT_BUDGET;
+    /**
+     * Returns the time allowed for searching, in milliseconds
+     * 
+     * @return the time allowed for searching, in milliseconds
+     */
+    public long getBudget() {return this.budget;}
+    
+    /**
+     * Sets the time allowed for searching
+     * 
+     * @param _budget the time allowed for searching, in milliseconds
+     */
+    public void setBudget(final long _budget) {this.budget = _budget;}
+    
+    private boolean trustFlags = false;
+    /**
+     * Sets whether flagged cells are taken to be mines. By default they are
+     * not, since the player may have placed them wrongly.
+     * 
+     * @param _trustFlags true to take flagged cells to be mines
+     */
+    public void setTrustFlags(final boolean _trustFlags) {this.trustFlags = _trustFlags;}
+    
+    /**
+     * The chance of a mine under each cell, 0 for uncovered cells
+     */
+    private double[] probabilities;
+    
+    private boolean exact;
+    /**
+     * Returns true if the last compute finished every component within budget
+     * 
+     * @return true if the probabilities are exact, false if some are estimates
+     */
+    public boolean isExact() {return this.exact;}
+    
+    private int numComponents;
+    /**
+     * Returns the number of frontier components found by the last compute
+     * 
+     * @return the number of frontier components
+     */
+    public int getNumComponents() {return this.numComponents;}
+    
+    private double otherProbability;
+    /**
+     * Returns the chance of a mine under a covered cell away from the frontier
+     * 
+     * @return the chance of a mine under a covered cell away from the frontier
+     */
+    public double getOtherProbability() {return this.otherProbability;}
+    
+    /**
+     * Constructor, creates an engine for the given board
+     * 
+     * @param _board the board to work out the probabilities for
+     */
+    public ProbabilityEngine(final Board _board)
+    {
+        this(_board, null);
+    }
+    
+    /**
+     * Constructor, creates an engine for the given board that leaves the cells
+     * the given solver is certain of out of the search
+     * 
+     * @param _board the board to work out the probabilities for
+     * @param _solver a solver kept up to date with the board, or null
+     */
+    public ProbabilityEngine(final Board _board, final Solver _solver)
+    {
+        this.board = _board;
+        this.solver = _solver;
+    }
+    
+    /**
+     * Returns the pool shared by every engine and estimator, creating it if needed
+     * 
+     * @return the shared pool
+     */
+    static synchronized ForkJoinPool getPool()
+    {
+        if (pool == null)
+        {
+            pool = new ForkJoinPool();
+        }
+        return pool;
+    }
+    
+    /**
+     * Returns the chance of a mine under the given cell, as of the last compute
+     * 
+     * @param cell the index of the cell
+     * @return the chance of a mine, from 0 to 1
+     */
+    public double getProbability(final int cell)
+    {
+        return this.probabilities[cell];
+    }
+    
+    /**
+     * Returns the covered cell least likely to be a mine, as of the last compute
+     * 
+     * @return the index of the safest covered cell, -1 if none is covered
+     */
+    public int findBestGuess()
+    {
+        int best = -1;
+        
+        for (int cell=0; cell<this.probabilities.length; cell++)
+        {
+            if ( ! this.board.isUncovered(this.board.getCol(cell), this.board.getRow(cell))
+                && (best == -1 || this.probabilities[cell] < this.probabilities[best]))
+            {
+                best = cell;
+            }
+        }
+        
+        return best;
+    }
+    
+    /**
+     * Works out the chance of a mine under every covered cell
+     * 
+     * @return true if every component was finished within budget
+     */
+    public boolean compute()
+    {
+        int width = this.board.getWidth();
+        int height = this.board.getHeight();
+        int numCells = width*height;
+        this.probabilities = new double[numCells];
+        
+        // Sort the covered cells into known mines, known safe and unknown
+        byte[] known = new byte[numCells]; //0 unknown, 1 safe, 2 mine
+        int minesLeft = this.board.getNumMines();
+        for (int cell=0; cell<numCells; cell++)
+        {
+            int col = cell % width;
+            int row = cell / width;
+            
+            if (this.board.isUncovered(col, row)
+                || (this.solver != null && this.solver.isSafe(cell)))
+            {
+                known[cell] = 1;
+            }
+            else if ((this.solver != null && this.solver.isMine(cell))
+                     || (this.trustFlags && this.board.isFlagged(col, row)))
+            {
+                known[cell] = 2;
+                this.probabilities[cell] = 1;
+                minesLeft--;
+            }
+        }
+        
+        List<Component> components = this.findComponents(known);
+        this.numComponents = components.size();
+        
+        // Search every component, in parallel
+        final long deadline = System.nanoTime() + this.budget*1000000L;
+        final List<Search> searches = new ArrayList<Search>();
+        for (Component component : components)
+        {
+            component.maxMines = minesLeft;
+            searches.add(new Search(component, deadline));
+        }
+        getPool().invoke(new RecursiveAction()
+            {
+                @Override
+                protected void compute()
+                {
+                    invokeAll(searches);
+                }
+            });
+        
+        // Cells of unfinished components count as cells away from the frontier
+        List<Component> solved = new ArrayList<Component>();
+        int numOther = 0;
+        for (int cell=0; cell<numCells; cell++)
+        {
+            if (known[cell] == 0)
+            {
+                numOther++;
+            }
+        }
+        
+        // Weigh each mine on the frontier by the odds of a mine anywhere else,
+        // so the ways of placing few and many mines there stay within the range
+        // of a double; the ways away from the frontier are divided by the same
+        double density = (numOther > 0) ? (double) minesLeft / numOther : 0;
+        double logOdds = (density > 0 && density < 1) ? Math.log(density / (1 - density)) : 0;
+        for (Component component : components)
+        {
+            if (component.aborted || ! component.normalize(logOdds))
+            {
+                continue;
+            }
+            solved.add(component);
+            numOther -= component.cells.length;
+        }
+        this.exact = (solved.size() == components.size());
+        
+        this.combine(solved, minesLeft, numOther, logOdds);
+        
+        // Fill in the cells away from the frontier and of unfinished components
+        boolean[] inSolved = new boolean[numCells];
+        for (Component component : solved)
+        {
+            for (int cell : component.cells)
+            {
+                inSolved[cell] = true;
+            }
+        }
+        for (int cell=0; cell<numCells; cell++)
+        {
+            if (known[cell] == 0 && ! inSolved[cell])
+            {
+                this.probabilities[cell] = this.otherProbability;
+            }
+        }
+        
+        return this.exact;
+    }
+    
+    /**
+     * Splits the unknown cells next to uncovered numbers into components that
+     * share no number
+     * 
+     * @param known what is known about each cell, 0 for unknown
+     * @return the components of the frontier
+     */
+    private List<Component> findComponents(final byte[] known)
+    {
+        int width = this.board.getWidth();
+        int height = this.board.getHeight();
+        int numCells = width*height;
+        
+        // Join the unknown neighbours of every number with union-find
+        int[] parent = new int[numCells];
+        for (int cell=0; cell<numCells; cell++)
+        {
+            parent[cell] = -1;
+        }
+        
+        for (int cell=0; cell<numCells; cell++)
+        {
+            int col = cell % width;
+            int row = cell / width;
+            if ( ! this.board.isUncovered(col, row))
+            {
+                continue;
+            }
+            
+            int first = -1;
+            for (int r=Math.max(0, row-1); r<=Math.min(height-1, row+1); r++) {
+            for (int c=Math.max(0, col-1); c<=Math.min(width-1, col+1); c++)
+            {
+                int neighbour = r*width + c;
+                if (known[neighbour] != 0)
+                {
+                    continue;
+                }
+                if (parent[neighbour] == -1)
+                {
+                    parent[neighbour] = neighbour;
+                }
+                if (first == -1)
+                {
+                    first = neighbour;
+                }
+                else
+                {
+                    parent[find(parent, neighbour)] = find(parent, first);
+                }
+            }
+            }
+        }
+        
+        // Number the cells of each component
+        int[] componentOf = new int[numCells];
+        int[] position = new int[numCells];
+        List<Component> components = new ArrayList<Component>();
+        List<int[]> cellLists = new ArrayList<int[]>();
+        int[] sizes = new int[numCells];
+        for (int cell=0; cell<numCells; cell++)
+        {
+            if (parent[cell] != -1)
+            {
+                sizes[find(parent, cell)]++;
+            }
+        }
+        for (int cell=0; cell<numCells; cell++)
+        {
+            if (parent[cell] == -1)
+            {
+                continue;
+            }
+            
+            int root = find(parent, cell);
+            if (root == cell)
+            {
+                componentOf[cell] = components.size();
+                components.add(new Component());
+                cellLists.add(new int[sizes[cell]]);
+                sizes[cell] = 0;
+            }
+        }
+        for (int cell=0; cell<numCells; cell++)
+        {
+            if (parent[cell] != -1)
+            {
+                int root = find(parent, cell);
+                int index = componentOf[root];
+                componentOf[cell] = index;
+                position[cell] = sizes[root];
+                cellLists.get(index)[sizes[root]++] = cell;
+            }
+        }
+        
+        // Add each number as a constraint on its component
+        List<List<int[]>> constraintLists = new ArrayList<List<int[]>>();
+        List<List<Integer>> needLists = new ArrayList<List<Integer>>();
+        for (int i=0; i<components.size(); i++)
+        {
+            constraintLists.add(new ArrayList<int[]>());
+            needLists.add(new ArrayList<Integer>());
+        }
+        int[] around = new int[8];
+        for (int cell=0; cell<numCells; cell++)
+        {
+            int col = cell % width;
+            int row = cell / width;
+            if ( ! this.board.isUncovered(col, row))
+            {
+                continue;
+            }
+            
+            int num = 0;
+            int need = this.board.getValue(col, row);
+            for (int r=Math.max(0, row-1); r<=Math.min(height-1, row+1); r++) {
+            for (int c=Math.max(0, col-1); c<=Math.min(width-1, col+1); c++)
+            {
+                int neighbour = r*width + c;
+                if (known[neighbour] == 0)
+                {
+                    around[num++] = neighbour;
+                }
+                else if (known[neighbour] == 2)
+                {
+                    need--;
+                }
+            }
+            }
+            
+            if (num > 0)
+            {
+                int index = componentOf[around[0]];
+                int[] positions = new int[num];
+                for (int i=0; i<num; i++)
+                {
+                    positions[i] = position[around[i]];
+                }
+                constraintLists.get(index).add(positions);
+                needLists.get(index).add(need);
+            }
+        }
+        
+        for (int i=0; i<components.size(); i++)
+        {
+            components.get(i).setUp(cellLists.get(i), constraintLists.get(i), needLists.get(i));
+        }
+        
+        return components;
+    }
+    
+    /**
+     * Finds the root of a cell in the union-find forest, halving paths on the way
+     * 
+     * @param parent the parent of each cell
+     * @param cell the cell
+     * @return the root of the cell
+     */
+    private static int find(final int[] parent, final int cell)
+    {
+        int current = cell;
+        while (parent[current] != current)
+        {
+            parent[current] = parent[parent[current]];
+            current = parent[current];
+        }
+        return current;
+    }
+    
+    /**
+     * Combines the solved components with the cells away from the frontier and
+     * stores the chance of a mine under each frontier cell
+     * 
+     * @param solved the components that were searched completely
+     * @param minesLeft the number of mines not known
+     * @param numOther the number of unknown cells in no solved component
+     * @param logOdds the log of the weight given to each mine in the components
+     */
+    private void combine(final List<Component> solved, final int minesLeft, final int numOther,
+                         final double logOdds)
+    {
+        int numSolved = solved.size();
+        
+        // Mine counts of all components before and after each one
+        double[][] before = new double[numSolved + 1][];
+        double[][] after = new double[numSolved + 1][];
+        before[0] = new double[] {1};
+        after[numSolved] = new double[] {1};
+        for (int i=0; i<numSolved; i++)
+        {
+            before[i+1] = convolve(before[i], solved.get(i).counts, minesLeft);
+        }
+        for (int i=numSolved-1; i>=0; i--)
+        {
+            after[i] = convolve(solved.get(i).counts, after[i+1], minesLeft);
+        }
+        
+        // The ways of placing the other mines away from the frontier, scaled,
+        // for as many mines as the frontier can hold
+        double[] ways = this.otherWays(minesLeft, numOther, before[numSolved], logOdds);
+        
+        // Cells away from the frontier
+        double total = 0;
+        double mines = 0;
+        double[] all = before[numSolved];
+        for (int k=0; k<all.length; k++)
+        {
+            total += all[k]*ways[k];
+            mines += all[k]*ways[k]*(minesLeft - k);
+        }
+        this.otherProbability = (numOther > 0 && total > 0) ? mines/total/numOther : 0;
+        
+        // Each component against every other component and the other cells
+        for (int i=0; i<numSolved; i++)
+        {
+            Component component = solved.get(i);
+            double[] others = convolve(before[i], after[i+1], minesLeft);
+            
+            double[] weights = new double[component.counts.length];
+            double sum = 0;
+            for (int k=0; k<weights.length; k++)
+            {
+                for (int j=0; j<others.length && k+j<ways.length; j++)
+                {
+                    weights[k] += others[j]*ways[k+j];
+                }
+                sum += component.counts[k]*weights[k];
+            }
+            
+            for (int p=0; p<component.cells.length; p++)
+            {
+                double chance = 0;
+                for (int k=0; k<weights.length; k++)
+                {
+                    chance += component.mineCounts[k][p]*weights[k];
+                }
+                this.probabilities[component.cells[p]] = (sum > 0) ? chance/sum : 0;
+            }
+        }
+    }
+    
+    /**
+     * Returns, for each number of mines k on the frontier, the number of ways
+     * of placing the other mines on the cells away from the frontier, all
+     * scaled by the same factor so they fit in a double. The factor makes the
+     * largest product with the ways of placing k mines on the frontier 1, as
+     * the two can peak far apart on large boards and underflow if each is
+     * scaled on its own.
+     * 
+     * @param minesLeft the number of mines not known
+     * @param numOther the number of cells away from the frontier
+     * @param frontier the scaled ways of placing k mines on the frontier, for
+     *                 as many mines as it can hold
+     * @param logOdds the log of the weight given to each mine on the frontier,
+     *                taken back off the ways for k mines
+     * @return the scaled number of ways, indexed by k
+     */
+    private double[] otherWays(final int minesLeft, final int numOther, final double[] frontier,
+                               final double logOdds)
+    {
+        double[] logWays = logWays(minesLeft, numOther, frontier.length - 1);
+        double max = Double.NEGATIVE_INFINITY;
+        for (int k=0; k<logWays.length; k++)
+        {
+            logWays[k] -= k*logOdds;
+            if (frontier[k] > 0)
+            {
+                max = Math.max(max, logWays[k] + Math.log(frontier[k]));
+            }
+        }
+        
+        double[] ways = new double[logWays.length];
+        for (int k=0; k<ways.length; k++)
+        {
+            ways[k] = (logWays[k] == Double.NEGATIVE_INFINITY) ? 0 : Math.exp(logWays[k] - max);
+        }
+        return ways;
+    }
+    
+    /**
+     * Returns, for each number of mines k from 0 to maxK, the natural log of
+     * the number of ways of placing the other minesLeft - k mines on n cells.
+     * Only the first is worked out in full, each of the rest follows from the
+     * one before, as C(n, r-1) = C(n, r)*r/(n-r+1).
+     * 
+     * @param minesLeft the number of mines not known
+     * @param n the number of cells to place the other mines on
+     * @param maxK the most mines placed elsewhere
+     * @return the log of the number of ways, indexed by k, negative infinity if none
+     */
+    static double[] logWays(final int minesLeft, final int n, final int maxK)
+    {
+        double[] logWays = new double[maxK + 1];
+        int first = Math.max(0, minesLeft - n);
+        for (int k=0; k<=maxK; k++)
+        {
+            int rest = minesLeft - k;
+            if (k < first || rest < 0)
+            {
+                logWays[k] = Double.NEGATIVE_INFINITY;
+            }
+            else if (k == first)
+            {
+                logWays[k] = logChoose(n, rest);
+            }
+            else
+            {
+                logWays[k] = logWays[k - 1] + Math.log(rest + 1) - Math.log(n - rest);
+            }
+        }
+        return logWays;
+    }
+    
+    /**
+     * Returns the natural log of n choose r
+     * 
+     * @param n the number of items
+     * @param r the number chosen
+     * @return the log of n choose r
+     */
+    private static double logChoose(final int n, final int r)
+    {
+        int smaller = Math.min(r, n - r);
+        double log = 0;
+        for (int i=0; i<smaller; i++)
+        {
+            log += Math.log(n - i) - Math.log(i + 1);
+        }
+        return log;
+    }
+    
+    /**
+     * Convolves two mine count distributions, scaling the result so its
+     * largest entry is 1
+     * 
+     * @param a the first distribution, indexed by number of mines
+     * @param b the second distribution, indexed by number of mines
+     * @param maxMines the largest number of mines to keep
+     * @return the combined distribution
+     */
+    private static double[] convolve(final double[] a, final double[] b, final int maxMines)
+    {
+        double[] result = new double[Math.max(1, Math.min(a.length + b.length - 1, maxMines + 1))];
+        double max = 0;
+        
+        for (int i=0; i<a.length && i<result.length; i++) {
+        for (int j=0; j<b.length && i+j<result.length; j++)
+        {
+            result[i+j] += a[i]*b[j];
+        }
+        }
+        
+        for (int k=0; k<result.length; k++)
+        {
+            max = Math.max(max, result[k]);
+        }
+        if (max > 0)
+        {
+            for (int k=0; k<result.length; k++)
+            {
+                result[k] /= max;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * A group of frontier cells linked by the numbers next to them, and the
+     * solutions found for it
+     */
+    private static class Component
+    {
+        /**
+         * The cells of this component, in the order they are assigned
+         */
+        int[] cells;
+        
+        /**
+         * For each number, the positions of its unknown neighbours in cells
+         */
+        int[][] constraints;
+        
+        /**
+         * For each number, how many of its unknown neighbours are mines
+         */
+        int[] needs;
+        
+        /**
+         * For each position in cells, the numbers it is next to
+         */
+        int[][] cellConstraints;
+        
+        /**
+         * The most mines a solution may use
+         */
+        int maxMines;
+        
+        /**
+         * The number of solutions using each number of mines
+         */
+        double[] counts;
+        
+        /**
+         * For each number of mines, the number of solutions with a mine at
+         * each position
+         */
+        double[][] mineCounts;
+        
+        /**
+         * Set when the search ran out of budget
+         */
+        volatile boolean aborted;
+        
+        /**
+         * Stores the cells and numbers of this component
+         * 
+         * @param _cells the cells of this component
+         * @param constraintList the positions of the unknown neighbours of each number
+         * @param needList the mines among the unknown neighbours of each number
+         */
+        void setUp(final int[] _cells, final List<int[]> constraintList, final List<Integer> needList)
+        {
+            this.cells = _cells;
+            this.constraints = constraintList.toArray(new int[constraintList.size()][]);
+            this.needs = new int[needList.size()];
+            
+            int[] numFor = new int[_cells.length];
+            for (int c=0; c<this.constraints.length; c++)
+            {
+                this.needs[c] = needList.get(c);
+                for (int p : this.constraints[c])
+                {
+                    numFor[p]++;
+                }
+            }
+            
+            this.cellConstraints = new int[_cells.length][];
+            for (int p=0; p<_cells.length; p++)
+            {
+                this.cellConstraints[p] = new int[numFor[p]];
+                numFor[p] = 0;
+            }
+            for (int c=0; c<this.constraints.length; c++)
+            {
+                for (int p : this.constraints[c])
+                {
+                    this.cellConstraints[p][numFor[p]++] = c;
+                }
+            }
+            
+            this.counts = new double[_cells.length + 1];
+            this.mineCounts = new double[_cells.length + 1][_cells.length];
+        }
+        
+        /**
+         * Adds the solutions found by one search task
+         * 
+         * @param _counts the number of solutions using each number of mines
+         * @param _mineCounts the number of solutions with a mine at each position
+         */
+        synchronized void add(final double[] _counts, final double[][] _mineCounts)
+        {
+            for (int k=0; k<_counts.length; k++)
+            {
+                if (_counts[k] == 0)
+                {
+                    continue;
+                }
+                this.counts[k] += _counts[k];
+                for (int p=0; p<this.cells.length; p++)
+                {
+                    this.mineCounts[k][p] += _mineCounts[k][p];
+                }
+            }
+        }
+        
+        /**
+         * Weighs the solutions with k mines by the given odds to the power k,
+         * then scales the solution counts so the largest is 1
+         * 
+         * @param logOdds the log of the weight given to each mine
+         * @return true if any solution was found, false otherwise
+         */
+        boolean normalize(final double logOdds)
+        {
+            double max = Double.NEGATIVE_INFINITY;
+            for (int k=0; k<this.counts.length; k++)
+            {
+                if (this.counts[k] > 0)
+                {
+                    max = Math.max(max, Math.log(this.counts[k]) + k*logOdds);
+                }
+            }
+            if (max == Double.NEGATIVE_INFINITY)
+            {
+                return false;
+            }
+            
+            for (int k=0; k<this.counts.length; k++)
+            {
+                double scale = Math.exp(k*logOdds - max);
+                this.counts[k] *= scale;
+                for (int p=0; p<this.cells.length; p++)
+                {
+                    this.mineCounts[k][p] *= scale;
+                }
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Counts the solutions of a component from a partial assignment of its
+     * cells, splitting into parallel tasks while many cells are left
+     */
+    private static class Search extends RecursiveAction
+    {
+        private Component component;
+        private long deadline;
+        
+        /**
+         * The first position not yet assigned
+         */
+        private int depth;
+        
+        /**
+         * The value at each assigned position
+         */
+        private byte[] values;
+        
+        /**
+         * For each number, the mines and unassigned cells among its neighbours
+         */
+        private int[] mines;
+        private int[] open;
+        
+        private int numMines;
+        
+        /**
+         * Constructor, creates a search of a whole component
+         * 
+         * @param _component the component to search
+         * @param _deadline when the search must stop, from System.nanoTime
+         */
+        Search(final Component _component, final long _deadline)
+        {
+            this.component = _component;
+            this.deadline = _deadline;
+            this.values = new byte[_component.cells.length];
+            this.mines = new int[_component.constraints.length];
+            this.open = new int[_component.constraints.length];
+            for (int c=0; c<this.open.length; c++)
+            {
+                this.open[c] = _component.constraints[c].length;
+            }
+        }
+        
+        /**
+         * Constructor, creates a search continuing from another one's state
+         * 
+         * @param other the search to copy
+         */
+        private Search(final Search other)
+        {
+            this.component = other.component;
+            this.deadline = other.deadline;
+            this.depth = other.depth;
+            this.values = other.values.clone();
+            this.mines = other.mines.clone();
+            this.open = other.open.clone();
+            this.numMines = other.numMines;
+        }
+        
+        @Override
+        protected void compute()
+        {
+            int numCells = this.component.cells.length;
+            
+            if (numCells - this.depth > SPLIT_CELLS && this.depth < SPLIT_DEPTH)
+            {
+                // Try both values at this position in parallel
+                List<Search> branches = new ArrayList<Search>();
+                for (int value=0; value<=1; value++)
+                {
+                    if (this.fits(this.depth, value))
+                    {
+                        Search branch = new Search(this);
+                        branch.assign(branch.depth, value);
+                        branch.depth++;
+                        branches.add(branch);
+                    }
+                }
+                invokeAll(branches);
+            }
+            else
+            {
+                this.search();
+            }
+        }
+        
+        /**
+         * Returns true if the given value can go at the given position
+         * 
+         * @param position the position
+         * @param value 0 for safe, 1 for a mine
+         * @return true if no number is broken, false otherwise
+         */
+        private boolean fits(final int position, final int value)
+        {
+            if (this.numMines + value > this.component.maxMines)
+            {
+                return false;
+            }
+            
+            for (int c : this.component.cellConstraints[position])
+            {
+                int m = this.mines[c] + value;
+                if (m > this.component.needs[c] || m + this.open[c] - 1 < this.component.needs[c])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /**
+         * Puts the given value at the given position
+         * 
+         * @param position the position
+         * @param value 0 for safe, 1 for a mine
+         */
+        private void assign(final int position, final int value)
+        {
+            this.values[position] = (byte) value;
+            this.numMines += value;
+            for (int c : this.component.cellConstraints[position])
+            {
+                this.mines[c] += value;
+                this.open[c]--;
+            }
+        }
+        
+        /**
+         * Takes the value back from the given position
+         * 
+         * @param position the position
+         */
+        private void unassign(final int position)
+        {
+            int value = this.values[position];
+            this.numMines -= value;
+            for (int c : this.component.cellConstraints[position])
+            {
+                this.mines[c] -= value;
+                this.open[c]++;
+            }
+        }
+        
+        /**
+         * Counts every solution from the current assignment, without recursion
+         * so large components can't overflow the stack
+         */
+        private void search()
+        {
+            int numCells = this.component.cells.length;
+            double[] counts = new double[numCells + 1];
+            double[][] mineCounts = new double[numCells + 1][numCells];
+            
+            if (this.depth == numCells)
+            {
+                counts[this.numMines]++;
+                this.record(mineCounts[this.numMines]);
+                this.component.add(counts, mineCounts);
+                return;
+            }
+            
+            int[] next = new int[numCells]; //next value to try at each position
+            boolean[] assigned = new boolean[numCells];
+            int start = this.depth;
+            int position = start;
+            long steps = 0;
+            
+            while (position >= start)
+            {
+                if (assigned[position])
+                {
+                    this.unassign(position);
+                    assigned[position] = false;
+                }
+                if (next[position] == 2)
+                {
+                    position--;
+                    continue;
+                }
+                
+                int value = next[position]++;
+                if ( ! this.fits(position, value))
+                {
+                    continue;
+                }
+                this.assign(position, value);
+                assigned[position] = true;
+                
+                if (position == numCells - 1)
+                {
+                    counts[this.numMines]++;
+                    this.record(mineCounts[this.numMines]);
+                }
+                else
+                {
+                    position++;
+                    next[position] = 0;
+                }
+                
+                // Give up if out of budget, or another task already has
+                if (++steps % CHECK_INTERVAL == 0
+                    && (this.component.aborted || System.nanoTime() > this.deadline))
+                {
+                    this.component.aborted = true;
+                    return;
+                }
+            }
+            
+            this.component.add(counts, mineCounts);
+        }
+        
+        /**
+         * Adds the current full assignment to the mine counts of each position
+         * 
+         * @param mineCounts the mine counts for the current number of mines
+         */
+        private void record(final double[] mineCounts)
+        {
+            for (int p=0; p<mineCounts.length; p++)
+            {
+                mineCounts[p] += this.values[p];
+            }
+        }
+    }
+}
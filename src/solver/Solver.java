@@ -0,0 +1,488 @@
+//********************************************
+// Deduces safe cells and mines from the visible board
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package solver;
+
+import model.Board;
+
+/**
+ * Deduces cells that are certainly safe or certainly mines from what the
+ * player can see: the numbers on the uncovered cells and which cells are
+ * still covered. Flags are ignored, since the player may have placed them
+ * wrongly. Each uncovered number is a constraint on its covered neighbours,
+ * reduced on its own (no mines left, or as many mines as cells) and against
+ * every overlapping constraint (subset and superset reduction). The solver
+ * is incremental: only the constraints touched by newly uncovered or newly
+ * deduced cells are looked at again.
+ */
+public class Solver
+{
+    /**
+     * What the solver knows about each cell
+     */
+    private static final byte UNKNOWN  = 0;
+    private static final byte SAFE     = 1;
+    private static final byte MINE     = 2;
+    private static final byte REVEALED = 3;
+    
+    private Board board;
+    private int width;
+    private int height;
+    
+    /**
+     * What the solver knows about each cell
+     */
+    private byte[] states;
+    
+    /**
+     * For each uncovered cell, the number of mines among its unknown neighbours
+     */
+    private byte[] remaining;
+    
+    /**
+     * For each uncovered cell, the number of its neighbours that are unknown
+     */
+    private byte[] numUnknown;
+    
+    /**
+     * The uncovered cells whose constraint has to be looked at again
+     */
+    private int[] queue = new int[64];
+    private int queueSize;
+    private boolean[] queued;
+    
+    /**
+     * The cells deduced to be safe, in the order they were found
+     */
+    private int[] safeCells = new int[64];
+    
+    private int numSafeCells;
+    /**
+     * Returns the number of cells deduced to be safe, uncovered or not
+     * 
+     * @return the number of cells deduced to be safe
+     */
+    public int getNumSafeCells() {return this.numSafeCells;}
+    
+    /**
+     * The first deduced safe cell that may still be covered
+     */
+    private int nextSafe;
+    
+    /**
+     * The cells deduced to be mines, in the order they were found
+     */
+    private int[] mineCells = new int[64];
+    
+    private int numMineCells;
+    /**
+     * Returns the number of cells deduced to be mines
+     * 
+     * @return the number of cells deduced to be mines
+     */
+    public int getNumMineCells() {return this.numMineCells;}
+    
+    /**
+     * Constructor, creates a solver for the given board and deduces what it
+     * can from the cells already uncovered
+     * 
+     * @param _board the board to solve
+     */
+    public Solver(final Board _board)
+    {
+        this.board = _board;
+        this.width = _board.getWidth();
+        this.height = _board.getHeight();
+        
+        int numCells = this.width*this.height;
+        this.states = new byte[numCells];
+        this.remaining = new byte[numCells];
+        this.numUnknown = new byte[numCells];
+        this.queued = new boolean[numCells];
+        
+        this.updateAll();
+    }
+    
+    /**
+     * Returns true if the given cell has been deduced to be safe or is uncovered
+     * 
+     * @param cell the index of the cell
+     * @return true if the cell is known to be safe, false otherwise
+     */
+    public boolean isSafe(final int cell)
+    {
+        return this.states[cell] == SAFE || this.states[cell] == REVEALED;
+    }
+    
+    /**
+     * Returns true if the given cell has been deduced to be a mine
+     * 
+     * @param cell the index of the cell
+     * @return true if the cell is known to be a mine, false otherwise
+     */
+    public boolean isMine(final int cell)
+    {
+        return this.states[cell] == MINE;
+    }
+    
+    /**
+     * Returns the cells deduced to be mines. Only the first getNumMineCells()
+     * entries are valid.
+     * 
+     * @return the cells deduced to be mines
+     */
+    public int[] getMineCells()
+    {
+        return this.mineCells;
+    }
+    
+    /**
+     * Returns the cells deduced to be safe, uncovered or not. Only the first
+     * getNumSafeCells() entries are valid.
+     * 
+     * @return the cells deduced to be safe
+     */
+    public int[] getSafeCells()
+    {
+        return this.safeCells;
+    }
+    
+    /**
+     * Returns a cell deduced to be safe that is still covered on the board
+     * 
+     * @return the index of a safe covered cell, -1 if none is known
+     */
+    public int findSafeCell()
+    {
+        while (this.nextSafe < this.numSafeCells)
+        {
+            int cell = this.safeCells[this.nextSafe];
+            if ( ! this.board.isUncovered(cell % this.width, cell / this.width))
+            {
+                return cell;
+            }
+            this.nextSafe++;
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Reads every uncovered cell on the board and deduces what it can
+     */
+    public void updateAll()
+    {
+        if (this.board.isExploded())
+        {
+            return;
+        }
+        
+        for (int row=0; row<this.height; row++) {
+        for (int col=0; col<this.width; col++)
+        {
+            if (this.board.isUncovered(col, row))
+            {
+                this.markRevealed(row*this.width + col);
+            }
+        }
+        }
+        
+        this.propagate();
+    }
+    
+    /**
+     * Reads the cells uncovered by the last uncover or uncoverAdjacent on the
+     * board and deduces what it can from them
+     */
+    public void update()
+    {
+        this.update(this.board.getRevealedCells(), this.board.getNumRevealed());
+    }
+    
+    /**
+     * Reads the given newly uncovered cells and deduces what it can from them
+     * 
+     * @param cells the cells that have been uncovered
+     * @param numCells the number of cells that have been uncovered
+     */
+    public void update(final int[] cells, final int numCells)
+    {
+        if (this.board.isExploded())
+        {
+            return;
+        }
+        
+        for (int i=0; i<numCells; i++)
+        {
+            this.markRevealed(cells[i]);
+        }
+        
+        this.propagate();
+    }
+    
+    /**
+     * Records that a cell has been uncovered, removing it from the constraints
+     * of its neighbours and adding its own constraint
+     * 
+     * @param cell the index of the cell
+     */
+    private void markRevealed(final int cell)
+    {
+        byte previous = this.states[cell];
+        if (previous == REVEALED)
+        {
+            return;
+        }
+        this.states[cell] = REVEALED;
+        
+        int col = cell % this.width;
+        int row = cell / this.width;
+        int unknown = 0;
+        int mines = 0;
+        
+        // For each surrounding cell
+        for (int r=Math.max(0, row-1); r<=Math.min(this.height-1, row+1); r++) {
+        for (int c=Math.max(0, col-1); c<=Math.min(this.width-1, col+1); c++)
+        {
+            int neighbour = r*this.width + c;
+            byte state = this.states[neighbour];
+            
+            if (state == UNKNOWN)
+            {
+                unknown++;
+            }
+            else if (state == MINE)
+            {
+                mines++;
+            }
+            else if (state == REVEALED && neighbour != cell && previous == UNKNOWN)
+            {
+                this.numUnknown[neighbour]--;
+                this.enqueue(neighbour);
+            }
+        }
+        }
+        
+        this.numUnknown[cell] = (byte) unknown;
+        this.remaining[cell] = (byte) (this.board.getValue(col, row) - mines);
+        this.enqueue(cell);
+    }
+    
+    /**
+     * Records that a cell has been deduced to be safe or a mine, removing it
+     * from the constraints of its neighbours
+     * 
+     * @param cell the index of the cell
+     * @param state SAFE or MINE
+     */
+    private void markKnown(final int cell, final byte state)
+    {
+        this.states[cell] = state;
+        if (state == MINE)
+        {
+            this.mineCells = this.append(this.mineCells, this.numMineCells++, cell);
+        }
+        else
+        {
+            this.safeCells = this.append(this.safeCells, this.numSafeCells++, cell);
+        }
+        
+        int col = cell % this.width;
+        int row = cell / this.width;
+        
+        // For each surrounding cell
+        for (int r=Math.max(0, row-1); r<=Math.min(this.height-1, row+1); r++) {
+        for (int c=Math.max(0, col-1); c<=Math.min(this.width-1, col+1); c++)
+        {
+            int neighbour = r*this.width + c;
+            if (this.states[neighbour] == REVEALED)
+            {
+                this.numUnknown[neighbour]--;
+                if (state == MINE)
+                {
+                    this.remaining[neighbour]--;
+                }
+                this.enqueue(neighbour);
+            }
+        }
+        }
+    }
+    
+    /**
+     * Adds an uncovered cell to the constraints to look at again
+     * 
+     * @param cell the index of the cell
+     */
+    private void enqueue(final int cell)
+    {
+        if ( ! this.queued[cell])
+        {
+            this.queued[cell] = true;
+            this.queue = this.append(this.queue, this.queueSize++, cell);
+        }
+    }
+    
+    /**
+     * Stores a value at the given position of an array, growing it if needed
+     * 
+     * @param array the array
+     * @param index the position to store the value at
+     * @param value the value to store
+     * @return the array, or a larger copy of it
+     */
+    private int[] append(final int[] array, final int index, final int value)
+    {
+        int[] result = array;
+        if (index == array.length)
+        {
+            result = new int[array.length*2];
+            System.arraycopy(array, 0, result, 0, index);
+        }
+        result[index] = value;
+        return result;
+    }
+    
+    /**
+     * Looks at the queued constraints until no more can be deduced
+     */
+    private void propagate()
+    {
+        int[] cellsA = new int[8];
+        int[] cellsB = new int[8];
+        
+        while (this.queueSize > 0)
+        {
+            int a = this.queue[--this.queueSize];
+            this.queued[a] = false;
+            
+            if (this.numUnknown[a] > 0)
+            {
+                this.reduce(a, cellsA, cellsB);
+            }
+        }
+    }
+    
+    /**
+     * Deduces what it can from the constraint of an uncovered cell, on its own
+     * and against the constraint of every uncovered cell it overlaps
+     * 
+     * @param a the index of the uncovered cell
+     * @param cellsA space for the unknown neighbours of a
+     * @param cellsB space for the unknown neighbours of another cell
+     */
+    private void reduce(final int a, final int[] cellsA, final int[] cellsB)
+    {
+        int numA = this.unknownNeighbours(a, cellsA);
+        
+        // No mines left, or as many mines as cells
+        if (this.remaining[a] == 0 || this.remaining[a] == numA)
+        {
+            byte state = (this.remaining[a] == 0) ? SAFE : MINE;
+            for (int i=0; i<numA; i++)
+            {
+                this.markKnown(cellsA[i], state);
+            }
+            return;
+        }
+        
+        int colA = a % this.width;
+        int rowA = a / this.width;
+        
+        // For each uncovered cell whose neighbours may overlap
+        for (int r=Math.max(0, rowA-2); r<=Math.min(this.height-1, rowA+2); r++) {
+        for (int c=Math.max(0, colA-2); c<=Math.min(this.width-1, colA+2); c++)
+        {
+            int b = r*this.width + c;
+            if (b == a || this.states[b] != REVEALED || this.numUnknown[b] == 0)
+            {
+                continue;
+            }
+            
+            int shared = 0;
+            for (int i=0; i<numA; i++)
+            {
+                if (Math.abs(cellsA[i] % this.width - c) <= 1 && Math.abs(cellsA[i] / this.width - r) <= 1)
+                {
+                    shared++;
+                }
+            }
+            
+            int onlyA = numA - shared;
+            int onlyB = this.numUnknown[b] - shared;
+            if (shared == 0 || (onlyA == 0 && onlyB == 0))
+            {
+                continue;
+            }
+            
+            // If the cells only next to b must hold every mine b has beyond
+            // a's, they are all mines and the cells only next to a are safe
+            if (this.remaining[b] - this.remaining[a] == onlyB)
+            {
+                this.markDifference(b, a, MINE, cellsB);
+                this.markDifference(a, b, SAFE, cellsB);
+                return;
+            }
+            else if (this.remaining[a] - this.remaining[b] == onlyA)
+            {
+                this.markDifference(a, b, MINE, cellsB);
+                this.markDifference(b, a, SAFE, cellsB);
+                return;
+            }
+        }
+        }
+    }
+    
+    /**
+     * Marks the unknown neighbours of one cell that aren't neighbours of another
+     * 
+     * @param from the cell whose neighbours are marked
+     * @param other the cell whose neighbours are left alone
+     * @param state SAFE or MINE
+     * @param cells space for the unknown neighbours of from
+     */
+    private void markDifference(final int from, final int other, final byte state, final int[] cells)
+    {
+        int colOther = other % this.width;
+        int rowOther = other / this.width;
+        int num = this.unknownNeighbours(from, cells);
+        
+        for (int i=0; i<num; i++)
+        {
+            if (Math.abs(cells[i] % this.width - colOther) > 1 || Math.abs(cells[i] / this.width - rowOther) > 1)
+            {
+                this.markKnown(cells[i], state);
+            }
+        }
+    }
+    
+    /**
+     * Finds the unknown neighbours of a cell
+     * 
+     * @param cell the index of the cell
+     * @param cells where to store the unknown neighbours
+     * @return the number of unknown neighbours
+     */
+    private int unknownNeighbours(final int cell, final int[] cells)
+    {
+        int col = cell % this.width;
+        int row = cell / this.width;
+        int num = 0;
+        
+        // For each surrounding cell
+        for (int r=Math.max(0, row-1); r<=Math.min(this.height-1, row+1); r++) {
+        for (int c=Math.max(0, col-1); c<=Math.min(this.width-1, col+1); c++)
+        {
+            int neighbour = r*this.width + c;
+            if (this.states[neighbour] == UNKNOWN)
+            {
+                cells[num++] = neighbour;
+            }
+        }
+        }
+        
+        return num;
+    }
+}
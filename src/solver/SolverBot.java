@@ -0,0 +1,76 @@
+//********************************************
+// A bot that plays with the Solver and guesses with the ProbabilityEngine
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package solver;
+
+import model.Board;
+
+/**
+ * A bot that plays with the Solver, uncovering every cell it is certain of,
+ * and guesses the cell the ProbabilityEngine finds least likely to be a mine
+ * when it is stuck. The first move is the middle of the board.
+ */
+public class SolverBot implements Bot
+{
+    /**
+     * The default time allowed for working out a guess, in milliseconds
+     */
+    public static final long DEFAULT_BUDGET = 50;
+    
+    private long budget = DEFAULT_BUDGET;
+    /**
+     * Returns the time allowed for working out a guess, in milliseconds
+     * 
+     * @return the time allowed for working out a guess, in milliseconds
+     */
+    public long getBudget() {return this.budget;}
+    
+    /**
+     * Sets the time allowed for working out a guess
+     * 
+     * @param _budget the time allowed for working out a guess, in milliseconds
+     */
+    public void setBudget(final long _budget) {this.budget = _budget;}
+    
+    private Board board;
+    private Solver solver;
+    
+    @Override
+    public void newGame(final Board _board)
+    {
+        this.board = _board;
+        this.solver = null;
+    }
+    
+    @Override
+    public int nextMove()
+    {
+        if ( ! this.board.areMinesAdded())
+        {
+            return this.board.getCell(this.board.getWidth() / 2, this.board.getHeight() / 2);
+        }
+        
+        if (this.solver == null)
+        {
+            this.solver = new Solver(this.board);
+        }
+        else
+        {
+            this.solver.update();
+        }
+        
+        int cell = this.solver.findSafeCell();
+        if (cell != -1)
+        {
+            return cell;
+        }
+        
+        ProbabilityEngine engine = new ProbabilityEngine(this.board, this.solver);
+        engine.setBudget(this.budget);
+        engine.compute();
+        return engine.findBestGuess();
+    }
+}
@@ -9,7 +9,6 @@ package ui;
 import java.awt.event.*;
 import java.awt.*;
 import javax.swing.*;
-import data.SingleTime;
 import impl.BestTimes;
 
 /**
@@ -93,12 +92,12 @@ public class BestTimesDialog extends JDialog implements ActionListener
             c.anchor = GridBagConstraints.CENTER;
 
             c.gridy = i+1;
-            this.add(new JLabel(((SingleTime)this.bestTimesObj.getBestTimes().get(i)).getTime()+" seconds"), c);
+            this.add(new JLabel(String.format("%.3f seconds", this.bestTimesObj.getBestTimes().get(i).getTime() / 1000.0)), c);
             
             c.gridx = 2;
         
             c.gridy = i+1;
-            this.add(new JLabel(((SingleTime)this.bestTimesObj.getBestTimes().get(i)).getName()), c);
+            this.add(new JLabel(this.bestTimesObj.getBestTimes().get(i).getName()), c);
         }
         
         this.pack();
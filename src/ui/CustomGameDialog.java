@@ -47,6 +47,14 @@ public class CustomGameDialog extends JDialog implements ActionListener, WindowL
     private JTextField heightField = new JTextField(5);
     private JTextField numMinesField = new JTextField(5);
     
+    /**
+     * The largest grid allowed, painted grids can be much larger than tiled ones
+     */
+    private int maxWidth = 30;
+    private int maxHeight = 24;
+    private int maxNumMines = 668;
+    private boolean painted = false;
+    
     /**
      * Constructor, creates a new custom game dialog
      * 
@@ -61,6 +69,14 @@ public class CustomGameDialog extends JDialog implements ActionListener, WindowL
         this.widthVal = main.getMineGrid().getGridWidth();
         this.heightVal = main.getMineGrid().getGridHeight();
         this.numMinesVal = main.getMineGrid().getNumMines();
+        
+        if (main.getMineGrid().isPainted())
+        {
+            this.painted = true;
+            this.maxWidth = 500;
+            this.maxHeight = 500;
+            this.maxNumMines = (this.maxWidth - 1)*(this.maxHeight - 1);
+        }
 
         // Set the default dialog field values
         this.widthField.setText(""+this.widthVal);
@@ -94,11 +110,11 @@ public class CustomGameDialog extends JDialog implements ActionListener, WindowL
         c.anchor = GridBagConstraints.EAST;
 
         c.gridy = 0;
-        this.add(new JLabel("Width (9-30):"),c);
+        this.add(new JLabel("Width (9-"+this.maxWidth+"):"),c);
         c.gridy = 1;
-        this.add(new JLabel("Height (9-24):"),c);
+        this.add(new JLabel("Height (9-"+this.maxHeight+"):"),c);
         c.gridy = 2;
-        this.add(new JLabel("Mines (10-668):"),c);
+        this.add(new JLabel("Mines (10-"+this.maxNumMines+"):"),c);
 
         c.gridx = 1;
         c.gridy = GridBagConstraints.RELATIVE;
@@ -143,20 +159,24 @@ public class CustomGameDialog extends JDialog implements ActionListener, WindowL
             this.widthVal = Integer.decode(widthField.getText()).intValue();
             if (this.widthVal < 9)
                 this.widthVal = 9;
-            else if (this.widthVal > 30)
-                this.widthVal = 30;
+            else if (this.widthVal > this.maxWidth)
+                this.widthVal = this.maxWidth;
             
             this.heightVal = Integer.decode(heightField.getText()).intValue();
             if (this.heightVal < 9)
                 this.heightVal = 9;
-            else if (this.heightVal > 24)
-                this.heightVal = 24;
+            else if (this.heightVal > this.maxHeight)
+                this.heightVal = this.maxHeight;
             
             this.numMinesVal = Integer.decode(numMinesField.getText()).intValue();
             if (this.numMinesVal < 10)
                 this.numMinesVal = 10;
-            else if (this.numMinesVal > 668)
-                this.numMinesVal = 668;
+            else if (this.numMinesVal > this.maxNumMines)
+                this.numMinesVal = this.maxNumMines;
+            
+            // Painted grids leave room for the first click whatever their size
+            if (this.painted && this.numMinesVal > (this.widthVal - 1)*(this.heightVal - 1))
+                this.numMinesVal = (this.widthVal - 1)*(this.heightVal - 1);
         }
         catch(NumberFormatException e)
         {
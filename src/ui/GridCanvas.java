@@ -0,0 +1,280 @@
+//********************************************
+// Paints the whole grid as a single component
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package ui;
+
+import java.awt.*;
+import javax.swing.*;
+import javax.swing.plaf.basic.BasicGraphicsUtils;
+import model.Board;
+
+/**
+ * Paints the whole grid as a single component, drawing each cell straight
+ * from the board instead of using a component per tile. Only the cells that
+ * changed are repainted. The mouse is handled by the mine grid.
+ */
+public class GridCanvas extends JComponent
+{
+    private static final int SIZE = TileStyles.SIZE; //size of a cell in pixels
+    private MineGrid grid;
+    
+    /**
+     * The cell being pressed with the left mouse button, -1 if none
+     */
+    private int pressedCell = -1;
+    
+    /**
+     * The icons drawn on the cells
+     */
+    private Icon flagIcon;
+    private Icon mineIcon;
+    private Icon notMineIcon;
+    
+    /**
+     * Constructor, creates a new canvas for the given mine grid
+     * 
+     * @param _grid the mine grid that this canvas belongs to
+     */
+    public GridCanvas(final MineGrid _grid)
+    {
+        this.grid = _grid;
+        this.setOpaque(true);
+        this.setFont(UIManager.getFont("Label.font"));
+        
+        this.flagIcon = IconCache.getIcon(this.grid.getMainFrame().RES_FLAG);
+        this.mineIcon = IconCache.getIcon(this.grid.getMainFrame().RES_MINE);
+        this.notMineIcon = IconCache.getIcon(this.grid.getMainFrame().RES_NOT_MINE);
+    }
+    
+    @Override
+    public Dimension getPreferredSize()
+    {
+        Board board = this.grid.getBoard();
+        return new Dimension(board.getWidth()*SIZE, board.getHeight()*SIZE);
+    }
+    
+    /**
+     * Returns the cell under the given point, -1 if the point is outside the grid
+     * 
+     * @param p the point, relative to this canvas
+     * @return the cell under the point, -1 if none
+     */
+    public int cellAt(final Point p)
+    {
+        Board board = this.grid.getBoard();
+        int col = p.x / SIZE;
+        int row = p.y / SIZE;
+        
+        if (p.x < 0 || p.y < 0 || col >= board.getWidth() || row >= board.getHeight())
+        {
+            return -1;
+        }
+        return board.getCell(col, row);
+    }
+    
+    /**
+     * Repaints a single cell
+     * 
+     * @param cell the cell to repaint
+     */
+    public void repaintCell(final int cell)
+    {
+        if (cell != -1)
+        {
+            Board board = this.grid.getBoard();
+            this.repaint(board.getCol(cell)*SIZE, board.getRow(cell)*SIZE, SIZE, SIZE);
+        }
+    }
+    
+    /**
+     * Repaints the given cells with a single repaint of the rectangle around them
+     * 
+     * @param cells the cells to repaint
+     * @param numCells the number of cells to repaint
+     */
+    public void repaintCells(final int[] cells, final int numCells)
+    {
+        if (numCells == 0)
+        {
+            return;
+        }
+        
+        Board board = this.grid.getBoard();
+        int minCol = Integer.MAX_VALUE, minRow = Integer.MAX_VALUE;
+        int maxCol = -1, maxRow = -1;
+        
+        for (int i=0; i<numCells; i++)
+        {
+            int col = board.getCol(cells[i]);
+            int row = board.getRow(cells[i]);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+        }
+        
+        this.repaint(minCol*SIZE, minRow*SIZE, (maxCol - minCol + 1)*SIZE, (maxRow - minRow + 1)*SIZE);
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g)
+    {
+        Board board = this.grid.getBoard();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null)
+        {
+            clip = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+        }
+        
+        g.setColor(TileStyles.BACKGROUND);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        
+        // Only paint the cells inside the clip
+        int firstCol = Math.max(0, clip.x / SIZE);
+        int firstRow = Math.max(0, clip.y / SIZE);
+        int lastCol = Math.min(board.getWidth() - 1, (clip.x + clip.width - 1) / SIZE);
+        int lastRow = Math.min(board.getHeight() - 1, (clip.y + clip.height - 1) / SIZE);
+        
+        FontMetrics metrics = g.getFontMetrics();
+        boolean gameOver = this.grid.getMainFrame().isGameOver();
+        
+        for (int row=firstRow; row<=lastRow; row++) {
+        for (int col=firstCol; col<=lastCol; col++)
+        {
+            this.paintCell(g, metrics, board, gameOver, col, row);
+        }
+        }
+    }
+    
+    /**
+     * Paints a single cell
+     * 
+     * @param g the graphics to paint with
+     * @param metrics the metrics of the font used for numbers
+     * @param board the board being painted
+     * @param gameOver true if the game is over
+     * @param col the column of the cell
+     * @param row the row of the cell
+     */
+    private void paintCell(final Graphics g, final FontMetrics metrics, final Board board,
+                           final boolean gameOver, final int col, final int row)
+    {
+        int x = col*SIZE;
+        int y = row*SIZE;
+        int cell = board.getCell(col, row);
+        boolean mine = board.isMine(col, row);
+        boolean flagged = board.isFlagged(col, row);
+        
+        if (gameOver && mine && ! flagged)
+        {
+            // BOOOOOOM!!!!
+            if (board.getExplodedCell() == cell)
+            {
+                g.setColor(TileStyles.EXPLODED);
+                g.fillRect(x, y, SIZE, SIZE);
+            }
+            this.paintImpressed(g, x, y);
+            this.paintIcon(g, this.mineIcon, x, y);
+        }
+        else if (gameOver && ! mine && flagged)
+        {
+            this.paintImpressed(g, x, y);
+            this.paintIcon(g, this.notMineIcon, x, y);
+        }
+        else if (board.isUncovered(col, row))
+        {
+            this.paintImpressed(g, x, y);
+            
+            int value = board.getValue(col, row);
+            if (value > 0)
+            {
+                g.setColor(TileStyles.getNumberColor(value));
+                String text = TileStyles.getNumberText(value);
+                g.drawString(text,
+                    x + (SIZE - metrics.stringWidth(text)) / 2,
+                    y + (SIZE - metrics.getHeight()) / 2 + metrics.getAscent());
+            }
+        }
+        else if (flagged)
+        {
+            this.paintDepressed(g, x, y);
+            this.paintIcon(g, this.flagIcon, x, y);
+        }
+        else if (cell == this.pressedCell)
+        {
+            this.paintImpressed(g, x, y);
+        }
+        else
+        {
+            this.paintDepressed(g, x, y);
+        }
+    }
+    
+    /**
+     * Paints a cell that looks impressed
+     * 
+     * @param g the graphics to paint with
+     * @param x the left of the cell
+     * @param y the top of the cell
+     */
+    private void paintImpressed(final Graphics g, final int x, final int y)
+    {
+        g.setColor(TileStyles.SHADOW);
+        g.drawLine(x, y, x + SIZE - 1, y);
+        g.drawLine(x, y, x, y + SIZE - 1);
+    }
+    
+    /**
+     * Paints a cell that looks depressed
+     * 
+     * @param g the graphics to paint with
+     * @param x the left of the cell
+     * @param y the top of the cell
+     */
+    private void paintDepressed(final Graphics g, final int x, final int y)
+    {
+        BasicGraphicsUtils.drawBezel(g, x, y, SIZE, SIZE, false, false,
+            TileStyles.SHADOW, //shadow
+            TileStyles.SHADOW, //darkShadow
+            Color.white, //highlight
+            Color.white //lightHighlight
+        );
+    }
+    
+    /**
+     * Paints an icon in the center of a cell
+     * 
+     * @param g the graphics to paint with
+     * @param icon the icon to paint
+     * @param x the left of the cell
+     * @param y the top of the cell
+     */
+    private void paintIcon(final Graphics g, final Icon icon, final int x, final int y)
+    {
+        icon.paintIcon(this, g,
+            x + (SIZE - icon.getIconWidth()) / 2,
+            y + (SIZE - icon.getIconHeight()) / 2);
+    }
+    
+    /**
+     * Makes the given cell look pressed or not
+     * 
+     * @param cell the cell, -1 for none
+     * @param pressed true to look pressed, false to go back to normal
+     */
+    public void setCellPressed(final int cell, final boolean pressed)
+    {
+        if (pressed)
+        {
+            this.pressedCell = cell;
+        }
+        else if (cell == this.pressedCell)
+        {
+            this.pressedCell = -1;
+        }
+        this.repaintCell(cell);
+    }
+}
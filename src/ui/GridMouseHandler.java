@@ -0,0 +1,142 @@
+//********************************************
+// Handles the mouse for the whole grid
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package ui;
+
+import java.awt.event.*;
+import javax.swing.SwingUtilities;
+import model.Board;
+
+/**
+ * Handles the mouse for the whole grid. A single handler maps the mouse
+ * position to a cell, keeps track of the pressed cell while a button is held
+ * and acts on the cell under the mouse when the button is released.
+ */
+public class GridMouseHandler extends MouseAdapter
+{
+    private MineGrid grid;
+    
+    /**
+     * The cell being pressed with the left mouse button, -1 if none
+     */
+    private int pressedCell = -1;
+    
+    /**
+     * Constructor, creates a new mouse handler for the given mine grid
+     * 
+     * @param _grid the mine grid that this handler acts on
+     */
+    public GridMouseHandler(final MineGrid _grid)
+    {
+        this.grid = _grid;
+    }
+    
+    /**
+     * Returns the cell under the mouse for the given event
+     * 
+     * @param e the mouse event
+     * @return the cell under the mouse, -1 if the mouse is outside the grid
+     */
+    private int cellAt(final MouseEvent e)
+    {
+        return this.grid.cellAt(e.getComponent(), e.getPoint());
+    }
+    
+    /**
+     * Presses the given cell if it can be uncovered, releasing any other
+     * 
+     * @param cell the cell to press, -1 for none
+     */
+    private void setPressedCell(final int cell)
+    {
+        Board board = this.grid.getBoard();
+        int pressable = cell;
+        if (cell != -1 && (board.isUncovered(board.getCol(cell), board.getRow(cell))
+                           || board.isFlagged(board.getCol(cell), board.getRow(cell))))
+        {
+            pressable = -1;
+        }
+        
+        if (pressable != this.pressedCell)
+        {
+            this.grid.setCellPressed(this.pressedCell, false);
+            this.pressedCell = pressable;
+            this.grid.setCellPressed(this.pressedCell, true);
+        }
+    }
+    
+    @Override
+    public void mousePressed(MouseEvent e)
+    {
+        // The player's clicks would change the replay being played
+        if (this.grid.getMainFrame().isGameOver() || this.grid.isReplayPlaying())
+        {
+            return;
+        }
+        
+        if (SwingUtilities.isLeftMouseButton(e))
+        {
+            this.setPressedCell(this.cellAt(e));
+            this.grid.getMainFrame().setSmileyIcon(this.grid.getMainFrame().RES_SMILEY_NERVOUS);
+        }
+        else if (SwingUtilities.isMiddleMouseButton(e))
+        {
+            this.grid.getMainFrame().setSmileyIcon(this.grid.getMainFrame().RES_SMILEY_NERVOUS);
+        }
+    }
+    
+    @Override
+    public void mouseDragged(MouseEvent e)
+    {
+        if ( ! this.grid.getMainFrame().isGameOver() && ! this.grid.isReplayPlaying()
+            && SwingUtilities.isLeftMouseButton(e))
+        {
+            this.setPressedCell(this.cellAt(e));
+        }
+    }
+    
+    @Override
+    public void mouseReleased(MouseEvent e)
+    {
+        if (this.grid.getMainFrame().isGameOver() || this.grid.isReplayPlaying())
+        {
+            return;
+        }
+        
+        this.grid.getMainFrame().setSmileyIcon(this.grid.getMainFrame().RES_SMILEY_NORMAL);
+        this.setPressedCell(-1);
+        
+        // Released outside the grid, nothing to act on
+        int cell = this.cellAt(e);
+        if (cell == -1)
+        {
+            return;
+        }
+        
+        Board board = this.grid.getBoard();
+        int col = board.getCol(cell);
+        int row = board.getRow(cell);
+        
+        if (SwingUtilities.isLeftMouseButton(e))
+        {
+            if ( ! board.isUncovered(col, row) && ! board.isFlagged(col, row))
+            {
+                this.grid.tileUncovered(col, row);
+            }
+        }
+        else if (SwingUtilities.isRightMouseButton(e))
+        {
+            if ( ! board.isUncovered(col, row))
+            {
+                this.grid.toggleFlagged(col, row);
+            }
+        }
+        else if (SwingUtilities.isMiddleMouseButton(e))
+        {
+            this.grid.uncoverAdjacentTiles(col, row);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+//********************************************
+// Loads each icon once and shares it
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package ui;
+
+import java.util.HashMap;
+import javax.swing.ImageIcon;
+
+/**
+ * Loads each icon once and shares it, so painting a tile or changing the
+ * smiley never reloads an image
+ */
+public class IconCache
+{
+    /**
+     * The icons loaded so far, by path
+     */
+    private static HashMap<String, ImageIcon> icons = new HashMap<String, ImageIcon>();
+    
+    private static long hits;
+    /**
+     * Returns the number of times an icon was found already loaded
+     * 
+     * @return the number of times an icon was found already loaded
+     */
+    public static synchronized long getHits() {return hits;}
+    
+    private static long misses;
+    /**
+     * Returns the number of times an icon had to be loaded
+     * 
+     * @return the number of times an icon had to be loaded
+     */
+    public static synchronized long getMisses() {return misses;}
+    
+    /**
+     * Returns the shared icon for the given path, loading it the first time
+     * 
+     * @param path the path of the image
+     * @return the shared icon
+     */
+    public static synchronized ImageIcon getIcon(final String path)
+    {
+        ImageIcon icon = icons.get(path);
+        
+        if (icon == null)
+        {
+            misses++;
+            icon = new ImageIcon(path);
+            icons.put(path, icon);
+        }
+        else
+        {
+            hits++;
+        }
+        
+        return icon;
+    }
+    
+    /**
+     * Loads all the given icons, so they are ready before they are first shown
+     * 
+     * @param paths the paths of the images
+     */
+    public static void preload(final String... paths)
+    {
+        for (int i=0; i<paths.length; i++)
+        {
+            getIcon(paths[i]);
+        }
+    }
+}
@@ -7,8 +7,18 @@
 package ui;
 
 import javax.swing.*;
+import java.awt.Cursor;
 import java.awt.event.*;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import data.Snapshot;
 import impl.Minesweeper;
+import model.Board;
+import solver.Estimate;
+import solver.MonteCarloEstimator;
+import solver.ProbabilityEngine;
+import solver.Solver;
 
 /**
  * The top menu bar for the game
@@ -36,6 +46,10 @@ public class MenuBar extends JMenuBar implements ActionListener
         gameMenu.add(newGameItem);
         newGameItem.addActionListener(this);
         
+        JMenuItem hintItem = new JMenuItem("Hint");
+        gameMenu.add(hintItem);
+        hintItem.addActionListener(this);
+        
         gameMenu.addSeparator();
         
         JRadioButtonMenuItem beginnerItem = new JRadioButtonMenuItem("Beginner", (this.main.getDifficulty()==this.main.BEGINNER) ? true : false);
@@ -57,12 +71,23 @@ public class MenuBar extends JMenuBar implements ActionListener
         customItem.addActionListener(this);
         customItem.setActionCommand("Custom");
         
+        gameMenu.addSeparator();
+        
+        JCheckBoxMenuItem noGuessItem = new JCheckBoxMenuItem("No Guessing", this.main.getMineGrid().isNoGuess());
+        gameMenu.add(noGuessItem);
+        noGuessItem.addActionListener(this);
+        
         gameMenu.addSeparator();
 
         JMenuItem bestTimesItem = new JMenuItem("Best Times...");
         gameMenu.add(bestTimesItem);
         bestTimesItem.addActionListener(this);
         bestTimesItem.setActionCommand("Best Times");
+        
+        JMenuItem statisticsItem = new JMenuItem("Statistics...");
+        gameMenu.add(statisticsItem);
+        statisticsItem.addActionListener(this);
+        statisticsItem.setActionCommand("Statistics");
                 
         gameMenu.addSeparator();
         
@@ -87,6 +112,92 @@ public class MenuBar extends JMenuBar implements ActionListener
         aboutItem.setActionCommand("About");
     }
     
+    /**
+     * Points out the guess least likely to hit a mine, sampling if the board is
+     * too large to work out exactly. The chances are worked out on a copy of
+     * the board away from the event thread, and the hint is dropped if the
+     * game has moved on by the time they are known.
+     */
+    private void findSafestGuess()
+    {
+        final MineGrid grid = this.main.getMineGrid();
+        final Board live = grid.getBoard();
+        final int[] clicks = grid.getNumClicks().clone();
+        final Snapshot snapshot = new Snapshot(this.main.getDifficulty(), live, 0, clicks);
+        
+        this.main.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<String, Void>()
+        {
+            @Override
+            protected String doInBackground()
+            {
+                Board board = Board.create(Board.ARRAY, snapshot.getWidth(), snapshot.getHeight(),
+                                           snapshot.getNumMines(), new Random());
+                snapshot.restore(board);
+                Solver solver = new Solver(board);
+                
+                ProbabilityEngine engine = new ProbabilityEngine(board, solver);
+                engine.compute();
+                int guess;
+                double chance;
+                if (engine.isExact())
+                {
+                    guess = engine.findBestGuess();
+                    chance = (guess == -1) ? 0 : engine.getProbability(guess);
+                }
+                else
+                {
+                    Estimate estimate = new MonteCarloEstimator(board, solver).run(1000, System.nanoTime());
+                    guess = estimate.findBestGuess();
+                    chance = (guess == -1) ? 0 : estimate.getProbability(guess);
+                }
+                
+                if (guess == -1)
+                {
+                    return "Uncover any tile to start the game.";
+                }
+                return "There is no certain move, you will have to guess.\n" +
+                       "The safest guess is column " + (guess % board.getWidth() + 1) +
+                       ", row " + (guess / board.getWidth() + 1) + ", with " +
+                       (engine.isExact() ? "a " : "about a ") +
+                       Math.round(chance*100) + "% chance of a mine.";
+            }
+            
+            @Override
+            protected void done()
+            {
+                main.setCursor(Cursor.getDefaultCursor());
+                if (grid.getBoard() != live || main.isGameOver()
+                    || ! Arrays.equals(clicks, grid.getNumClicks()))
+                {
+                    return;
+                }
+                
+                try
+                {
+                    showHint(get());
+                }
+                catch (InterruptedException e) {}
+                catch (ExecutionException e) {}
+            }
+        }.execute();
+    }
+    
+    /**
+     * Shows a hint in a message box
+     * 
+     * @param message the hint
+     */
+    private void showHint(final String message)
+    {
+        JOptionPane.showMessageDialog(
+            this.main,
+            message,
+            "Hint", 
+            JOptionPane.INFORMATION_MESSAGE
+        );
+    }
+    
     @Override
     public void actionPerformed(ActionEvent e)
     {
@@ -118,12 +229,42 @@ public class MenuBar extends JMenuBar implements ActionListener
         {
             this.main.newGame();
         }
+        else if ("Hint".equals(cmd))
+        {
+            // A hint would change the replay being played, like a click
+            if (this.main.getMineGrid().isReplayPlaying())
+            {
+                return;
+            }
+            
+            if ( ! this.main.getMineGrid().giveHint() && ! this.main.isGameOver())
+            {
+                if ( ! this.main.getMineGrid().areMinesAdded())
+                {
+                    this.showHint("Uncover any tile to start the game.");
+                }
+                else
+                {
+                    this.findSafestGuess();
+                }
+            }
+        }
+        else if ("No Guessing".equals(cmd))
+        {
+            this.main.getMineGrid().setNoGuess(((JCheckBoxMenuItem) e.getSource()).isSelected());
+        }
         else if ("Best Times".equals(cmd))
         {
             this.main.getBestTimesObj().displayBestTimes();
         }
+        else if ("Statistics".equals(cmd))
+        {
+            StatisticsDialog.display(this.main);
+        }
         else if ("Exit".equals(cmd))
         {
+            this.main.saveGame();
+            this.main.getMineGrid().finishReplay();
             System.exit(0);
         }
         else if ("View Help".equals(cmd))
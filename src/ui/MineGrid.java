@@ -7,10 +7,20 @@
 package ui;
 
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
 import javax.swing.plaf.basic.BasicBorders.ButtonBorder;
 import javax.swing.BorderFactory;
 import java.awt.*;
+import java.util.Random;
+import data.Replay;
+import data.ReplayWriter;
+import data.Snapshot;
+import impl.BoardPool;
 import impl.Minesweeper;
+import model.Board;
+import solver.NoGuessGenerator;
+import solver.Solver;
 
 /**
  * Displays and handles the main grid for the game
@@ -25,42 +35,173 @@ public class MineGrid extends JPanel
      */
     public Minesweeper getMainFrame() {return main;}
     
-    private int width;
     /**
      * Returns the current grid's width
      * 
      * @return the current grid's width
      */
-    public int getGridWidth() {return this.width;}
+    public int getGridWidth() {return this.board.getWidth();}
     
-    private int height;
     /**
      * Returns the current grid's height
      * 
      * @return the current grid's height
      */
-    public int getGridHeight() {return this.height;}
+    public int getGridHeight() {return this.board.getHeight();}
     
-    private int numMines;
     /**
      * Returns the number of mines in the current grid
      * 
      * @return the number of mines in the current grid
      */
-    public int getNumMines() {return this.numMines;}
+    public int getNumMines() {return this.board.getNumMines();}
     
+    private Board board;
     /**
-     * The array of tiles that make up the grid
+     * Returns the board holding the state of the current grid
+     * 
+     * @return the board holding the state of the current grid
+     */
+    public Board getBoard() {return this.board;}
+    
+    /**
+     * The representation used for new boards, Board.ARRAY or Board.BITS
+     */
+    private int boardRepresentation = Board.ARRAY;
+    
+    /**
+     * Sets the representation used for new boards
+     * 
+     * @param representation the representation, Board.ARRAY or Board.BITS
+     */
+    public void setBoardRepresentation(final int representation) {this.boardRepresentation = representation;}
+    
+    private boolean painted = true;
+    /**
+     * Returns true if the grid is painted as a single component, false if it uses a tile per cell
+     * 
+     * @return true if the grid is painted as a single component, false otherwise
+     */
+    public boolean isPainted() {return this.painted;}
+    
+    /**
+     * Sets whether new grids are painted as a single component or use a tile per cell
+     * 
+     * @param _painted true to paint new grids as a single component
+     */
+    public void setPainted(final boolean _painted) {this.painted = _painted;}
+    
+    private boolean noGuess = false;
+    /**
+     * Returns true if new boards can be solved without guessing
+     * 
+     * @return true if new boards can be solved without guessing, false otherwise
+     */
+    public boolean isNoGuess() {return this.noGuess;}
+    
+    /**
+     * Sets whether new boards must be solvable without guessing from the first click
+     * 
+     * @param _noGuess true to generate boards that can be solved without guessing
+     */
+    public void setNoGuess(final boolean _noGuess) {this.noGuess = _noGuess;}
+    
+    /**
+     * The time allowed for finding a board without guessing on the first
+     * click, in milliseconds, kept short as the click waits for it
+     */
+    public static final long CLICK_BUDGET = 50;
+    
+    private NoGuessGenerator generator = new NoGuessGenerator();
+    /**
+     * Returns the generator used for boards without guessing
+     * 
+     * @return the generator used for boards without guessing
+     */
+    public NoGuessGenerator getGenerator() {return this.generator;}
+    
+    private BoardPool boardPool;
+    /**
+     * Returns the pool of boards generated in the background, null if none
+     * 
+     * @return the pool of boards generated in the background, null if none
+     */
+    public BoardPool getBoardPool() {return this.boardPool;}
+    /**
+     * Sets the pool of boards generated in the background, null for none
+     * 
+     * @param _boardPool the pool of boards generated in the background, null for none
+     */
+    public void setBoardPool(final BoardPool _boardPool) {this.boardPool = _boardPool;}
+    
+    /**
+     * The array of tiles that display the board, when not painted
      */
     private Tile[][] tile;
     
-    private boolean minesAdded;
+    /**
+     * The canvas that displays the board, when painted
+     */
+    private GridCanvas canvas;
+    
+    /**
+     * Deduces safe tiles and mines for hints, created on the first hint
+     */
+    private Solver solver;
+    
+    /**
+     * Handles the mouse for every cell, on this panel or on the canvas
+     */
+    private GridMouseHandler mouseHandler;
+    
+    /**
+     * The replay the current game is recorded into, null when watching one
+     */
+    private Replay replay;
+    private long lastMoveNanos;
+    
+    private int[] numClicks = new int[3];
+    /**
+     * Returns the number of clicks of each type in the current game
+     * 
+     * @return the number of clicks, indexed by Replay.REVEAL, FLAG and CHORD
+     */
+    public int[] getNumClicks() {return this.numClicks;}
+    
+    /**
+     * The mines to add on the first uncover instead of random ones, or null
+     */
+    private int[] presetMines;
+    
+    private boolean watchingReplay = false;
+    /**
+     * Returns true if the grid is playing back a replay rather than a game
+     * 
+     * @return true if the grid is playing back a replay, false otherwise
+     */
+    public boolean isWatchingReplay() {return this.watchingReplay;}
+    
+    private boolean replayPlaying = false;
+    /**
+     * Returns true while the moves of the replay being watched are still
+     * being played
+     * 
+     * @return true while a replay is being played, false otherwise
+     */
+    public boolean isReplayPlaying() {return this.replayPlaying;}
+    /**
+     * Sets whether the moves of the replay being watched are still being played
+     * 
+     * @param _replayPlaying true while a replay is being played
+     */
+    public void setReplayPlaying(final boolean _replayPlaying) {this.replayPlaying = _replayPlaying;}
+    
     /**
      * Returns true if the mines have been added to the grid, false otherwise
      * 
      * @return true if the mines have been added to the grid, false otherwise
      */
-    public boolean areMinesAdded() {return minesAdded;}
+    public boolean areMinesAdded() {return this.board.areMinesAdded();}
     
     /**
      * Constructor, creates a new mine grid
@@ -70,6 +211,7 @@ public class MineGrid extends JPanel
     public MineGrid(final Minesweeper _main)
     {
         this.main = _main;
+        this.generator.setBudget(CLICK_BUDGET);
         setBackground(new Color(192,192,192));
         this.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createEmptyBorder(8,8,8,8),
@@ -80,10 +222,15 @@ public class MineGrid extends JPanel
                 new Color(128,128,128) //lightHighlight
             ) 
         ));
+        
+        // Tiles have no listeners of their own, so their events reach this panel
+        this.mouseHandler = new GridMouseHandler(this);
+        this.addMouseListener(this.mouseHandler);
+        this.addMouseMotionListener(this.mouseHandler);
     }
     
     /**
-     * Creates the tiles for the grid, and sets up the grid
+     * Creates the board and the tiles for the grid, and sets up the grid
      * 
      * @param _width the width of the grid
      * @param _height the height of the grid
@@ -91,24 +238,39 @@ public class MineGrid extends JPanel
      */
     public void setGrid(final int _width, final int _height, final int _numMines)
     {
-        setVisible(false);
+        this.finishReplay();
         
-        this.width = _width;
-        this.height = _height;
-        this.numMines = _numMines;
+        this.board = Board.create(this.boardRepresentation, _width, _height, _numMines, new Random());
+        this.solver = null;
+        this.replay = new Replay(_width, _height, this.board.getNumMines());
+        this.numClicks = new int[3];
+        this.presetMines = null;
+        this.watchingReplay = false;
+        this.replayPlaying = false;
+        if (this.boardPool != null)
+        {
+            this.boardPool.register(this.boardRepresentation, _width, _height, this.board.getNumMines(), this.noGuess);
+        }
         
-        this.minesAdded = false;
+        if (this.painted)
+        {
+            this.setPaintedGrid();
+            return;
+        }
+        
+        setVisible(false);
         
-        this.setLayout(new GridLayout(/*rows*/this.height, /*cols*/this.width, 0, 0));
+        this.canvas = null;
+        this.setLayout(new GridLayout(/*rows*/_height, /*cols*/_width, 0, 0));
         
         // Removes all the tiles from this mine grid
         this.removeAll();
         
-        this.tile = new Tile[this.width][this.height];
+        this.tile = new Tile[_width][_height];
         
-        for (int i=0; i<this.height; i++) //must put height first so it adds row by row, not col by col
+        for (int i=0; i<_height; i++) //must put height first so it adds row by row, not col by col
         {
-            for (int j=0; j<this.width; j++)
+            for (int j=0; j<_width; j++)
             {
                 this.tile[j][i] = new Tile(j, i, this);
                 add(this.tile[j][i]);
@@ -119,149 +281,256 @@ public class MineGrid extends JPanel
     }
     
     /**
-     * Adds all mines to this grid
+     * Sets up the grid to be painted by a single canvas, scrolling if the
+     * board is larger than the screen
+     */
+    private void setPaintedGrid()
+    {
+        if (this.canvas == null)
+        {
+            this.tile = null;
+            this.removeAll();
+            this.setLayout(new BorderLayout());
+            
+            this.canvas = new GridCanvas(this);
+            this.canvas.addMouseListener(this.mouseHandler);
+            this.canvas.addMouseMotionListener(this.mouseHandler);
+            JScrollPane scrollPane = new JScrollPane(this.canvas);
+            scrollPane.setBorder(BorderFactory.createEmptyBorder());
+            this.add(scrollPane);
+        }
+        
+        // Limit the grid to most of the screen, scrolling the rest
+        Dimension size = this.canvas.getPreferredSize();
+        Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        JScrollPane scrollPane = (JScrollPane) this.getComponent(0);
+        scrollPane.setPreferredSize(null);
+        if (size.width > screen.width - 100 || size.height > screen.height - 200)
+        {
+            scrollPane.setPreferredSize(new Dimension(
+                Math.min(size.width, screen.width - 100) + scrollPane.getVerticalScrollBar().getPreferredSize().width,
+                Math.min(size.height, screen.height - 200) + scrollPane.getHorizontalScrollBar().getPreferredSize().height));
+        }
+        
+        this.canvas.revalidate();
+        this.canvas.repaint();
+    }
+    
+    /**
+     * Sets up the grid to watch a replay, with the replay's mines and without
+     * recording
      * 
-     * @param col the column of the very first tile uncovered
-     * @param row the row of the very first tile uncovered
+     * @param _replay the replay to watch
      */
-    public void addMines(final int col, final int row)
+    public void setGrid(final Replay _replay)
     {
-        this.minesAdded = true;
+        this.setGrid(_replay.getWidth(), _replay.getHeight(), _replay.getNumMines());
+        this.replay = null;
+        this.presetMines = _replay.getMines();
+        this.watchingReplay = true;
+    }
+    
+    /**
+     * Sets up the grid to carry on a saved game. The moves before it was
+     * saved aren't known, so the rest of the game isn't recorded as a replay.
+     * 
+     * @param snapshot the saved game
+     */
+    public void setGrid(final Snapshot snapshot)
+    {
+        this.setGrid(snapshot.getWidth(), snapshot.getHeight(), snapshot.getNumMines());
+        this.replay = null;
+        this.numClicks = snapshot.getNumClicks();
         
-        // If more mines than tiles, set num mines to one less than num tiles
-        if (this.numMines >= this.width*this.height)
+        snapshot.restore(this.board);
+        this.updateTiles();
+    }
+    
+    /**
+     * Returns the cell under the given point, -1 if the point is outside the grid
+     * 
+     * @param source the component the point is relative to
+     * @param p the point
+     * @return the cell under the point, -1 if none
+     */
+    public int cellAt(final Component source, final Point p)
+    {
+        if (this.canvas != null)
         {
-            this.numMines = this.width*this.height - 1;
+            return this.canvas.cellAt(SwingUtilities.convertPoint(source, p, this.canvas));
         }
         
-        int x, y; //position of next mine
-        int i = 0;
-        while (i < this.numMines)
+        // Tiles are laid out in equal cells from the first one
+        Point q = SwingUtilities.convertPoint(source, p, this);
+        Tile first = this.tile[0][0];
+        if (first.getWidth() == 0 || first.getHeight() == 0 || q.x < first.getX() || q.y < first.getY())
         {
-            // Generate a random position for the mine
-            x = Math.round((float) Math.random() * (this.width - 1));
-            y = Math.round((float) Math.random() * (this.height - 1));
-            
-            // If the tile isn't already a mine or the first uncovered tile
-            if ( ! this.tile[x][y].isMine() && ! (x==col && y==row))
-            {
-                this.tile[x][y].setMine();
-                i++;
-            }
+            return -1;
         }
         
-        this.setTileValues();
+        int col = (q.x - first.getX()) / first.getWidth();
+        int row = (q.y - first.getY()) / first.getHeight();
+        if (col >= this.board.getWidth() || row >= this.board.getHeight())
+        {
+            return -1;
+        }
+        return this.board.getCell(col, row);
     }
     
     /**
-     * Sets the value of each tile based on its surrounding mines
+     * Makes the given cell look pressed or not
+     * 
+     * @param cell the cell, -1 for none
+     * @param pressed true to look pressed, false to go back to normal
      */
-    private void setTileValues()
+    public void setCellPressed(final int cell, final boolean pressed)
     {
-        // For each tile in the grid
-        for (int i=0; i<this.width; i++) {
-        for (int j=0; j<this.height; j++)
+        // The cell may be left over from a grid that has since been replaced
+        if (cell == -1 || cell >= this.board.getWidth()*this.board.getHeight())
         {
-            // Don't bother checking if bomb
-            if (this.tile[i][j].isMine())
-            {
-                continue;
-            }
-            
-            int neighbourMines = 0; //number of neighbouring mines
-            
-            // For each surrounding tile
-            for (int k=i-1; k<=i+1; k++) {
-            for (int l=j-1; l<=j+1; l++)
-            {
-                if ( ! (k<0 || l<0 || k>=this.width || l>=this.height) //neighbour tile not out of grid
-                     && ! (k==i && l==j) //tile not the center (original) tile itself
-                     && this.tile[k][l].isMine() ) //neighbour tile is a mine
-                {
-                    neighbourMines++;
-                }
-            }
-            }
-            
-            this.tile[i][j].setValue(neighbourMines);
+            return;
+        }
+        
+        if (this.canvas != null)
+        {
+            this.canvas.setCellPressed(cell, pressed);
         }
+        else
+        {
+            this.tile[this.board.getCol(cell)][this.board.getRow(cell)].setPressed(pressed);
         }
     }
     
     /**
-     * Runs when a tile has been uncovered. If the tile has no neighbouring 
-     * mines, all adjacent tiles are uncovered as well.
+     * Runs when a tile has been uncovered by the player. The mines are added
+     * on the very first uncover, so the first tile is never a mine.
      * 
      * @param col the column of the tile that was uncovered
      * @param row the row of the tile that was uncovered
      */
-    public void tileUncovered(int col, int row)
+    public void tileUncovered(final int col, final int row)
+    {
+        this.tileUncovered(col, row, true);
+    }
+    
+    /**
+     * Uncovers a tile, adding the mines on the very first uncover
+     * 
+     * @param col the column of the tile to uncover
+     * @param row the row of the tile to uncover
+     * @param click true if the player clicked the tile, false for a hint
+     */
+    private void tileUncovered(final int col, final int row, final boolean click)
+    {
+        this.recordMove(Replay.REVEAL, col, row, click);
+        
+        if ( ! this.board.areMinesAdded())
+        {
+            this.addMines(col, row);
+            this.getMainFrame().getTimerDisplay().startTimer();
+        }
+        
+        this.board.uncover(col, row);
+        this.boardChanged();
+    }
+    
+    /**
+     * Adds the mines to the board, keeping the first tile uncovered free of
+     * them. A board ready in the pool is used if one fits the first tile.
+     * Without guessing, a layout that can be solved from the first tile is
+     * used if one is found within CLICK_BUDGET, and a random layout otherwise;
+     * the pool has boards without guessing ready for the games after it.
+     * 
+     * @param col the column of the first tile uncovered
+     * @param row the row of the first tile uncovered
+     */
+    private void addMines(final int col, final int row)
     {
-        this.setVisible(false);
-        if ( ! tile[col][row].isMine() && tile[col][row].noNeighbourMines())
+        if (this.presetMines != null)
+        {
+            this.board.setMines(this.presetMines);
+            this.presetMines = null;
+            return;
+        }
+        
+        if (this.boardPool != null)
         {
-            // For each surrounding tile
-            for (int i=col-1; i<=col+1; i++) {
-            for (int j=row-1; j<=row+1; j++)
+            Board ready = this.boardPool.take(this.boardRepresentation, this.board.getWidth(), this.board.getHeight(),
+                                              this.board.getNumMines(), this.noGuess, col, row);
+            if (ready != null)
             {
-                if ( ! (i<0 || j<0 || i>=this.width || j>=this.height) //neighbour tile not out of grid
-                     && ! (i==col && j==row)) //tile not the center (original) tile itself
+                // Keep the flags placed before the first click
+                for (int cell=0; ready.getNumFlags()<this.board.getNumFlags(); cell++)
                 {
-                    if ( ! tile[i][j].isUncovered())
+                    if (this.board.isFlagged(this.board.getCol(cell), this.board.getRow(cell)))
                     {
-                        if (tile[i][j].isFlagged())
-                            tile[i][j].toggleFlagged();
-                        tile[i][j].uncoverValue();
-                        this.tileUncovered(i, j);
+                        ready.toggleFlagged(this.board.getCol(cell), this.board.getRow(cell));
                     }
                 }
+                this.board = ready;
+                return;
             }
+        }
+        
+        if (this.noGuess)
+        {
+            int[] mines = this.generator.generate(this.board.getWidth(), this.board.getHeight(),
+                                                  this.board.getNumMines(), col, row);
+            if (mines != null)
+            {
+                this.board.setMines(mines);
+                return;
             }
         }
-        this.setVisible(true);
+        
+        this.board.addMines(col, row);
     }
     
     /**
-     * Checks if the Minesweeper game, in its current state, has been won 
+     * Makes a move the player can be certain of: uncovers a tile that can't be
+     * a mine, or failing that flags a tile that must be one. A flag the
+     * player wrongly placed on a safe tile is removed before uncovering it.
      * 
-     * @return true if all non-mine blocks have been uncovered, false otherwise
+     * @return true if a move was made, false if there is no certain move
      */
-    public boolean checkWon()
+    public boolean giveHint()
     {
-        // For each tile in the grid
-        for (int i=0; i<this.width; i++) {
-        for (int j=0; j<this.height; j++)
+        if ( ! this.board.areMinesAdded() || this.getMainFrame().isGameOver())
         {
-            // If the tile isn't a mine and hasn't been uncovered
-            if ( ! tile[i][j].isMine() && ! tile[i][j].isUncovered())
-                return false;
-        }
+            return false;
         }
         
-        this.getMainFrame().wonGame();
-        return true;
-    }
-    
-    /**
-     * Shows the mines and incorrectly flagged mines
-     */
-    public void showMines()
-    {
-        this.setVisible(false); //ensures mines appear simultaneously
+        if (this.solver == null)
+        {
+            this.solver = new Solver(this.board);
+        }
         
-        // For each tile in the grid
-        for (int i=0; i<this.width; i++) {
-        for (int j=0; j<this.height; j++)
+        int cell = this.solver.findSafeCell();
+        if (cell != -1)
         {
-            if ((tile[i][j].isMine() && ! tile[i][j].isFlagged()) //if tile is an unflagged mine
-                || ( ! tile[i][j].isMine() && tile[i][j].isFlagged())) //if tile is flagged and not a mine
+            int col = this.board.getCol(cell);
+            int row = this.board.getRow(cell);
+            if (this.board.isFlagged(col, row))
             {
-                tile[i][j].uncoverValue();
+                this.toggleFlagged(col, row, false);
             }
+            this.tileUncovered(col, row, false);
+            return true;
         }
+        
+        int[] mines = this.solver.getMineCells();
+        for (int i=0; i<this.solver.getNumMineCells(); i++)
+        {
+            int col = this.board.getCol(mines[i]);
+            int row = this.board.getRow(mines[i]);
+            if ( ! this.board.isFlagged(col, row))
+            {
+                this.toggleFlagged(col, row, false);
+                return true;
+            }
         }
         
-        this.setVisible(true);
+        return false;
     }
     
     /**
@@ -272,57 +541,190 @@ public class MineGrid extends JPanel
      */
     public void uncoverAdjacentTiles(final int col, final int row)
     {
-        this.setVisible(false); //ensures tiles uncover simultaneously
-        
-        if (tile[col][row].isUncovered()
-            && tile[col][row].getValue() == this.numAdjacentFlags(col, row))
+        this.board.uncoverAdjacent(col, row);
+        if (this.board.getNumRevealed() > 0)
         {
-            // For each surrounding tile
-            for (int i=col-1; i<=col+1; i++) {
-            for (int j=row-1; j<=row+1; j++)
-            {
-                if ( ! (i<0 || j<0 || i>=this.width || j>=this.height) //neighbour tile not out of grid
-                    && ! (i==col && j==row)) //tile not the center (original) tile itself
-                {
-                    if ( ! tile[i][j].isUncovered() && ! tile[i][j].isFlagged())
-                    {
-                        tile[i][j].uncoverValue();
-                        this.tileUncovered(i, j);
-                    }
-                }
-            }
-            }
+            this.recordMove(Replay.CHORD, col, row, true);
         }
-        
-        this.setVisible(true);
+        this.boardChanged();
     }
     
     /**
-     * Calculates and returns the number of adjacent flags to a given tile
+     * Removes the flag if a tile is flagged and vice versa
      * 
      * @param col the column of the given tile
      * @param row the row of the given tile
-     * @return the number of adjacent flags
      */
-    private int numAdjacentFlags(final int col, final int row)
+    public void toggleFlagged(final int col, final int row)
     {
-        int neighbourFlags = 0;
+        this.toggleFlagged(col, row, true);
+    }
+    
+    /**
+     * Removes the flag if a covered tile is flagged and vice versa
+     * 
+     * @param col the column of the given tile
+     * @param row the row of the given tile
+     * @param click true if the player clicked the tile, false for a hint
+     */
+    private void toggleFlagged(final int col, final int row, final boolean click)
+    {
+        if (this.board.isUncovered(col, row))
+        {
+            return;
+        }
+        
+        this.recordMove(Replay.FLAG, col, row, click);
+        this.board.toggleFlagged(col, row);
+        this.getMainFrame().getMinesLeftDisplay().setNumMinesLeft(
+            this.board.getNumMines() - this.board.getNumFlags());
+        
+        if (this.canvas != null)
+        {
+            this.canvas.repaintCell(this.board.getCell(col, row));
+        }
+        else
+        {
+            this.tile[col][row].updateView();
+        }
+    }
+    
+    /**
+     * Updates the tiles after the board changed, and ends the game if it
+     * has been lost or won
+     */
+    private void boardChanged()
+    {
+        this.getMainFrame().getMinesLeftDisplay().setNumMinesLeft(
+            this.board.getNumMines() - this.board.getNumFlags());
         
-        // For each surrounding tile
-        for (int i=col-1; i<=col+1; i++) {
-        for (int j=row-1; j<=row+1; j++)
+        if (this.board.isExploded())
+        {
+            this.saveReplay(Replay.LOST);
+            this.getMainFrame().lostGame();
+        }
+        else
         {
-            if ( ! (i<0 || j<0 || i>=this.width || j>=this.height) //neighbour tile not out of grid
-                && ! (i==col && j==row)) //tile not the center (original) tile itself
+            if (this.solver != null)
             {
-                if (tile[i][j].isFlagged())
-                {
-                    neighbourFlags++;
-                }
+                this.solver.update();
             }
+            this.updateRevealedTiles();
+            this.checkWon(); //checks if won after uncovering, therefore, after a chain possibly found
+        }
+    }
+    
+    /**
+     * Checks if the Minesweeper game, in its current state, has been won 
+     * 
+     * @return true if all non-mine blocks have been uncovered, false otherwise
+     */
+    public boolean checkWon()
+    {
+        if ( ! this.board.isWon() || this.getMainFrame().isGameOver())
+            return false;
+        
+        this.saveReplay(Replay.WON);
+        this.getMainFrame().wonGame();
+        return true;
+    }
+    
+    /**
+     * Records a move into the replay of the current game, counting it as a
+     * click unless a hint made it
+     * 
+     * @param type Replay.REVEAL, Replay.FLAG or Replay.CHORD
+     * @param col the column of the tile
+     * @param row the row of the tile
+     * @param click true if the player made the move, false for a hint
+     */
+    private void recordMove(final int type, final int col, final int row, final boolean click)
+    {
+        if (click)
+        {
+            this.numClicks[type]++;
         }
+        
+        if (this.replay == null)
+        {
+            return;
         }
         
-        return neighbourFlags;
+        long now = System.nanoTime();
+        this.replay.addMove(type, this.board.getCell(col, row),
+                            (this.replay.getNumMoves() == 0) ? 0 : now - this.lastMoveNanos);
+        this.lastMoveNanos = now;
+    }
+    
+    /**
+     * Saves the replay of the current game, if it has started
+     * 
+     * @param result how the game ended, Replay.UNFINISHED, Replay.WON or Replay.LOST
+     */
+    private void saveReplay(final int result)
+    {
+        ReplayWriter writer = this.getMainFrame().getReplayWriter();
+        if (this.replay != null && this.board.areMinesAdded() && writer != null)
+        {
+            this.replay.finish(this.board.getMineCells(), result);
+            writer.write(this.replay);
+        }
+        this.replay = null;
+    }
+    
+    /**
+     * Saves the replay of the current game if it is still being played, as
+     * when starting another game or closing the window
+     */
+    public void finishReplay()
+    {
+        this.saveReplay(Replay.UNFINISHED);
+    }
+    
+    /**
+     * Shows the mines and incorrectly flagged mines
+     */
+    public void showMines()
+    {
+        this.updateTiles();
+    }
+    
+    /**
+     * Updates the tiles uncovered by the last move, in one batch
+     */
+    private void updateRevealedTiles()
+    {
+        int[] cells = this.board.getRevealedCells();
+        
+        if (this.canvas != null)
+        {
+            this.canvas.repaintCells(cells, this.board.getNumRevealed());
+            return;
+        }
+        
+        for (int i=0; i<this.board.getNumRevealed(); i++)
+        {
+            this.tile[this.board.getCol(cells[i])][this.board.getRow(cells[i])].updateView();
+        }
+    }
+    
+    /**
+     * Updates every tile to show the current state of the board
+     */
+    private void updateTiles()
+    {
+        if (this.canvas != null)
+        {
+            this.canvas.repaint();
+            return;
+        }
+        
+        // For each tile in the grid
+        for (int i=0; i<this.board.getWidth(); i++) {
+        for (int j=0; j<this.board.getHeight(); j++)
+        {
+            this.tile[i][j].updateView();
+        }
+        }
     }
 }
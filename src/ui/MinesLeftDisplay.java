@@ -24,6 +24,18 @@ public class MinesLeftDisplay extends RedIntDisplay
         this.setDisplayNum(0);
     }
     
+    /**
+     * Starts a new game with the given number of mines, widening the display
+     * if they need more than 3 digits
+     * 
+     * @param numMines the number of mines in the game
+     */
+    public void setNumMines(final int numMines)
+    {
+        this.setNumDigits(Integer.toString(numMines).length());
+        this.setNumMinesLeft(numMines);
+    }
+    
     /**
      * Sets the number of mines left
      * 
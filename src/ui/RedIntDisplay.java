@@ -10,14 +10,50 @@ import javax.swing.plaf.basic.BasicBorders.ButtonBorder;
 import javax.swing.border.MatteBorder;
 import javax.swing.*;
 import java.awt.*;
-import java.text.DecimalFormat;
-import java.util.Arrays;
 
 /**
  * Base class for the displays with red numbers on a black background
  */
 public class RedIntDisplay extends JLabel
 {
+    /**
+     * The range of numbers the display can show
+     */
+    public static final int MIN_NUM = -99;
+    public static final int MAX_NUM = 999;
+    
+    /**
+     * The width of the display with 3 digits, and of each digit past those, in pixels
+     */
+    private static final int WIDTH = 51;
+    private static final int DIGIT_WIDTH = 11;
+    
+    /**
+     * The text for every number the display can show, so setting a number
+     * doesn't format or allocate anything
+     */
+    private static final String[] TEXT = new String[MAX_NUM - MIN_NUM + 1];
+    static
+    {
+        for (int num=MIN_NUM; num<=MAX_NUM; num++)
+        {
+            TEXT[num - MIN_NUM] = padInt(num, 3);
+        }
+    }
+    
+    /**
+     * The number currently shown on the display
+     */
+    private int shownNum = Integer.MIN_VALUE;
+    
+    private int numDigits = 3;
+    /**
+     * Returns the number of digits the display shows
+     * 
+     * @return the number of digits the display shows
+     */
+    public int getNumDigits() {return this.numDigits;}
+    
     /**
      * Constructor, creates a new instance of RedDisplay
      */
@@ -44,42 +80,69 @@ public class RedIntDisplay extends JLabel
                 new Color(128,128,128) //lightHighlight
             )
         ));
-        this.setPreferredSize(new Dimension(51, 1));
+        this.setPreferredSize(new Dimension(WIDTH, 1));
+    }
+    
+    /**
+     * Sets the number of digits the display shows, at least 3, widening it
+     * past 3 so it can show larger numbers
+     * 
+     * @param _numDigits the number of digits
+     */
+    public void setNumDigits(final int _numDigits)
+    {
+        int digits = Math.max(3, Math.min(9, _numDigits));
+        if (digits != this.numDigits)
+        {
+            this.numDigits = digits;
+            this.setPreferredSize(new Dimension(WIDTH + DIGIT_WIDTH*(digits - 3), 1));
+            this.shownNum = Integer.MIN_VALUE;
+            this.revalidate();
+        }
     }
     
     /**
-     * Sets the number on the display
+     * Sets the number on the display. Numbers outside the range of the
+     * display are shown as the nearest number it can show.
      * 
      * @param num the number to set
      */
     public void setDisplayNum(final int num)
     {
-        this.setText(this.padInt(num, 3));
+        int max = (this.numDigits == 3) ? MAX_NUM : (int) Math.pow(10, this.numDigits) - 1;
+        int shown = Math.max(MIN_NUM, Math.min(max, num));
+        
+        if (shown != this.shownNum)
+        {
+            this.shownNum = shown;
+            this.setText((this.numDigits == 3) ? TEXT[shown - MIN_NUM] : padInt(shown, this.numDigits));
+        }
     }
     
     /**
-     * Pads a number with 0's to its left
+     * Pads a number with 0's to its left, with the minus sign taking the
+     * place of the first digit
      * 
      * @param num the number to pad
      * @param digits the length of the final, padded string
      * @return the padded number as a string
      */
-    private String padInt(final int num, final int digits)
+    private static String padInt(final int num, final int digits)
     {
-        int _digits = digits;
+        char[] text = new char[digits];
+        int rest = Math.abs(num);
         
-        if (num < 0)
+        for (int i=digits-1; i>=0; i--)
         {
-            _digits--; //this fix wont work for numbers less than or eq to -100
+            text[i] = (char) ('0' + rest % 10);
+            rest /= 10;
         }
         
-        // Create variable length array of zeros
-        char[] zeros = new char[_digits];
-        Arrays.fill(zeros, '0');
-        
-        // Format number as String
-        DecimalFormat df = new DecimalFormat(String.valueOf(zeros));
+        if (num < 0)
+        {
+            text[0] = '-';
+        }
         
-        return df.format(num);
+        return new String(text);
     }
 }
@@ -0,0 +1,211 @@
+//********************************************
+// A dialog displaying the statistics of every game finished
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package ui;
+
+import java.awt.event.*;
+import java.awt.*;
+import java.io.IOException;
+import javax.swing.*;
+import data.GameStats;
+import impl.BoardPool;
+import impl.Minesweeper;
+
+/**
+ * A dialog displaying the statistics of every game finished, for each difficulty
+ */
+public class StatisticsDialog extends JDialog implements ActionListener
+{
+    /**
+     * The main frame for the Minesweeper game
+     */
+    private Minesweeper main;
+    
+    /**
+     * Constructor, creates a new statistics dialog
+     * 
+     * @param _main the main Minesweeper object
+     * @param summaries the statistics of each difficulty
+     */
+    private StatisticsDialog(final Minesweeper _main, final GameStats.Summary[] summaries)
+    {
+        this.main = _main;
+        this.setUndecorated(true); //removes the window frame
+        
+        this.setLayout(new GridBagLayout());
+        GridBagConstraints c = new GridBagConstraints(
+            0, //gridx
+            0, //gridy
+            GameStats.NUM_DIFFICULTIES + 1, //gridwidth
+            1, //gridheight
+            0.0, //weightx
+            1.0, //weighty
+            GridBagConstraints.CENTER, //anchor
+            GridBagConstraints.NONE, //fill
+            new Insets(10, 10, 10, 10), //insets
+            0, //ipadx
+            0 //ipady
+        );
+        
+        JLabel header = new JLabel("Statistics");
+        header.setHorizontalAlignment(JLabel.CENTER);
+        this.add(header, c);
+        
+        String[] rows = {
+            "", "Games played:", "Games won:", "Win rate:", "Longest streak:", "Current streak:",
+            "Best time:", "Average time:", "Best 3BV/s:", "Median 3BV/s:", "90th percentile 3BV/s:",
+            "Efficiency:"
+        };
+        
+        c.gridwidth = 1;
+        c.anchor = GridBagConstraints.WEST;
+        c.insets = new Insets(2, 10, 2, 10);
+        for (int row=1; row<rows.length; row++)
+        {
+            c.gridx = 0;
+            c.gridy = row + 1;
+            this.add(new JLabel(rows[row]), c);
+        }
+        
+        // One column of statistics for each difficulty
+        String[] difficultyNames = {"Beginner", "Intermediate", "Expert", "Custom"};
+        c.anchor = GridBagConstraints.EAST;
+        for (int difficulty=0; difficulty<GameStats.NUM_DIFFICULTIES; difficulty++)
+        {
+            GameStats.Summary summary = summaries[difficulty];
+            boolean won = summary.getNumWon() > 0;
+            String[] values = {
+                difficultyNames[difficulty],
+                Long.toString(summary.getNumGames()),
+                Long.toString(summary.getNumWon()),
+                String.format("%.1f%%", summary.getWinRate()*100),
+                Long.toString(summary.getLongestStreak()),
+                Long.toString(summary.getCurrentStreak()),
+                won ? String.format("%.3f s", summary.getBestTime() / 1000.0) : "-",
+                won ? String.format("%.3f s", summary.getAverageTime() / 1000.0) : "-",
+                won ? String.format("%.2f", summary.getBestBvPerSecond()) : "-",
+                won ? String.format("%.2f", summary.getBvPerSecondPercentile(0.5)) : "-",
+                won ? String.format("%.2f", summary.getBvPerSecondPercentile(0.9)) : "-",
+                won ? String.format("%.0f%%", summary.getAverageEfficiency()*100) : "-"
+            };
+            
+            c.gridx = difficulty + 1;
+            for (int row=0; row<values.length; row++)
+            {
+                c.gridy = row + 1;
+                this.add(new JLabel(values[row]), c);
+            }
+        }
+        
+        c.gridx = 0;
+        c.gridy = rows.length + 1;
+        c.gridwidth = GameStats.NUM_DIFFICULTIES + 1;
+        c.anchor = GridBagConstraints.CENTER;
+        c.insets = new Insets(10, 10, 10, 10);
+        
+        // How long boards without guessing took to find, if any were wanted
+        String generation = this.getGenerationReport();
+        if (generation.length() > 0)
+        {
+            JTextArea report = new JTextArea(generation);
+            report.setEditable(false);
+            report.setOpaque(false);
+            report.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+            this.add(report, c);
+            c.gridy++;
+        }
+        
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setLayout(new FlowLayout());
+        
+        JButton butReset = new JButton("Reset Statistics");
+        butReset.addActionListener(this);
+        buttonPanel.add(butReset);
+        
+        JButton butOK = new JButton("OK");
+        butOK.addActionListener(this);
+        buttonPanel.add(butOK);
+        
+        this.add(buttonPanel, c);
+        
+        this.pack();
+        
+        // Move the statistics window to the center of the game window
+        this.setLocationRelativeTo(this.main);
+        
+        this.setVisible(true);
+    }
+    
+    /**
+     * Returns the time taken to find boards without guessing, on the first
+     * click and in the background, with the boards not found in time
+     * 
+     * @return the report, empty if no such boards were wanted
+     */
+    private String getGenerationReport()
+    {
+        String report = "";
+        String clicks = this.main.getMineGrid().getGenerator().getStats().getReport();
+        if (clicks.length() > 0)
+        {
+            report += "Boards without guessing, on the first click:\n" + clicks;
+        }
+        BoardPool pool = this.main.getMineGrid().getBoardPool();
+        String background = (pool == null) ? "" : pool.getGenerator().getStats().getReport();
+        if (background.length() > 0)
+        {
+            report += "Boards without guessing, in the background:\n" + background;
+        }
+        return report.trim();
+    }
+    
+    /**
+     * Works out the statistics and shows them in a new dialog
+     * 
+     * @param main the main Minesweeper object
+     */
+    public static void display(final Minesweeper main)
+    {
+        GameStats stats = main.getStats();
+        try
+        {
+            if (stats == null)
+            {
+                throw new IOException("The statistics could not be opened.");
+            }
+            new StatisticsDialog(main, stats.summarize());
+        }
+        catch (IOException e)
+        {
+            // Alert the user an error occured
+            JOptionPane.showMessageDialog(main,
+                "Unable to read the statistics.\n" + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    @Override
+    public void actionPerformed(ActionEvent e)
+    {
+        String cmd = e.getActionCommand();
+        
+        if ("OK".equals(cmd))
+        {
+            dispose();
+        }
+        else if ("Reset Statistics".equals(cmd))
+        {
+            try
+            {
+                this.main.getStats().reset();
+            }
+            catch (IOException ex) {}
+            dispose();
+            display(this.main);
+        }
+    }
+}
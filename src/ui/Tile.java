@@ -7,25 +7,27 @@
 package ui;
 
 import java.awt.*;
-import java.awt.event.*;
-import javax.swing.plaf.basic.BasicBorders.ButtonBorder;
-import javax.swing.border.MatteBorder;
 import javax.swing.*;
+import model.Board;
 
 /**
  * The tiles that make up the grid
  */
-public class Tile extends JLabel implements MouseListener
+public class Tile extends JLabel
 {
-    private int SIZE = 16; //size of the tile in pixels
     private MineGrid grid;
-    private boolean mouseDown = false;
-    private boolean mouseOver = false;
     private int col;
     private int row;
-    private int value; //value of the tile (0-8, -1 is mine)
-    private boolean uncovered;
-    private boolean flagged;
+    
+    /**
+     * What this tile currently shows, used to skip updates that change nothing
+     */
+    private int shownView = VIEW_COVERED;
+    private static final int VIEW_COVERED   = 0;
+    private static final int VIEW_FLAGGED   = 1;
+    private static final int VIEW_UNCOVERED = 2;
+    private static final int VIEW_MINE      = 3;
+    private static final int VIEW_NOT_MINE  = 4;
     
     /**
      * Constructor, creates a new tile
@@ -41,271 +43,127 @@ public class Tile extends JLabel implements MouseListener
         this.setHorizontalAlignment(JLabel.CENTER);
         this.grid = _grid;
         this.setStyleDepressed();
-        this.setPreferredSize(new Dimension(this.SIZE, this.SIZE));
-        this.addMouseListener(this);
+        this.setPreferredSize(TileStyles.PREFERRED_SIZE);
         this.col = _col;
         this.row = _row;
-        this.setValue(0);
-        this.uncovered = false;
-        this.flagged = false;
-    }
-    
-    /**
-     * Sets the value of this tile
-     * 
-     * @param _value the value of the tile, from -1 to 8
-     */
-    public void setValue(final int _value)
-    {
-        this.value = _value;
     }
     
     /**
-     * Returns the value of this tile
+     * Returns true if this tile has been uncovered, false otherwise
      * 
-     * @return the value of this tile
+     * @return true if this tile has been uncovered, false otherwise
      */
-    public int getValue()
+    public boolean isUncovered()
     {
-        return this.value;
+        return this.grid.getBoard().isUncovered(this.col, this.row);
     }
     
     /**
-     * Returns true if this tile is a mine, false otherwise
+     * Returns true if this tile is flagged
      * 
-     * @return true if this tile is a mine, false otherwise
-     */
-    public boolean isMine()
-    {
-        if (this.value == -1)
-            return true;
-        else
-            return false;
-    }
-    
-    /**
-     * Makes this tile a mine
+     * @return true if this tile is flagged
      */
-    public void setMine()
+    public boolean isFlagged()
     {
-        this.value = -1;
+        return this.grid.getBoard().isFlagged(this.col, this.row);
     }
     
     /**
-     * Returns true if this tile has no neighbouring mines
-     * 
-     * @return true if this tile has no neighbouring mines
+     * Updates this tile to show the state of its cell on the board
      */
-    public boolean noNeighbourMines()
+    public void updateView()
     {
-        if (this.value == 0)
-            return true;
+        Board board = this.grid.getBoard();
+        boolean gameOver = this.grid.getMainFrame().isGameOver();
+        boolean mine = board.isMine(this.col, this.row);
+        boolean flagged = board.isFlagged(this.col, this.row);
+        
+        int view;
+        if (gameOver && mine && ! flagged)
+            view = VIEW_MINE;
+        else if (gameOver && ! mine && flagged)
+            view = VIEW_NOT_MINE;
+        else if (board.isUncovered(this.col, this.row))
+            view = VIEW_UNCOVERED;
+        else if (flagged)
+            view = VIEW_FLAGGED;
         else
-            return false;
-    }
-    
-    /**
-     * Uncovers the value of this tile for the player to see
-     */
-    public void uncoverValue()
-    {
-        this.uncovered = true;
-        this.setStyleImpressed();
+            view = VIEW_COVERED;
         
-        if (this.isMine())
+        if (view == this.shownView)
+        {
+            return;
+        }
+        this.shownView = view;
+        
+        if (view == VIEW_MINE)
         {
             // BOOOOOOM!!!!
-            if ( ! this.grid.getMainFrame().isGameOver())
+            if (board.getExplodedCell() == board.getCell(this.col, this.row))
             {
                 this.makeRed(); //make this critical tile red
-                this.grid.getMainFrame().lostGame();
-            }
-            else
-            {
-                this.setIcon(new ImageIcon(this.grid.getMainFrame().RES_MINE));
             }
+            this.setStyleImpressed();
+            this.setIcon(IconCache.getIcon(this.grid.getMainFrame().RES_MINE));
         }
-        else if (this.value > 0)
+        else if (view == VIEW_NOT_MINE)
         {
-            if (this.isFlagged() && this.grid.getMainFrame().isGameOver())
-            {
-                this.setIcon(new ImageIcon(this.grid.getMainFrame().RES_NOT_MINE));
-            }
-            else
+            this.setStyleImpressed();
+            this.setIcon(IconCache.getIcon(this.grid.getMainFrame().RES_NOT_MINE));
+        }
+        else if (view == VIEW_UNCOVERED)
+        {
+            this.setStyleImpressed();
+            this.setIcon(null);
+            
+            int value = board.getValue(this.col, this.row);
+            if (value > 0)
             {
-                switch (this.value)
-                {
-                    case 1:  setForeground(Color.BLUE);                     break;
-                    case 2:  setForeground(Color.GREEN.darker().darker());  break;
-                    case 3:  setForeground(Color.RED);                      break;
-                    case 4:  setForeground(Color.BLUE.darker().darker());   break;
-                    case 5:  setForeground(Color.RED.darker());             break;
-                    case 6:  setForeground(Color.CYAN.darker().darker());   break;
-                    case 7:  setForeground(Color.BLACK);                    break;
-                    case 8:  setForeground(Color.GRAY.darker());            break;
-                    default: setForeground(Color.BLACK);                    break;
-                }
-                
-                this.setText(""+this.value);
-                
-                // If a tile was uncovered using uncoverAdjacentTiles, it should not remain flagged
-                if (this.isFlagged())
-                        this.toggleFlagged();
+                this.setForeground(TileStyles.getNumberColor(value));
+                this.setText(TileStyles.getNumberText(value));
             }
         }
-    }
-    
-    /**
-     * Returns true if this tile has been uncovered, false otherwise
-     * 
-     * @return true if this tile has been uncovered, false otherwise
-     */
-    public boolean isUncovered()
-    {
-        return this.uncovered;
-    }
-    
-    /**
-     * Makes the background of this tile red
-     */
-    private void makeRed()
-    {
-        this.setOpaque(true);
-        this.setBackground(Color.red);
-    }
-    
-    /**
-     * Removes the flag if a tile is flagged and vice versa
-     */
-    public void toggleFlagged()
-    {
-        if ( ! this.flagged)
+        else if (view == VIEW_FLAGGED)
         {
-            this.flagged = true;
-            this.setIcon(new ImageIcon(this.grid.getMainFrame().RES_FLAG));
-            this.grid.getMainFrame().getMinesLeftDisplay().minusOne();
+            this.setIcon(IconCache.getIcon(this.grid.getMainFrame().RES_FLAG));
         }
         else
         {
-            this.flagged = false;
             this.setIcon(null);
-            this.grid.getMainFrame().getMinesLeftDisplay().plusOne();
         }
     }
     
     /**
-     * Returns true if this tile is flagged
-     * 
-     * @return true if this tile is flagged
+     * Makes the background of this tile red
      */
-    public boolean isFlagged()
+    private void makeRed()
     {
-        return this.flagged;
+        this.setOpaque(true);
+        this.setBackground(TileStyles.EXPLODED);
     }
     
-    @Override
-    public void mousePressed(MouseEvent e)
+    /**
+     * Makes this tile look pressed while the mouse is held on it
+     * 
+     * @param pressed true to look pressed, false to go back to normal
+     */
+    public void setPressed(final boolean pressed)
     {
-        if ( ! grid.getMainFrame().isGameOver())
+        if (this.shownView == VIEW_COVERED)
         {
-            this.mouseDown = true;
-            this.mouseOver = true;
-
-            if ( ! this.uncovered && SwingUtilities.isLeftMouseButton(e) && ! this.flagged)
-            {
+            if (pressed)
                 this.setStyleImpressed();
-                this.grid.getMainFrame().setSmileyIcon(this.grid.getMainFrame().RES_SMILEY_NERVOUS);
-            }
-            else if (SwingUtilities.isMiddleMouseButton(e))
-            {
-                this.grid.getMainFrame().setSmileyIcon(this.grid.getMainFrame().RES_SMILEY_NERVOUS);
-            }
-        }
-    }
-    
-    @Override
-    public void mouseReleased(MouseEvent e)
-    {
-        if ( ! this.grid.getMainFrame().isGameOver())
-        {
-            this.grid.getMainFrame().setSmileyIcon(this.grid.getMainFrame().RES_SMILEY_NORMAL);
-            
-            if (this.mouseOver && ! this.uncovered)
-            {
-                if (SwingUtilities.isLeftMouseButton(e) && ! this.flagged)
-                {
-                    if ( ! this.grid.areMinesAdded())
-                    {
-                        this.grid.addMines(this.col, this.row);
-                        this.grid.getMainFrame().getTimerDisplay().startTimer();
-                    }
-                    this.uncoverValue();
-                    this.grid.tileUncovered(this.col, this.row);
-                    this.grid.checkWon(); //checks if won after tileUncovered, therefore, after a chain possibly found
-                }
-                else if (SwingUtilities.isRightMouseButton(e))
-                {
-                    this.toggleFlagged();
-                }
-            }
-            
-            if (SwingUtilities.isMiddleMouseButton(e))
-            {
-                // problem: if middle release not over tile, still presses tile
-                this.grid.uncoverAdjacentTiles(this.col, this.row);
-                this.grid.checkWon();
-            }
-            
-            this.mouseDown = false;
-            this.mouseOver = false; //must go at end of mouseReleased
-        }
-    }
-    
-    @Override
-    public void mouseExited(MouseEvent e)
-    {
-        if ( ! grid.getMainFrame().isGameOver())
-        {
-            if (this.mouseDown)
-                this.mouseOver = false;
-
-            if ( ! this.uncovered && this.mouseDown && ! this.flagged)
-            {
+            else
                 this.setStyleDepressed();
-            }
         }
     }
     
-    @Override
-    public void mouseEntered(MouseEvent e)
-    {
-        if ( ! grid.getMainFrame().isGameOver())
-        {
-            if (this.mouseDown)
-                this.mouseOver = true;
-
-            if ( ! this.uncovered && this.mouseDown && ! this.flagged)
-            {
-                this.setStyleImpressed();
-            }
-        }
-    }
-    
-    @Override
-    public void mouseClicked(MouseEvent e) {}
-    
     /**
      * Makes this tile look impressed
      */
     private void setStyleImpressed()
     {
-        this.setBorder(new MatteBorder(
-            1, //top
-            1, //left
-            0, //bottom
-            0, //right
-            new Color(128,128,128)
-        ));
+        this.setBorder(TileStyles.IMPRESSED);
     }
     
     /**
@@ -313,11 +171,6 @@ public class Tile extends JLabel implements MouseListener
      */
     private void setStyleDepressed()
     {
-        setBorder(new ButtonBorder(
-            new Color(128,128,128), //shadow
-            new Color(128,128,128), //darkShadow
-            Color.white, //highlight
-            Color.white //lightHighlight
-        ));
+        this.setBorder(TileStyles.DEPRESSED);
     }
 }
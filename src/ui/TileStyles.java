@@ -0,0 +1,92 @@
+//********************************************
+// The shared borders and colours used to draw tiles
+// Created by Michael Seymour
+// Created on 18 October 2026
+//********************************************
+
+package ui;
+
+import java.awt.*;
+import javax.swing.border.Border;
+import javax.swing.border.MatteBorder;
+import javax.swing.plaf.basic.BasicBorders.ButtonBorder;
+
+/**
+ * The shared borders and colours used to draw tiles. Borders and colours are
+ * immutable, so every tile uses the same instances instead of creating its
+ * own each time it changes state.
+ */
+public class TileStyles
+{
+    /**
+     * Size of a tile in pixels
+     */
+    public static final int SIZE = 16;
+    public static final Dimension PREFERRED_SIZE = new Dimension(SIZE, SIZE);
+    
+    /**
+     * Colours of the grid
+     */
+    public static final Color BACKGROUND = new Color(192,192,192);
+    public static final Color SHADOW = new Color(128,128,128);
+    public static final Color EXPLODED = Color.red;
+    
+    /**
+     * Border of a tile that has been uncovered or is being pressed
+     */
+    public static final Border IMPRESSED = new MatteBorder(
+        1, //top
+        1, //left
+        0, //bottom
+        0, //right
+        SHADOW
+    );
+    
+    /**
+     * Border of a covered tile
+     */
+    public static final Border DEPRESSED = new ButtonBorder(
+        SHADOW, //shadow
+        SHADOW, //darkShadow
+        Color.white, //highlight
+        Color.white //lightHighlight
+    );
+    
+    /**
+     * Colour and text of each value from 0 to 8
+     */
+    private static final Color[] NUMBER_COLORS = {
+        Color.BLACK,
+        Color.BLUE,
+        Color.GREEN.darker().darker(),
+        Color.RED,
+        Color.BLUE.darker().darker(),
+        Color.RED.darker(),
+        Color.CYAN.darker().darker(),
+        Color.BLACK,
+        Color.GRAY.darker()
+    };
+    private static final String[] NUMBER_TEXT = {"", "1", "2", "3", "4", "5", "6", "7", "8"};
+    
+    /**
+     * Returns the colour of the given value
+     * 
+     * @param value the value of a tile, from 0 to 8
+     * @return the colour the value is drawn in
+     */
+    public static Color getNumberColor(final int value)
+    {
+        return NUMBER_COLORS[value];
+    }
+    
+    /**
+     * Returns the text shown for the given value
+     * 
+     * @param value the value of a tile, from 0 to 8
+     * @return the text shown for the value, empty for 0
+     */
+    public static String getNumberText(final int value)
+    {
+        return NUMBER_TEXT[value];
+    }
+}
@@ -6,50 +6,110 @@
 
 package ui;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import javax.swing.Timer;
 
 /**
- * The display for the timer
+ * The display for the timer. The game time is measured with System.nanoTime
+ * from the first uncover to the end of the game, and the display is updated
+ * on the event dispatch thread by a single Swing timer that only fires when
+ * the shown second changes.
  */
 public class TimerDisplay extends RedIntDisplay
 {
-    private int numSeconds = -1;
     /**
-     * Returns the number of seconds on the timer
+     * The time the game started and stopped, from System.nanoTime
+     */
+    private long startNanos;
+    private long stopNanos;
+    
+    private boolean running = false;
+    /**
+     * Returns true if the timer is running, false otherwise
      * 
-     * @return the number of seconds on the timer
+     * @return true if the timer is running, false otherwise
      */
-    public int getNumSeconds() {return this.numSeconds;}
+    public boolean isRunning() {return this.running;}
     
-    private Timer timer;
+    private boolean started = false;
     
     /**
-     * Constructor, creates a new counter for the game time
+     * The second currently shown on the display
      */
-    public TimerDisplay()
-    {
-        this.setDisplayNum(0);
-    }
+    private int shownSeconds = 0;
     
     /**
-     * Starts the timer, incrementing the time by 1 every 1000 milliseconds
+     * Fires once per shown second, on the event dispatch thread
      */
-    public void startTimer()
+    private Timer tickTimer;
+    
+    /**
+     * Constructor, creates a new counter for the game time
+     */
+    public TimerDisplay()
     {
-        this.timer = new Timer();
+        this.setDisplayNum(0);
         
-        TimerTask incTimerTask = new TimerTask()
+        this.tickTimer = new Timer(1000, new ActionListener()
             {
                 @Override
-                public void run()
+                public void actionPerformed(ActionEvent e)
                 {
-                    numSeconds++;
-                    setDisplayNum(numSeconds);
+                    tick();
                 }
-            };
+            });
+        this.tickTimer.setRepeats(false);
+    }
+    
+    /**
+     * Returns the time on the timer in milliseconds, 0 if it hasn't started
+     * 
+     * @return the time on the timer in milliseconds
+     */
+    public long getElapsedMillis()
+    {
+        if ( ! this.started)
+        {
+            return 0;
+        }
         
-        this.timer.scheduleAtFixedRate(incTimerTask, 0, 1000);
+        long end = this.running ? System.nanoTime() : this.stopNanos;
+        return (end - this.startNanos) / 1000000L;
+    }
+    
+    /**
+     * Returns the number of whole seconds on the timer
+     * 
+     * @return the number of whole seconds on the timer
+     */
+    public int getNumSeconds()
+    {
+        return (int) (this.getElapsedMillis() / 1000);
+    }
+    
+    /**
+     * Starts the timer from 0
+     */
+    public void startTimer()
+    {
+        this.startNanos = System.nanoTime();
+        this.started = true;
+        this.running = true;
+        this.tick();
+    }
+    
+    /**
+     * Starts the timer from the given time, to carry on a saved game
+     * 
+     * @param elapsedMillis the time to start from, in milliseconds
+     */
+    public void resumeTimer(final long elapsedMillis)
+    {
+        this.startNanos = System.nanoTime() - elapsedMillis*1000000L;
+        this.started = true;
+        this.running = true;
+        this.tick();
     }
     
     /**
@@ -57,7 +117,13 @@ public class TimerDisplay extends RedIntDisplay
      */
     public void stopTimer()
     {
-        this.timer.cancel();
+        if (this.running)
+        {
+            this.stopNanos = System.nanoTime();
+            this.running = false;
+            this.tickTimer.stop();
+            this.showSeconds(this.getNumSeconds());
+        }
     }
     
     /**
@@ -65,9 +131,41 @@ public class TimerDisplay extends RedIntDisplay
      */
     public void resetTimer()
     {
-        if (this.timer instanceof Timer)
-            this.timer.cancel();
-        this.numSeconds = -1;
-        this.setDisplayNum(0);
+        this.tickTimer.stop();
+        this.running = false;
+        this.started = false;
+        this.showSeconds(0);
+    }
+    
+    /**
+     * Updates the display and schedules the next tick for when the shown
+     * second next changes
+     */
+    private void tick()
+    {
+        if ( ! this.running)
+        {
+            return;
+        }
+        
+        long millis = this.getElapsedMillis();
+        this.showSeconds((int) (millis / 1000));
+        
+        this.tickTimer.setInitialDelay((int) (1000 - millis % 1000));
+        this.tickTimer.restart();
+    }
+    
+    /**
+     * Shows the given number of seconds, if not already shown
+     * 
+     * @param seconds the number of seconds to show
+     */
+    private void showSeconds(final int seconds)
+    {
+        if (seconds != this.shownSeconds)
+        {
+            this.shownSeconds = seconds;
+            this.setDisplayNum(seconds);
+        }
     }
 }